@@ -1,21 +1,64 @@
 import api from './axiosConfig';
 
 export const appointmentApi = {
-    // Get all appointments for current user (patient or doctor)
-    getMyAppointments: async () => {
-        const response = await api.get('/appointments');
+    // Get one page of the current user's appointments (patient or doctor), newest first.
+    // params: { status, from, to, cursor, size } - pass the previous page's nextCursor as cursor
+    getMyAppointments: async (params = {}) => {
+        const response = await api.get('/appointments', { params });
         return response.data;
     },
 
+    // Listen for changes to the current user's appointments (Server-Sent Events).
+    // EventSource can't send the Authorization header, so the stream is read with fetch.
+    // Reconnects after the server closes the stream; returns a function that stops listening.
+    subscribeToChanges: (onChange) => {
+        const controller = new AbortController();
+
+        const connect = async () => {
+            while (!controller.signal.aborted) {
+                try {
+                    const response = await fetch(`${api.defaults.baseURL}/appointments/stream`, {
+                        headers: { Authorization: `Bearer ${localStorage.getItem('token')}` },
+                        signal: controller.signal,
+                    });
+                    if (!response.ok) return;
+
+                    const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+                    let buffer = '';
+                    for (;;) {
+                        const { value, done } = await reader.read();
+                        if (done) break;
+                        buffer += value;
+                        const events = buffer.split('\n\n');
+                        buffer = events.pop();
+                        events.forEach((event) => {
+                            const data = event.split('\n').find((line) => line.startsWith('data:'));
+                            if (data) onChange(JSON.parse(data.slice(5)));
+                        });
+                    }
+                } catch (err) {
+                    if (controller.signal.aborted) return;
+                    await new Promise((resolve) => setTimeout(resolve, 5000));
+                }
+            }
+        };
+
+        connect();
+        return () => controller.abort();
+    },
+
     // Get specific appointment by ID
     getAppointmentById: async (id) => {
         const response = await api.get(`/appointments/${id}`);
         return response.data;
     },
 
-    // Book new appointment (patient only)
-    bookAppointment: async (appointmentData) => {
-        const response = await api.post('/appointments', appointmentData);
+    // Book new appointment (patient only).
+    // Pass the same idempotencyKey when retrying one booking attempt, so it can't book twice.
+    bookAppointment: async (appointmentData, idempotencyKey = crypto.randomUUID()) => {
+        const response = await api.post('/appointments', appointmentData, {
+            headers: { 'Idempotency-Key': idempotencyKey },
+        });
         return response.data;
     },
 
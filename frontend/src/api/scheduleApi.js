@@ -16,4 +16,16 @@ export const scheduleApi = {
         const response = await api.delete(`/doctors/schedule/${scheduleId}`);
         return response.data;
     },
+
+    // URL calendar apps can subscribe to (carries its own token)
+    getCalendarFeed: async () => {
+        const response = await api.get('/calendar/feed');
+        return response.data;
+    },
+
+    // New feed URL; the old one stops working
+    resetCalendarFeed: async () => {
+        const response = await api.post('/calendar/feed/reset');
+        return response.data;
+    },
 };
@@ -7,18 +7,23 @@ export default function DoctorAppointments() {
     const { user, logout } = useAuth();
     const navigate = useNavigate();
     const [appointments, setAppointments] = useState([]);
+    const [nextCursor, setNextCursor] = useState(null);
+    const [loadingMore, setLoadingMore] = useState(false);
     const [loading, setLoading] = useState(true);
     const [error, setError] = useState('');
 
     useEffect(() => {
         fetchAppointments();
+        // Reload the first page whenever one of my appointments changes
+        return appointmentApi.subscribeToChanges(() => fetchAppointments());
     }, []);
 
     const fetchAppointments = async () => {
         try {
             setLoading(true);
-            const data = await appointmentApi.getMyAppointments();
-            setAppointments(data);
+            const page = await appointmentApi.getMyAppointments();
+            setAppointments(page.items);
+            setNextCursor(page.nextCursor);
             setError('');
         } catch (err) {
             setError('Failed to load appointments');
@@ -28,6 +33,20 @@ export default function DoctorAppointments() {
         }
     };
 
+    const loadMore = async () => {
+        try {
+            setLoadingMore(true);
+            const page = await appointmentApi.getMyAppointments({ cursor: nextCursor });
+            setAppointments((current) => [...current, ...page.items]);
+            setNextCursor(page.nextCursor);
+        } catch (err) {
+            setError('Failed to load more appointments');
+            console.error(err);
+        } finally {
+            setLoadingMore(false);
+        }
+    };
+
     const handleLogout = () => {
         logout();
         navigate('/login');
@@ -153,6 +172,18 @@ export default function DoctorAppointments() {
                                 </div>
                             </div>
                         ))}
+
+                        {nextCursor && (
+                            <div className="text-center">
+                                <button
+                                    onClick={loadMore}
+                                    disabled={loadingMore}
+                                    className="btn-secondary"
+                                >
+                                    {loadingMore ? 'Loading...' : 'Load more'}
+                                </button>
+                            </div>
+                        )}
                     </div>
                 )}
             </div>
@@ -1,9 +1,22 @@
+import { useState } from 'react';
 import { useAuth } from '../../context/AuthContext';
 import { useNavigate } from 'react-router-dom';
+import { scheduleApi } from '../../api/scheduleApi';
 
 export default function DoctorDashboard() {
     const { user, logout } = useAuth();
     const navigate = useNavigate();
+    const [feedUrl, setFeedUrl] = useState('');
+
+    const handleShowFeed = async () => {
+        const feed = await scheduleApi.getCalendarFeed();
+        setFeedUrl(feed.url);
+    };
+
+    const handleResetFeed = async () => {
+        const feed = await scheduleApi.resetCalendarFeed();
+        setFeedUrl(feed.url);
+    };
 
     const handleLogout = () => {
         logout();
@@ -67,6 +80,25 @@ export default function DoctorDashboard() {
                     </div>
                 </div>
 
+                <div className="mt-8 card">
+                    <h3 className="text-xl font-semibold mb-2">Calendar Feed</h3>
+                    <p className="text-gray-600 mb-4">
+                        Subscribe to this URL in your calendar app to see upcoming appointments. Keep it private.
+                    </p>
+                    {feedUrl ? (
+                        <div className="flex gap-2">
+                            <input readOnly value={feedUrl} onFocus={(e) => e.target.select()} className="input-field w-full text-sm" />
+                            <button onClick={handleResetFeed} className="btn-secondary text-sm whitespace-nowrap">
+                                Reset Link
+                            </button>
+                        </div>
+                    ) : (
+                        <button onClick={handleShowFeed} className="btn-secondary text-sm">
+                            Show Feed URL
+                        </button>
+                    )}
+                </div>
+
                 <div className="mt-8 card">
                     <h3 className="text-xl font-semibold mb-4">Authentication Working!</h3>
                     <p className="text-gray-600">
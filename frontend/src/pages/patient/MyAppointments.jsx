@@ -8,18 +8,23 @@ export default function MyAppointments() {
     const { user, logout } = useAuth();
     const navigate = useNavigate();
     const [appointments, setAppointments] = useState([]);
+    const [nextCursor, setNextCursor] = useState(null);
+    const [loadingMore, setLoadingMore] = useState(false);
     const [loading, setLoading] = useState(true);
     const [error, setError] = useState('');
 
     useEffect(() => {
         fetchAppointments().catch(console.error);
+        // Reload the first page whenever one of my appointments changes
+        return appointmentApi.subscribeToChanges(() => fetchAppointments().catch(console.error));
     }, []);
 
     const fetchAppointments = async () => {
         try {
             setLoading(true);
-            const data = await appointmentApi.getMyAppointments();
-            setAppointments(data);
+            const page = await appointmentApi.getMyAppointments();
+            setAppointments(page.items);
+            setNextCursor(page.nextCursor);
             setError('');
         } catch (err) {
             setError('Failed to load appointments');
@@ -29,6 +34,20 @@ export default function MyAppointments() {
         }
     };
 
+    const loadMore = async () => {
+        try {
+            setLoadingMore(true);
+            const page = await appointmentApi.getMyAppointments({ cursor: nextCursor });
+            setAppointments((current) => [...current, ...page.items]);
+            setNextCursor(page.nextCursor);
+        } catch (err) {
+            setError('Failed to load more appointments');
+            console.error(err);
+        } finally {
+            setLoadingMore(false);
+        }
+    };
+
     const handleCancel = async (id) => {
         if (!confirm('Are you sure you want to cancel this appointment?')) {
             return;
@@ -183,6 +202,18 @@ export default function MyAppointments() {
                                 </div>
                             </div>
                         ))}
+
+                        {nextCursor && (
+                            <div className="text-center">
+                                <button
+                                    onClick={loadMore}
+                                    disabled={loadingMore}
+                                    className="btn-secondary"
+                                >
+                                    {loadingMore ? 'Loading...' : 'Load more'}
+                                </button>
+                            </div>
+                        )}
                     </div>
                 )}
             </div>
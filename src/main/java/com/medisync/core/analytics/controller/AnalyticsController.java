@@ -0,0 +1,35 @@
+package com.medisync.core.analytics.controller;
+
+import com.medisync.core.analytics.dto.UtilizationReportDTO;
+import com.medisync.core.analytics.service.UtilizationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+/**
+ * REST Controller for clinic analytics.
+ * Endpoints:
+ * - GET /api/admin/analytics/utilization - Utilization heatmap and per doctor/specialization totals (ADMIN only)
+ */
+@RestController
+@RequestMapping("/api/admin/analytics")
+@RequiredArgsConstructor
+public class AnalyticsController {
+
+    private final UtilizationService utilizationService;
+
+    // Get utilization for a date range, optionally for one specialization
+    @GetMapping("/utilization")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<UtilizationReportDTO> getUtilization(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String specialization
+    ) {
+        return ResponseEntity.ok(utilizationService.getUtilization(from, to, specialization));
+    }
+}
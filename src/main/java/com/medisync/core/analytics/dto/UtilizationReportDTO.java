@@ -0,0 +1,83 @@
+package com.medisync.core.analytics.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO for clinic utilization over a date range.
+ * The same counts are given per hour of the week (the heatmap), per doctor and per specialization.
+ * utilization is booked / offered, or null when nothing was offered.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UtilizationReportDTO {
+
+    private LocalDate from;
+    private LocalDate to;
+    private Counts total;
+    private List<HeatmapCell> heatmap;
+    private List<DoctorUtilization> doctors;
+    private List<SpecializationUtilization> specializations;
+
+    /**
+     * Nested DTO for slot counts.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Counts {
+        private long offered;
+        private long booked;
+        private long cancelled;
+        private long noShow;
+        private Double utilization;
+    }
+
+    /**
+     * Nested DTO for one hour of the week, summed over every date in the range.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class HeatmapCell {
+        private DayOfWeek dayOfWeek;
+        private int hour;
+        private Counts counts;
+    }
+
+    /**
+     * Nested DTO for one doctor's totals.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DoctorUtilization {
+        private Long doctorId;
+        private String doctorName;
+        private String specialization;
+        private Counts counts;
+    }
+
+    /**
+     * Nested DTO for one specialization's totals.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SpecializationUtilization {
+        private String specialization;
+        private Counts counts;
+    }
+}
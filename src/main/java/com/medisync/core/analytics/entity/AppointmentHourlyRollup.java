@@ -0,0 +1,54 @@
+package com.medisync.core.analytics.entity;
+
+import com.medisync.core.doctor.entity.Doctor;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * AppointmentHourlyRollup entity holding appointment counts for one doctor, date and hour.
+ * Kept up to date by AppointmentRollupService as appointments are booked and cancelled,
+ * so utilization reports read a few rows per doctor-day instead of the appointments table.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(
+        name = "appointment_hourly_rollup",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_hourly_rollup_doctor_date_hour",
+                columnNames = {"doctor_id", "slot_date", "slot_hour"}
+        ),
+        indexes = @Index(name = "idx_hourly_rollup_date", columnList = "slot_date")
+)
+public class AppointmentHourlyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "doctor_id", nullable = false)
+    private Doctor doctor;
+
+    @Column(name = "slot_date", nullable = false)
+    private LocalDate slotDate;
+
+    @Column(name = "slot_hour", nullable = false)
+    private Integer slotHour; // 0 - 23, hour the appointments start in
+
+    @Column(nullable = false)
+    private Integer booked; // Appointments that took the slot (scheduled, completed or no-show)
+
+    @Column(nullable = false)
+    private Integer cancelled;
+
+    @Column(name = "no_show", nullable = false)
+    private Integer noShow;
+}
@@ -0,0 +1,66 @@
+package com.medisync.core.analytics.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Aggregate queries for utilization reports.
+ * Offered slots are expanded from doctor_schedules for each date in the range (skipping time off),
+ * used slots come from appointment_hourly_rollup; both are grouped by doctor and hour of the week.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UtilizationRepository {
+
+    private static final String HOUR_OF_WEEK_SQL =
+            "WITH offered AS (" +
+                    " SELECT s.doctor_id, EXTRACT(ISODOW FROM d)::int AS dow, EXTRACT(HOUR FROM t)::int AS hour," +
+                    " COUNT(*) AS offered" +
+                    " FROM doctor_schedules s" +
+                    " JOIN generate_series(?::date, ?::date, interval '1 day') d" +
+                    "   ON to_char(d, 'FMDAY') = s.day_of_week" +
+                    " CROSS JOIN LATERAL generate_series(d + s.start_time," +
+                    "   d + s.end_time - make_interval(mins => s.slot_duration)," +
+                    "   make_interval(mins => s.slot_duration)) t" +
+                    " WHERE s.is_available" +
+                    " AND NOT EXISTS (SELECT 1 FROM time_off o" +
+                    "   WHERE (o.doctor_id = s.doctor_id OR o.doctor_id IS NULL)" +
+                    "   AND d::date BETWEEN o.start_date AND o.end_date)" +
+                    " GROUP BY 1, 2, 3" +
+                    "), used AS (" +
+                    " SELECT doctor_id, EXTRACT(ISODOW FROM slot_date)::int AS dow, slot_hour AS hour," +
+                    " SUM(booked) AS booked, SUM(cancelled) AS cancelled, SUM(no_show) AS no_show" +
+                    " FROM appointment_hourly_rollup" +
+                    " WHERE slot_date BETWEEN ? AND ?" +
+                    " GROUP BY 1, 2, 3" +
+                    ")" +
+                    " SELECT COALESCE(o.doctor_id, u.doctor_id), COALESCE(o.dow, u.dow), COALESCE(o.hour, u.hour)," +
+                    " COALESCE(o.offered, 0), COALESCE(u.booked, 0), COALESCE(u.cancelled, 0), COALESCE(u.no_show, 0)" +
+                    " FROM offered o FULL JOIN used u" +
+                    " ON o.doctor_id = u.doctor_id AND o.dow = u.dow AND o.hour = u.hour";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Slot counts per doctor and hour of the week, summed over [from, to]
+    public List<HourOfWeekRow> findHourOfWeekCounts(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(HOUR_OF_WEEK_SQL,
+                (rs, rowNum) -> new HourOfWeekRow(
+                        rs.getLong(1),
+                        DayOfWeek.of(rs.getInt(2)),
+                        rs.getInt(3),
+                        rs.getLong(4),
+                        rs.getLong(5),
+                        rs.getLong(6),
+                        rs.getLong(7)),
+                from, to, from, to);
+    }
+
+    public record HourOfWeekRow(Long doctorId, DayOfWeek dayOfWeek, int hour, long offered, long booked,
+                                long cancelled, long noShow) {
+    }
+}
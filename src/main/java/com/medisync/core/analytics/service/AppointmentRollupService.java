@@ -0,0 +1,177 @@
+package com.medisync.core.analytics.service;
+
+import com.medisync.core.appointment.entity.Appointment;
+import com.medisync.core.appointment.event.AppointmentEvent;
+import com.medisync.core.appointment.event.AppointmentStatusChangedEvent;
+import com.medisync.core.appointment.event.NoShowBatchEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Maintains the appointment_hourly_rollup table.
+ * Handles:
+ * - Incremental upserts inside the booking/cancelling/no-show transaction, so counts commit with the change
+ * - A full rebuild on startup when the rollup is empty or was built by an older version of
+ *   REBUILD_FROM_SQL, and a nightly rebuild of recent days, which also picks up status changes
+ *   that publish no event (completed)
+ * Upserts hold an advisory lock in shared mode and rebuilds hold it exclusively, so no upsert
+ * is lost between a rebuild's delete and insert, and only one node rebuilds at a time.
+ */
+@Slf4j
+@Service
+public class AppointmentRollupService {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO appointment_hourly_rollup (doctor_id, slot_date, slot_hour, booked, cancelled, no_show) " +
+                    "VALUES (?, ?, ?, ?, ?, ?) " +
+                    "ON CONFLICT (doctor_id, slot_date, slot_hour) DO UPDATE SET " +
+                    "booked = appointment_hourly_rollup.booked + EXCLUDED.booked, " +
+                    "cancelled = appointment_hourly_rollup.cancelled + EXCLUDED.cancelled, " +
+                    "no_show = appointment_hourly_rollup.no_show + EXCLUDED.no_show";
+
+    // Arbitrary key shared by every node for the rollup's advisory lock
+    private static final long ROLLUP_LOCK = 0x524f4c4c5550L;
+
+    private static final String SHARED_LOCK_SQL = "SELECT pg_advisory_xact_lock_shared(?)";
+
+    private static final String EXCLUSIVE_LOCK_SQL = "SELECT pg_advisory_xact_lock(?)";
+
+    // Bump whenever REBUILD_FROM_SQL changes what a row holds, so the next startup rebuilds the rollup
+    private static final int ROLLUP_VERSION = 1;
+
+    private static final String VERSION_SQL =
+            "SELECT COALESCE(MAX(version), 0) FROM read_model_version WHERE name = 'appointment_hourly_rollup'";
+
+    private static final String SET_VERSION_SQL =
+            "INSERT INTO read_model_version (name, version, rebuilt_at) " +
+                    "VALUES ('appointment_hourly_rollup', ?, now()) " +
+                    "ON CONFLICT (name) DO UPDATE SET version = EXCLUDED.version, rebuilt_at = EXCLUDED.rebuilt_at";
+
+    private static final String EMPTY_SQL =
+            "SELECT NOT EXISTS (SELECT 1 FROM appointment_hourly_rollup) AND EXISTS (SELECT 1 FROM appointments)";
+
+    private static final String DELETE_FROM_SQL =
+            "DELETE FROM appointment_hourly_rollup WHERE slot_date >= ?";
+
+    // Archived partitions still count towards history
+    private static final String REBUILD_FROM_SQL =
+            "INSERT INTO appointment_hourly_rollup (doctor_id, slot_date, slot_hour, booked, cancelled, no_show) " +
+                    "SELECT doctor_id, appointment_date, EXTRACT(HOUR FROM start_time)::int, " +
+                    "COUNT(*) FILTER (WHERE status <> 'CANCELLED'), " +
+                    "COUNT(*) FILTER (WHERE status = 'CANCELLED'), " +
+                    "COUNT(*) FILTER (WHERE status = 'NO_SHOW') " +
+                    "FROM (SELECT doctor_id, appointment_date, start_time, status FROM appointments " +
+                    "UNION ALL SELECT doctor_id, appointment_date, start_time, status FROM appointments_archive) a " +
+                    "WHERE appointment_date >= ? " +
+                    "GROUP BY doctor_id, appointment_date, EXTRACT(HOUR FROM start_time)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${analytics.rollup.repair-days:35}")
+    private int repairDays;
+
+    public AppointmentRollupService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Count bookings and cancellations in the same transaction that makes them
+    @EventListener
+    public void onAppointmentEvent(AppointmentEvent event) {
+        switch (event.getType()) {
+            case BOOKED -> add(event.getDoctorId(), event.getAppointmentDate(), event.getStartTime(), 1, 0, 0);
+            case CANCELLED -> add(event.getDoctorId(), event.getAppointmentDate(), event.getStartTime(), -1, 1, 0);
+            case REASSIGNED -> add(event.getDoctorId(), event.getAppointmentDate(), event.getStartTime(), -1, 0, 0);
+        }
+    }
+
+    // Move the appointment from its old status's counts to its new one's, as the rebuild counts them
+    @EventListener
+    public void onAppointmentStatusChanged(AppointmentStatusChangedEvent event) {
+        Appointment.AppointmentStatus from = event.getPreviousStatus();
+        Appointment.AppointmentStatus to = event.getStatus();
+        add(event.getDoctorId(), event.getAppointmentDate(), event.getStartTime(),
+                isBooked(to) - isBooked(from),
+                is(to, Appointment.AppointmentStatus.CANCELLED) - is(from, Appointment.AppointmentStatus.CANCELLED),
+                is(to, Appointment.AppointmentStatus.NO_SHOW) - is(from, Appointment.AppointmentStatus.NO_SHOW));
+    }
+
+    // Count a chunk of no-shows in one batch; they stay counted as booked too
+    @EventListener
+    public void onNoShowBatch(NoShowBatchEvent event) {
+        List<Object[]> rows = event.getAppointments().stream()
+                .map(appointment -> new Object[]{appointment.doctorId(), appointment.appointmentDate(),
+                        appointment.startTime().getHour(), 0, 0, 1})
+                .toList();
+        lock(SHARED_LOCK_SQL);
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (isStale()) {
+            transactionTemplate.executeWithoutResult(status -> {
+                lock(EXCLUSIVE_LOCK_SQL);
+                // Another node may have rebuilt it while this one waited for the lock
+                if (isStale()) {
+                    recount(LocalDate.EPOCH);
+                    jdbcTemplate.update(SET_VERSION_SQL, ROLLUP_VERSION);
+                }
+            });
+        }
+    }
+
+    // Recount recent days every night
+    @Scheduled(cron = "${analytics.rollup.cron:0 45 2 * * *}")
+    public void repairRecent() {
+        rebuildFrom(LocalDate.now().minusDays(repairDays));
+    }
+
+    // Recount every row from a date on with one aggregate query
+    public void rebuildFrom(LocalDate from) {
+        transactionTemplate.executeWithoutResult(status -> {
+            lock(EXCLUSIVE_LOCK_SQL);
+            recount(from);
+        });
+    }
+
+    private boolean isStale() {
+        return jdbcTemplate.queryForObject(VERSION_SQL, Integer.class) < ROLLUP_VERSION ||
+                Boolean.TRUE.equals(jdbcTemplate.queryForObject(EMPTY_SQL, Boolean.class));
+    }
+
+    private void recount(LocalDate from) {
+        jdbcTemplate.update(DELETE_FROM_SQL, from);
+        int rows = jdbcTemplate.update(REBUILD_FROM_SQL, from);
+        log.debug("Rebuilt appointment rollup from {}: {} rows", from, rows);
+    }
+
+    private void lock(String sql) {
+        jdbcTemplate.queryForObject(sql, Object.class, ROLLUP_LOCK);
+    }
+
+    private void add(Long doctorId, LocalDate date, LocalTime startTime, int booked, int cancelled, int noShow) {
+        lock(SHARED_LOCK_SQL);
+        jdbcTemplate.update(UPSERT_SQL, doctorId, date, startTime.getHour(), booked, cancelled, noShow);
+    }
+
+    private static int isBooked(Appointment.AppointmentStatus status) {
+        return status != Appointment.AppointmentStatus.CANCELLED ? 1 : 0;
+    }
+
+    private static int is(Appointment.AppointmentStatus status, Appointment.AppointmentStatus expected) {
+        return status == expected ? 1 : 0;
+    }
+}
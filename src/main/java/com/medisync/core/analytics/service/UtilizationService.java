@@ -0,0 +1,139 @@
+package com.medisync.core.analytics.service;
+
+import com.medisync.core.analytics.dto.UtilizationReportDTO;
+import com.medisync.core.analytics.repository.UtilizationRepository;
+import com.medisync.core.doctor.entity.Doctor;
+import com.medisync.core.doctor.repository.DoctorRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service for clinic utilization reports.
+ * One aggregate query returns counts per doctor and hour of the week; the heatmap,
+ * per-doctor and per-specialization views are summed from those rows in memory.
+ */
+@Service
+@RequiredArgsConstructor
+public class UtilizationService {
+
+    // Longest range a single report may cover
+    private static final int MAX_REPORT_DAYS = 366;
+
+    private final UtilizationRepository utilizationRepository;
+    private final DoctorRepository doctorRepository;
+
+    // Get utilization for [from, to], optionally for one specialization only
+    @Transactional(readOnly = true)
+    public UtilizationReportDTO getUtilization(LocalDate from, LocalDate to, String specialization) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_REPORT_DAYS) {
+            throw new IllegalArgumentException("Date range must not exceed " + MAX_REPORT_DAYS + " days");
+        }
+
+        Map<Long, Doctor> doctors = doctorRepository.findAll().stream()
+                .filter(doctor -> specialization == null || specialization.equalsIgnoreCase(doctor.getSpecialization()))
+                .collect(Collectors.toMap(Doctor::getId, Function.identity()));
+
+        Totals total = new Totals();
+        Map<Integer, Totals> byHourOfWeek = new TreeMap<>();
+        Map<Long, Totals> byDoctor = new TreeMap<>();
+        Map<String, Totals> bySpecialization = new TreeMap<>();
+
+        for (UtilizationRepository.HourOfWeekRow row : utilizationRepository.findHourOfWeekCounts(from, to)) {
+            Doctor doctor = doctors.get(row.doctorId());
+            if (doctor == null) {
+                continue;
+            }
+            total.add(row);
+            byHourOfWeek.computeIfAbsent(hourOfWeek(row.dayOfWeek(), row.hour()), key -> new Totals()).add(row);
+            byDoctor.computeIfAbsent(doctor.getId(), key -> new Totals()).add(row);
+            bySpecialization.computeIfAbsent(specializationOf(doctor), key -> new Totals()).add(row);
+        }
+
+        List<UtilizationReportDTO.HeatmapCell> heatmap = new ArrayList<>();
+        byHourOfWeek.forEach((hourOfWeek, totals) -> heatmap.add(UtilizationReportDTO.HeatmapCell.builder()
+                .dayOfWeek(DayOfWeek.of(hourOfWeek / 24 + 1))
+                .hour(hourOfWeek % 24)
+                .counts(totals.toDTO())
+                .build()));
+
+        List<UtilizationReportDTO.DoctorUtilization> doctorRows = byDoctor.entrySet().stream()
+                .map(entry -> {
+                    Doctor doctor = doctors.get(entry.getKey());
+                    return UtilizationReportDTO.DoctorUtilization.builder()
+                            .doctorId(doctor.getId())
+                            .doctorName(doctor.getFirstName() + " " + doctor.getLastName())
+                            .specialization(doctor.getSpecialization())
+                            .counts(entry.getValue().toDTO())
+                            .build();
+                })
+                .sorted(Comparator.comparing((UtilizationReportDTO.DoctorUtilization row) ->
+                        row.getCounts().getUtilization(), Comparator.nullsLast(Comparator.reverseOrder())))
+                .collect(Collectors.toList());
+
+        List<UtilizationReportDTO.SpecializationUtilization> specializationRows = bySpecialization.entrySet()
+                .stream()
+                .map(entry -> UtilizationReportDTO.SpecializationUtilization.builder()
+                        .specialization(entry.getKey())
+                        .counts(entry.getValue().toDTO())
+                        .build())
+                .collect(Collectors.toList());
+
+        return UtilizationReportDTO.builder()
+                .from(from)
+                .to(to)
+                .total(total.toDTO())
+                .heatmap(heatmap)
+                .doctors(doctorRows)
+                .specializations(specializationRows)
+                .build();
+    }
+
+    // Monday 00:00 is 0, Sunday 23:00 is 167
+    private int hourOfWeek(DayOfWeek dayOfWeek, int hour) {
+        return (dayOfWeek.getValue() - 1) * 24 + hour;
+    }
+
+    private String specializationOf(Doctor doctor) {
+        return doctor.getSpecialization() == null ? "Unspecified" : doctor.getSpecialization();
+    }
+
+    // Running sums for one group of rows
+    private static class Totals {
+        private long offered;
+        private long booked;
+        private long cancelled;
+        private long noShow;
+
+        void add(UtilizationRepository.HourOfWeekRow row) {
+            offered += row.offered();
+            booked += row.booked();
+            cancelled += row.cancelled();
+            noShow += row.noShow();
+        }
+
+        UtilizationReportDTO.Counts toDTO() {
+            return UtilizationReportDTO.Counts.builder()
+                    .offered(offered)
+                    .booked(booked)
+                    .cancelled(cancelled)
+                    .noShow(noShow)
+                    .utilization(offered == 0 ? null : (double) booked / offered)
+                    .build();
+        }
+    }
+}
@@ -1,18 +1,29 @@
 package com.medisync.core.appointment.controller;
 
 import com.medisync.core.appointment.dto.AppointmentDTO;
-import com.medisync.core.appointment.dto.AppointmentListDTO;
+import com.medisync.core.appointment.dto.AppointmentFilter;
+import com.medisync.core.appointment.dto.AppointmentPageDTO;
 import com.medisync.core.appointment.dto.BookAppointmentRequest;
+import com.medisync.core.appointment.dto.BookSeriesRequest;
+import com.medisync.core.appointment.dto.HoldSlotRequest;
+import com.medisync.core.appointment.dto.SeriesBookingDTO;
+import com.medisync.core.appointment.dto.SlotHoldDTO;
+import com.medisync.core.appointment.entity.Appointment;
 import com.medisync.core.appointment.service.AppointmentService;
+import com.medisync.core.appointment.service.AppointmentStreamService;
+import com.medisync.core.user.entity.User;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.List;
+import java.time.LocalDate;
 
 /**
  * REST Controller for appointment endpoints.
@@ -23,6 +34,7 @@ import java.util.List;
 public class AppointmentController {
 
     private final AppointmentService appointmentService;
+    private final AppointmentStreamService appointmentStreamService;
 
     /**
      * Book a new appointment.
@@ -40,27 +52,101 @@ public class AppointmentController {
     }
 
     /**
-     * Get all appointments for the current user.
-     * GET /api/appointments
+     * Book a recurring series; the response lists the outcome of every occurrence.
+     * POST /api/appointments/series
+     */
+    @PostMapping("/series")
+    @PreAuthorize("hasRole('PATIENT')")
+    public ResponseEntity<SeriesBookingDTO> bookSeries(
+            Authentication authentication,
+            @Valid @RequestBody BookSeriesRequest request
+    ) {
+        String patientEmail = authentication.getName();
+        SeriesBookingDTO series = appointmentService.bookSeries(patientEmail, request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(series);
+    }
+
+    /**
+     * Hold a slot while the patient completes the booking form.
+     * POST /api/appointments/holds
+     */
+    @PostMapping("/holds")
+    @PreAuthorize("hasRole('PATIENT')")
+    public ResponseEntity<SlotHoldDTO> holdSlot(
+            Authentication authentication,
+            @Valid @RequestBody HoldSlotRequest request
+    ) {
+        String patientEmail = authentication.getName();
+        SlotHoldDTO hold = appointmentService.holdSlot(patientEmail, request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(hold);
+    }
+
+    /**
+     * Release a slot hold.
+     * DELETE /api/appointments/holds/{holdId}
+     */
+    @DeleteMapping("/holds/{holdId}")
+    @PreAuthorize("hasRole('PATIENT')")
+    public ResponseEntity<Void> releaseHold(
+            @PathVariable String holdId,
+            Authentication authentication
+    ) {
+        appointmentService.releaseHold(holdId, authentication.getName());
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Get the current user's appointments, newest first, one page at a time.
+     * Archived months (see AppointmentPartitionService) are left out unless includeArchived=true.
+     * GET /api/appointments?status=&from=&to=&cursor=&size=&includeArchived=
      */
     @GetMapping
     @PreAuthorize("hasAnyRole('PATIENT', 'DOCTOR')")
-    public ResponseEntity<List<AppointmentListDTO>> getMyAppointments(Authentication authentication) {
-        String userEmail = authentication.getName();
+    public ResponseEntity<AppointmentPageDTO> getMyAppointments(
+            Authentication authentication,
+            @RequestParam(required = false) Appointment.AppointmentStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean includeArchived
+    ) {
+        User user = (User) authentication.getPrincipal();
 
         boolean isPatient = authentication.getAuthorities().stream()
                 .anyMatch(a -> a.getAuthority().equals("ROLE_PATIENT"));
 
-        List<AppointmentListDTO> appointments;
+        AppointmentFilter filter = AppointmentFilter.builder()
+                .status(status)
+                .from(from)
+                .to(to)
+                .cursor(cursor)
+                .size(size)
+                .includeArchived(includeArchived)
+                .build();
+
+        AppointmentPageDTO appointments;
         if (isPatient) {
-            appointments = appointmentService.getPatientAppointments(userEmail);
+            appointments = appointmentService.getPatientAppointments(user.getId(), filter);
         } else {
-            appointments = appointmentService.getDoctorAppointments(userEmail);
+            appointments = appointmentService.getDoctorAppointments(user.getId(), filter);
         }
 
         return ResponseEntity.ok(appointments);
     }
 
+    /**
+     * Stream changes to the current user's appointments as Server-Sent Events
+     * (event "appointment": BOOKED, CANCELLED, REASSIGNED or COMPLETED).
+     * GET /api/appointments/stream
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('PATIENT', 'DOCTOR')")
+    public SseEmitter streamChanges(Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        return appointmentStreamService.subscribe(user.getId());
+    }
+
     /**
      * Get a specific appointment by ID.
      * GET /api/appointments/{id}
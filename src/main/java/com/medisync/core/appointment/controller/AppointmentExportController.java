@@ -0,0 +1,47 @@
+package com.medisync.core.appointment.controller;
+
+import com.medisync.core.appointment.service.AppointmentExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+
+/**
+ * REST Controller for bulk appointment exports (billing).
+ * Endpoints:
+ * - GET /api/admin/appointments/export - Stream a date range as CSV or NDJSON (ADMIN only)
+ */
+@RestController
+@RequestMapping("/api/admin/appointments")
+@RequiredArgsConstructor
+public class AppointmentExportController {
+
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv");
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final AppointmentExportService exportService;
+
+    // Stream every appointment dated from..to, oldest first; format is CSV (default) or NDJSON
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "CSV") AppointmentExportService.Format format
+    ) {
+        exportService.validate(from, to);
+
+        String extension = format == AppointmentExportService.Format.CSV ? "csv" : "ndjson";
+        return ResponseEntity.ok()
+                .contentType(format == AppointmentExportService.Format.CSV ? CSV : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"appointments-" + from + "-" + to + "." + extension + "\"")
+                .body(out -> exportService.export(from, to, format, out));
+    }
+}
@@ -0,0 +1,30 @@
+package com.medisync.core.appointment.controller;
+
+import com.medisync.core.appointment.dto.ReassignmentPlanDTO;
+import com.medisync.core.appointment.dto.ReassignmentRequest;
+import com.medisync.core.appointment.service.ReassignmentService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST Controller for moving an unavailable doctor's appointments to colleagues.
+ * Endpoints:
+ * - POST /api/admin/reassignments - Propose or apply a reassignment (ADMIN only)
+ */
+@RestController
+@RequestMapping("/api/admin/reassignments")
+@RequiredArgsConstructor
+public class ReassignmentController {
+
+    private final ReassignmentService reassignmentService;
+
+    // Propose new doctors for a doctor's appointments in a date range; books them when apply is set
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ReassignmentPlanDTO> reassign(@Valid @RequestBody ReassignmentRequest request) {
+        return ResponseEntity.ok(reassignmentService.reassign(request));
+    }
+}
@@ -0,0 +1,26 @@
+package com.medisync.core.appointment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * DTO pushed on the appointment change stream.
+ * type is BOOKED, CANCELLED, REASSIGNED or COMPLETED.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentChangeDTO {
+
+    private String type;
+    private Long appointmentId;
+    private LocalDate appointmentDate;
+    private LocalTime startTime;
+    private LocalTime endTime;
+}
@@ -0,0 +1,27 @@
+package com.medisync.core.appointment.dto;
+
+import com.medisync.core.appointment.entity.Appointment;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Filters and page position for listing appointments.
+ * Every filter is optional; cursor is the nextCursor of the previous page.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentFilter {
+
+    private Appointment.AppointmentStatus status;
+    private LocalDate from; // Inclusive
+    private LocalDate to; // Inclusive
+    private String cursor;
+    private Integer size;
+    private boolean includeArchived; // Also read archived months (slower)
+}
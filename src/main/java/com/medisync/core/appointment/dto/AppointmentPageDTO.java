@@ -0,0 +1,24 @@
+package com.medisync.core.appointment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for one page of an appointment list, newest first.
+ * Pass nextCursor back as the cursor parameter to get the following page;
+ * it is null on the last page.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentPageDTO {
+
+    private List<AppointmentListDTO> items;
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,48 @@
+package com.medisync.core.appointment.dto;
+
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * DTO for booking a recurring series, e.g. every Tuesday 10:00 for 12 weeks.
+ * Occurrences fall on firstDate and then every intervalWeeks weeks after it.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookSeriesRequest {
+
+    @NotNull(message = "Doctor ID is required")
+    private Long doctorId;
+
+    @NotNull(message = "First date is required")
+    @Future(message = "First date must be in the future")
+    private LocalDate firstDate;
+
+    @NotNull(message = "Start time is required")
+    private LocalTime startTime;
+
+    @NotNull(message = "Number of occurrences is required")
+    @Min(value = 1, message = "A series needs at least 1 occurrence")
+    @Max(value = 52, message = "A series can have at most 52 occurrences")
+    private Integer occurrences;
+
+    @Builder.Default
+    @Min(value = 1, message = "Interval must be at least 1 week")
+    @Max(value = 4, message = "Interval must be at most 4 weeks")
+    private Integer intervalWeeks = 1;
+
+    @Size(max = 500, message = "Reason must not exceed 500 characters")
+    private String reason;
+}
@@ -0,0 +1,31 @@
+package com.medisync.core.appointment.dto;
+
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * DTO for holding a slot while the patient fills in the booking form.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HoldSlotRequest {
+
+    @NotNull(message = "Doctor ID is required")
+    private Long doctorId;
+
+    @NotNull(message = "Appointment date is required")
+    @Future(message = "Appointment date must be in the future")
+    private LocalDate appointmentDate;
+
+    @NotNull(message = "Start time is required")
+    private LocalTime startTime;
+}
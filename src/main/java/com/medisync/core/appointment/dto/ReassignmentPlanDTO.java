@@ -0,0 +1,48 @@
+package com.medisync.core.appointment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * DTO for a reassignment plan.
+ * Every affected appointment is listed; newDoctorId is null when no colleague was free.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReassignmentPlanDTO {
+
+    private Long doctorId;
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private boolean applied;
+    private int affected;
+    private int reassigned;
+    private List<Assignment> assignments;
+
+    /**
+     * Nested DTO for one affected appointment.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Assignment {
+        private Long appointmentId;
+        private Long patientId;
+        private String patientName;
+        private LocalDate date;
+        private LocalTime startTime;
+        private LocalTime endTime;
+        private Long newDoctorId;
+        private String newDoctorName;
+        private String message;
+    }
+}
@@ -0,0 +1,32 @@
+package com.medisync.core.appointment.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * DTO for moving an unavailable doctor's appointments to colleagues.
+ * With apply false the plan is only proposed; with apply true it is booked.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReassignmentRequest {
+
+    @NotNull(message = "Doctor ID is required")
+    private Long doctorId;
+
+    @NotNull(message = "From date is required")
+    private LocalDate fromDate;
+
+    @NotNull(message = "To date is required")
+    private LocalDate toDate; // Inclusive
+
+    @Builder.Default
+    private boolean apply = false;
+}
@@ -0,0 +1,49 @@
+package com.medisync.core.appointment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * DTO for the result of booking a recurring series.
+ * Every requested occurrence is listed, booked or not, so the patient can see
+ * which dates need another time.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeriesBookingDTO {
+
+    private Long doctorId;
+    private int requested;
+    private int booked;
+    private List<Occurrence> occurrences;
+
+    /**
+     * Nested DTO for one date of the series.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Occurrence {
+        private LocalDate date;
+        private LocalTime startTime;
+        private LocalTime endTime;
+        private OccurrenceStatus status;
+        private Long appointmentId; // Set when BOOKED
+        private String message; // Set when not booked
+    }
+
+    public enum OccurrenceStatus {
+        BOOKED,
+        CONFLICT, // Already booked or held by another patient
+        UNAVAILABLE // Outside the doctor's schedule, on leave or clinic closed
+    }
+}
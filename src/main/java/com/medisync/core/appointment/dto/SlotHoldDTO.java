@@ -0,0 +1,28 @@
+package com.medisync.core.appointment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * DTO for a temporary slot hold.
+ * The slot stays reserved for the patient until expiresAt or until it is booked.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlotHoldDTO {
+
+    private String id;
+    private Long doctorId;
+    private LocalDate appointmentDate;
+    private LocalTime startTime;
+    private LocalTime endTime;
+    private Instant expiresAt;
+}
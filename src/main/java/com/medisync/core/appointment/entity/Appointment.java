@@ -7,6 +7,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.PartitionKey;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -26,7 +27,19 @@ import java.time.LocalTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "appointments")
+@Table(
+        name = "appointments",
+        indexes = {
+                // Keyset pagination of a patient's/doctor's list (newest first)
+                @Index(name = "idx_appointments_patient_date",
+                        columnList = "patient_id, appointment_date, start_time, id"),
+                @Index(name = "idx_appointments_doctor_date",
+                        columnList = "doctor_id, appointment_date, start_time, id"),
+                // Date-range exports across all doctors
+                @Index(name = "idx_appointments_date",
+                        columnList = "appointment_date, start_time, id")
+        }
+)
 @EntityListeners(AuditingEntityListener.class)
 public class Appointment {
 
@@ -42,6 +55,8 @@ public class Appointment {
     @JoinColumn(name = "doctor_id", nullable = false)
     private Doctor doctor;
 
+    // Partition key: Hibernate adds it to the WHERE clause of updates, so they touch one partition
+    @PartitionKey
     @Column(name = "appointment_date", nullable = false)
     private LocalDate appointmentDate;
 
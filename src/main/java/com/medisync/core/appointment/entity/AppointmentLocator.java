@@ -0,0 +1,30 @@
+package com.medisync.core.appointment.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * AppointmentLocator entity: the date of every appointment, current or archived, by id.
+ * appointments is partitioned by date and its primary key is (id, appointment_date), so a lookup
+ * by id alone would probe every partition; reading the date here first narrows it to one.
+ * Written only by a trigger on appointments (see schema.sql).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "appointment_locator")
+public class AppointmentLocator {
+
+    @Id
+    private Long id; // Appointment id
+
+    @Column(name = "appointment_date", nullable = false)
+    private LocalDate appointmentDate;
+}
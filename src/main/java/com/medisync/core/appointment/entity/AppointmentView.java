@@ -0,0 +1,70 @@
+package com.medisync.core.appointment.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * AppointmentView entity: read model of one appointment for the list endpoints.
+ * Holds the patient and doctor names already formatted, so a page is read from this one
+ * narrow table without joining users. Written only by AppointmentViewService, in the same
+ * transaction as the change it mirrors; appointments in archived months are not kept here.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Immutable
+@Table(
+        name = "appointment_view",
+        indexes = {
+                // Keyset pagination of a patient's/doctor's list (newest first)
+                @Index(name = "idx_appointment_view_patient_date",
+                        columnList = "patient_id, appointment_date, start_time, id"),
+                @Index(name = "idx_appointment_view_doctor_date",
+                        columnList = "doctor_id, appointment_date, start_time, id")
+        }
+)
+public class AppointmentView {
+
+    @Id
+    private Long id; // Same as the appointment's id
+
+    @Column(name = "patient_id", nullable = false)
+    private Long patientId;
+
+    @Column(name = "doctor_id", nullable = false)
+    private Long doctorId;
+
+    @Column(name = "appointment_date", nullable = false)
+    private LocalDate appointmentDate;
+
+    @Column(name = "start_time", nullable = false)
+    private LocalTime startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private LocalTime endTime;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Appointment.AppointmentStatus status;
+
+    @Column(length = 500)
+    private String reason;
+
+    @Column(name = "patient_name", nullable = false)
+    private String patientName;
+
+    @Column(name = "doctor_name", nullable = false)
+    private String doctorName;
+
+    @Column(name = "doctor_specialization")
+    private String doctorSpecialization;
+}
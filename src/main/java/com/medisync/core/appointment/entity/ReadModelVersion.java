@@ -0,0 +1,32 @@
+package com.medisync.core.appointment.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * ReadModelVersion entity: the layout version a read model (e.g. appointment_view) was last
+ * rebuilt with. A node rebuilds the read model on startup only if this is behind its own code.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "read_model_version")
+public class ReadModelVersion {
+
+    @Id
+    @Column(length = 50)
+    private String name; // Table name of the read model
+
+    @Column(nullable = false)
+    private Integer version;
+
+    @Column(name = "rebuilt_at", nullable = false)
+    private LocalDateTime rebuiltAt;
+}
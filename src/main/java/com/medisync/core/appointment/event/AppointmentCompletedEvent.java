@@ -0,0 +1,23 @@
+package com.medisync.core.appointment.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Domain event published by MedicalRecordService when a visit's record completes its appointment.
+ * Separate from AppointmentEvent because completing neither takes nor releases a doctor's time.
+ */
+@Data
+@AllArgsConstructor
+public class AppointmentCompletedEvent {
+
+    private Long appointmentId;
+    private Long doctorId;
+    private Long patientId;
+    private LocalDate appointmentDate;
+    private LocalTime startTime;
+    private LocalTime endTime;
+}
@@ -0,0 +1,46 @@
+package com.medisync.core.appointment.event;
+
+import com.medisync.core.appointment.entity.Appointment;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Domain event published by AppointmentService whenever an appointment
+ * takes or releases a doctor's time.
+ * Listeners use it to keep in-memory availability state in sync with the database.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+public class AppointmentEvent {
+
+    private Type type;
+    private Long appointmentId;
+    private Long doctorId;
+    private Long patientId;
+    private LocalDate appointmentDate;
+    private LocalTime startTime;
+    private LocalTime endTime;
+
+    public enum Type {
+        BOOKED,
+        CANCELLED,
+        REASSIGNED // Released from this doctor because it moved to another one
+    }
+
+    public static AppointmentEvent of(Type type, Appointment appointment) {
+        return AppointmentEvent.builder()
+                .type(type)
+                .appointmentId(appointment.getId())
+                .doctorId(appointment.getDoctor().getId())
+                .patientId(appointment.getPatient().getId())
+                .appointmentDate(appointment.getAppointmentDate())
+                .startTime(appointment.getStartTime())
+                .endTime(appointment.getEndTime())
+                .build();
+    }
+}
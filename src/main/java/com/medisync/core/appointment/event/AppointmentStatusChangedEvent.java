@@ -0,0 +1,27 @@
+package com.medisync.core.appointment.event;
+
+import com.medisync.core.appointment.entity.Appointment;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Domain event published by AppointmentService when an appointment's status changes without
+ * taking or releasing a doctor's time, e.g. cancelling a no-show.
+ * Separate from AppointmentEvent so slot listeners don't treat it as a freed slot.
+ */
+@Data
+@AllArgsConstructor
+public class AppointmentStatusChangedEvent {
+
+    private Long appointmentId;
+    private Long doctorId;
+    private Long patientId;
+    private LocalDate appointmentDate;
+    private LocalTime startTime;
+    private LocalTime endTime;
+    private Appointment.AppointmentStatus previousStatus;
+    private Appointment.AppointmentStatus status;
+}
@@ -0,0 +1,23 @@
+package com.medisync.core.appointment.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Domain event published by NoShowService for each chunk of past appointments it marks NO_SHOW.
+ * Published inside the chunk's transaction, so listeners' writes commit with the chunk.
+ */
+@Data
+@AllArgsConstructor
+public class NoShowBatchEvent {
+
+    private List<MarkedAppointment> appointments;
+
+    public record MarkedAppointment(Long appointmentId, Long doctorId, LocalDate appointmentDate,
+                                    LocalTime startTime) {
+    }
+}
@@ -0,0 +1,141 @@
+package com.medisync.core.appointment.repository;
+
+import com.medisync.core.appointment.entity.Appointment;
+import com.medisync.core.appointment.event.NoShowBatchEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC batch writes for appointments.
+ * Used where many appointments are written at once and one round trip per row
+ * through JPA would dominate (e.g. recurring series, bulk reassignment).
+ */
+@Repository
+@RequiredArgsConstructor
+public class AppointmentBatchRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO appointments (patient_id, doctor_id, appointment_date, start_time, end_time, " +
+                    "status, reason, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String REASSIGN_SQL =
+            "UPDATE appointments SET doctor_id = ?, updated_at = ? " +
+                    "WHERE id = ? AND appointment_date = ? AND doctor_id = ? AND status = 'SCHEDULED'";
+
+    // Claims a chunk of scheduled appointments that ended before the cutoff and marks them NO_SHOW.
+    // SKIP LOCKED lets several nodes run this at once, each taking rows the others haven't locked.
+    private static final String MARK_NO_SHOW_SQL =
+            "WITH due AS (" +
+                    "SELECT id FROM appointments " +
+                    "WHERE status = 'SCHEDULED' AND appointment_date <= ? " +
+                    "AND CASE WHEN end_time > start_time " +
+                    "THEN appointment_date + end_time ELSE appointment_date + 1 + end_time END <= ? " +
+                    "ORDER BY appointment_date, id LIMIT ? FOR UPDATE SKIP LOCKED) " +
+                    "UPDATE appointments a SET status = 'NO_SHOW', updated_at = ? FROM due " +
+                    "WHERE a.id = due.id " +
+                    "RETURNING a.id, a.doctor_id, a.appointment_date, a.start_time";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert appointments in one JDBC batch and set their generated ids and timestamps.
+     * Must run inside a transaction; a constraint violation fails the whole batch.
+     */
+    public void insertAll(List<Appointment> appointments) {
+        if (appointments.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Appointment appointment = appointments.get(i);
+                        ps.setLong(1, appointment.getPatient().getId());
+                        ps.setLong(2, appointment.getDoctor().getId());
+                        ps.setObject(3, appointment.getAppointmentDate());
+                        ps.setObject(4, appointment.getStartTime());
+                        ps.setObject(5, appointment.getEndTime());
+                        ps.setString(6, appointment.getStatus().name());
+                        ps.setString(7, appointment.getReason());
+                        ps.setObject(8, now);
+                        ps.setObject(9, now);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return appointments.size();
+                    }
+                },
+                keyHolder
+        );
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < appointments.size(); i++) {
+            Appointment appointment = appointments.get(i);
+            appointment.setId(((Number) keys.get(i).get("id")).longValue());
+            appointment.setCreatedAt(now);
+            appointment.setUpdatedAt(now);
+        }
+    }
+
+    /**
+     * Move appointments from one doctor to others in one JDBC batch.
+     * Rows that are no longer the old doctor's scheduled appointments are skipped;
+     * returns how many rows were actually moved. Each row is matched by id and date, so its
+     * update only reads the one partition it lives in.
+     */
+    public int reassignAll(Long fromDoctorId, List<Appointment> appointments,
+                           Map<Long, Long> newDoctorByAppointment) {
+        if (newDoctorByAppointment.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>();
+        for (Appointment appointment : appointments) {
+            Long doctorId = newDoctorByAppointment.get(appointment.getId());
+            if (doctorId != null) {
+                rows.add(new Object[]{doctorId, now, appointment.getId(), appointment.getAppointmentDate(),
+                        fromDoctorId});
+            }
+        }
+
+        int moved = 0;
+        for (int count : jdbcTemplate.batchUpdate(REASSIGN_SQL, rows)) {
+            moved += count;
+        }
+        return moved;
+    }
+
+    /**
+     * Mark up to limit scheduled appointments that ended at or before the cutoff as NO_SHOW,
+     * in one statement. Must run inside a transaction; returns the rows it changed.
+     */
+    public List<NoShowBatchEvent.MarkedAppointment> markNoShow(LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.query(MARK_NO_SHOW_SQL,
+                (rs, rowNum) -> new NoShowBatchEvent.MarkedAppointment(
+                        rs.getLong("id"),
+                        rs.getLong("doctor_id"),
+                        rs.getObject("appointment_date", LocalDate.class),
+                        rs.getObject("start_time", LocalTime.class)),
+                cutoff.toLocalDate(), cutoff, limit, LocalDateTime.now());
+    }
+}
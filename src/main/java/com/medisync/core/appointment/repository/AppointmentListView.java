@@ -0,0 +1,29 @@
+package com.medisync.core.appointment.repository;
+
+import com.medisync.core.appointment.entity.Appointment;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Projection of the columns an appointment list shows.
+ * Read in one query joined with the patient and doctor, without loading any entity.
+ */
+public interface AppointmentListView {
+
+    Long getId();
+    LocalDate getAppointmentDate();
+    LocalTime getStartTime();
+    LocalTime getEndTime();
+    Appointment.AppointmentStatus getStatus();
+    String getReason();
+
+    Long getPatientId();
+    String getPatientFirstName();
+    String getPatientLastName();
+
+    Long getDoctorId();
+    String getDoctorFirstName();
+    String getDoctorLastName();
+    String getDoctorSpecialization();
+}
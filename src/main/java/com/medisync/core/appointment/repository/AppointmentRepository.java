@@ -1,18 +1,35 @@
 package com.medisync.core.appointment.repository;
 
 import com.medisync.core.appointment.entity.Appointment;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for Appointment entity.
  * Spring Data JPA provides standard CRUD methods automatically.
+ * The archive page queries are in AppointmentRepositoryCustom.
  */
 @Repository
-public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
+public interface AppointmentRepository extends JpaRepository<Appointment, Long>, AppointmentRepositoryCustom {
+
+    // Columns of AppointmentListView, selected from an appointment joined with its patient and doctor
+    String LIST_VIEW_SELECT =
+            "SELECT a.id AS id, a.appointmentDate AS appointmentDate, a.startTime AS startTime, " +
+            "a.endTime AS endTime, a.status AS status, a.reason AS reason, " +
+            "p.id AS patientId, p.firstName AS patientFirstName, p.lastName AS patientLastName, " +
+            "d.id AS doctorId, d.firstName AS doctorFirstName, d.lastName AS doctorLastName, " +
+            "d.specialization AS doctorSpecialization " +
+            "FROM Appointment a JOIN a.patient p JOIN a.doctor d ";
 
     /**
      * Find all appointments for a patient/doctor by their email.
@@ -21,6 +38,80 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     List<Appointment> findByPatient_Email(String email);
     List<Appointment> findByDoctor_Email(String email);
 
+    /**
+     * One chunk of every appointment in a date range, oldest first, for exports.
+     * Keyset-paged like the list queries: the first chunk has no cursor, later ones start after
+     * the last row's (date, startTime, id), compared as one row value so each chunk is a short
+     * range scan on the (date, start, id) index and no transaction spans the export.
+     */
+    @Query(LIST_VIEW_SELECT + "WHERE a.appointmentDate BETWEEN :from AND :to " +
+            "ORDER BY a.appointmentDate, a.startTime, a.id")
+    List<AppointmentListView> findFirstExportChunk(
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            Limit limit
+    );
+
+    @Query(LIST_VIEW_SELECT + "WHERE a.appointmentDate BETWEEN :from AND :to " +
+            "AND (a.appointmentDate, a.startTime, a.id) > (:cursorDate, :cursorTime, :cursorId) " +
+            "ORDER BY a.appointmentDate, a.startTime, a.id")
+    List<AppointmentListView> findExportChunk(
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            @Param("cursorDate") LocalDate cursorDate,
+            @Param("cursorTime") LocalTime cursorTime,
+            @Param("cursorId") Long cursorId,
+            Limit limit
+    );
+
+    // Appointments with a status in a date range, as projections (e.g. reminder windows)
+    @Query(LIST_VIEW_SELECT + "WHERE a.status = :status AND a.appointmentDate BETWEEN :from AND :to")
+    List<AppointmentListView> findViewsByStatusAndDateBetween(
+            @Param("status") Appointment.AppointmentStatus status,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to
+    );
+
+    // Which of these appointments, on these dates, still have the status; the dates keep it to their partitions
+    @Query("SELECT a.id FROM Appointment a " +
+            "WHERE a.appointmentDate IN :dates AND a.id IN :ids AND a.status = :status")
+    List<Long> findIdsByIdInAndStatus(
+            @Param("ids") Collection<Long> ids,
+            @Param("dates") Collection<LocalDate> dates,
+            @Param("status") Appointment.AppointmentStatus status
+    );
+
+    /**
+     * Find an appointment with its patient and doctor loaded in the same query (for AppointmentDTO).
+     * The date comes from appointment_locator in the same statement, so only its month's partition is read.
+     */
+    @EntityGraph(attributePaths = {"patient", "doctor"})
+    @Query("SELECT a FROM Appointment a WHERE a.id = :id AND a.appointmentDate = " +
+            "(SELECT l.appointmentDate FROM AppointmentLocator l WHERE l.id = :id)")
+    Optional<Appointment> findWithPatientAndDoctorById(@Param("id") Long id);
+
+    /**
+     * True if one of the doctor's active appointments overlaps the slot, by the same test as the
+     * exclusion constraint, so it sees bookings and cancellations from every node.
+     * The neighbouring days are included for appointments that run past midnight.
+     */
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM appointments a WHERE a.doctor_id = :doctorId " +
+            "AND a.appointment_date BETWEEN CAST(:date AS date) - 1 AND CAST(:date AS date) + 1 " +
+            "AND a.status NOT IN ('CANCELLED', 'NO_SHOW') " +
+            "AND tsrange(a.appointment_date + a.start_time, CASE WHEN a.end_time > a.start_time " +
+            "THEN a.appointment_date + a.end_time ELSE a.appointment_date + 1 + a.end_time END) " +
+            "&& tsrange(CAST(:date AS date) + CAST(:startTime AS time), " +
+            "CASE WHEN CAST(:endTime AS time) > CAST(:startTime AS time) " +
+            "THEN CAST(:date AS date) + CAST(:endTime AS time) " +
+            "ELSE CAST(:date AS date) + 1 + CAST(:endTime AS time) END))",
+            nativeQuery = true)
+    boolean existsActiveOverlap(
+            @Param("doctorId") Long doctorId,
+            @Param("date") LocalDate date,
+            @Param("startTime") LocalTime startTime,
+            @Param("endTime") LocalTime endTime
+    );
+
     //Find all appointments for a patient/doctor by ID.
     List<Appointment> findByPatient_Id(Long patientId);
     List<Appointment> findByDoctor_Id(Long doctorId);
@@ -28,6 +119,38 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     // Find all appointments on a specific date for a doctor.
     List<Appointment> findByDoctor_IdAndAppointmentDate(Long doctorId, LocalDate date);
 
+    // Find a doctor's appointments in a date range, skipping the given statuses.
+    List<Appointment> findByDoctor_IdAndAppointmentDateBetweenAndStatusNotIn(
+            Long doctorId,
+            LocalDate from,
+            LocalDate to,
+            Collection<Appointment.AppointmentStatus> statuses
+    );
+
+    // Same as above, with each appointment's patient loaded in the same query (for lists naming them).
+    @EntityGraph(attributePaths = "patient")
+    List<Appointment> findWithPatientByDoctor_IdAndAppointmentDateBetweenAndStatusNotIn(
+            Long doctorId,
+            LocalDate from,
+            LocalDate to,
+            Collection<Appointment.AppointmentStatus> statuses
+    );
+
+    // Same as above for a group of doctors at once.
+    List<Appointment> findByDoctor_IdInAndAppointmentDateBetweenAndStatusNotIn(
+            Collection<Long> doctorIds,
+            LocalDate from,
+            LocalDate to,
+            Collection<Appointment.AppointmentStatus> statuses
+    );
+
+    // Same as above for every doctor.
+    List<Appointment> findByAppointmentDateBetweenAndStatusNotIn(
+            LocalDate from,
+            LocalDate to,
+            Collection<Appointment.AppointmentStatus> statuses
+    );
+
     // Find all appointments with a specific status for a patient/doctor.
     List<Appointment> findByPatient_EmailAndStatus(String email, Appointment.AppointmentStatus status);
     List<Appointment> findByDoctor_EmailAndStatus(String email, Appointment.AppointmentStatus status);
@@ -0,0 +1,36 @@
+package com.medisync.core.appointment.repository;
+
+import com.medisync.core.appointment.entity.Appointment;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Queries of the archive tier (appointments_archive, see schema.sql): keyset pages built per call
+ * from the filters that are set, and single appointments by id.
+ */
+public interface AppointmentRepositoryCustom {
+
+    /**
+     * Same pages as AppointmentViewRepository's, read from archived months only.
+     * Only history views that ask for archived appointments run these.
+     */
+    List<AppointmentListView> findArchivedPatientPage(Long patientId, Appointment.AppointmentStatus status,
+                                                      LocalDate from, LocalDate to,
+                                                      LocalDate cursorDate, LocalTime cursorTime, Long cursorId,
+                                                      Limit limit);
+
+    List<AppointmentListView> findArchivedDoctorPage(Long doctorId, Appointment.AppointmentStatus status,
+                                                     LocalDate from, LocalDate to,
+                                                     LocalDate cursorDate, LocalTime cursorTime, Long cursorId,
+                                                     Limit limit);
+
+    /**
+     * An archived appointment by id, for detail views of old appointments.
+     * Detached; its patient and doctor are loaded lazily, inside the caller's transaction.
+     */
+    Optional<Appointment> findArchivedById(Long id);
+}
@@ -0,0 +1,143 @@
+package com.medisync.core.appointment.repository;
+
+import com.medisync.core.appointment.entity.Appointment;
+import com.medisync.core.doctor.entity.Doctor;
+import com.medisync.core.patient.entity.Patient;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Archive pages in SQL, since appointments_archive has no entity. Like the read model's pages,
+ * only the filters that are set go into the query and the cursor is one row-value comparison,
+ * so each partition is read with a range scan on its (user, date, start, id) index.
+ */
+@RequiredArgsConstructor
+class AppointmentRepositoryCustomImpl implements AppointmentRepositoryCustom {
+
+    private static final String ARCHIVE_SELECT =
+            "SELECT a.id, a.appointment_date, a.start_time, a.end_time, a.status, a.reason, " +
+                    "p.id AS patient_id, p.first_name AS patient_first_name, p.last_name AS patient_last_name, " +
+                    "d.id AS doctor_id, d.first_name AS doctor_first_name, d.last_name AS doctor_last_name, " +
+                    "d.specialization AS doctor_specialization " +
+                    "FROM appointments_archive a JOIN users p ON p.id = a.patient_id JOIN users d ON d.id = a.doctor_id ";
+
+    // The date from appointment_locator keeps the lookup to one archived partition
+    private static final String ARCHIVED_BY_ID_SQL =
+            "SELECT * FROM appointments_archive WHERE id = :id " +
+                    "AND appointment_date = (SELECT appointment_date FROM appointment_locator WHERE id = :id)";
+
+    private static final String PAGE_ORDER = " ORDER BY a.appointment_date DESC, a.start_time DESC, a.id DESC";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    @Override
+    public List<AppointmentListView> findArchivedPatientPage(Long patientId, Appointment.AppointmentStatus status,
+                                                             LocalDate from, LocalDate to,
+                                                             LocalDate cursorDate, LocalTime cursorTime, Long cursorId,
+                                                             Limit limit) {
+        return findArchivedPage("a.patient_id", patientId, status, from, to, cursorDate, cursorTime, cursorId, limit);
+    }
+
+    @Override
+    public List<AppointmentListView> findArchivedDoctorPage(Long doctorId, Appointment.AppointmentStatus status,
+                                                            LocalDate from, LocalDate to,
+                                                            LocalDate cursorDate, LocalTime cursorTime, Long cursorId,
+                                                            Limit limit) {
+        return findArchivedPage("a.doctor_id", doctorId, status, from, to, cursorDate, cursorTime, cursorId, limit);
+    }
+
+    @Override
+    public Optional<Appointment> findArchivedById(Long id) {
+        return jdbcTemplate.query(ARCHIVED_BY_ID_SQL, new MapSqlParameterSource("id", id), (rs, rowNum) ->
+                Appointment.builder()
+                        .id(rs.getLong("id"))
+                        .patient(entityManager.getReference(Patient.class, rs.getLong("patient_id")))
+                        .doctor(entityManager.getReference(Doctor.class, rs.getLong("doctor_id")))
+                        .appointmentDate(rs.getObject("appointment_date", LocalDate.class))
+                        .startTime(rs.getObject("start_time", LocalTime.class))
+                        .endTime(rs.getObject("end_time", LocalTime.class))
+                        .status(Appointment.AppointmentStatus.valueOf(rs.getString("status")))
+                        .reason(rs.getString("reason"))
+                        .notes(rs.getString("notes"))
+                        .createdAt(rs.getObject("created_at", LocalDateTime.class))
+                        .updatedAt(rs.getObject("updated_at", LocalDateTime.class))
+                        .build()
+        ).stream().findFirst();
+    }
+
+    private List<AppointmentListView> findArchivedPage(String owner, Long ownerId,
+                                                       Appointment.AppointmentStatus status,
+                                                       LocalDate from, LocalDate to,
+                                                       LocalDate cursorDate, LocalTime cursorTime, Long cursorId,
+                                                       Limit limit) {
+        StringBuilder sql = new StringBuilder(ARCHIVE_SELECT).append("WHERE ").append(owner).append(" = :ownerId");
+        MapSqlParameterSource parameters = new MapSqlParameterSource("ownerId", ownerId);
+
+        if (status != null) {
+            sql.append(" AND a.status = :status");
+            parameters.addValue("status", status.name());
+        }
+        if (from != null) {
+            sql.append(" AND a.appointment_date >= :from");
+            parameters.addValue("from", from);
+        }
+        if (to != null) {
+            sql.append(" AND a.appointment_date <= :to");
+            parameters.addValue("to", to);
+        }
+        if (cursorDate != null) {
+            sql.append(" AND (a.appointment_date, a.start_time, a.id) < (:cursorDate, :cursorTime, :cursorId)");
+            parameters.addValue("cursorDate", cursorDate)
+                    .addValue("cursorTime", cursorTime)
+                    .addValue("cursorId", cursorId);
+        }
+        sql.append(PAGE_ORDER);
+        if (limit.isLimited()) {
+            sql.append(" LIMIT :limit");
+            parameters.addValue("limit", limit.max());
+        }
+
+        return jdbcTemplate.query(sql.toString(), parameters, (rs, rowNum) -> new ArchivedAppointment(
+                rs.getLong("id"),
+                rs.getObject("appointment_date", LocalDate.class),
+                rs.getObject("start_time", LocalTime.class),
+                rs.getObject("end_time", LocalTime.class),
+                Appointment.AppointmentStatus.valueOf(rs.getString("status")),
+                rs.getString("reason"),
+                rs.getLong("patient_id"),
+                rs.getString("patient_first_name"),
+                rs.getString("patient_last_name"),
+                rs.getLong("doctor_id"),
+                rs.getString("doctor_first_name"),
+                rs.getString("doctor_last_name"),
+                rs.getString("doctor_specialization")));
+    }
+
+    @Value
+    private static class ArchivedAppointment implements AppointmentListView {
+        Long id;
+        LocalDate appointmentDate;
+        LocalTime startTime;
+        LocalTime endTime;
+        Appointment.AppointmentStatus status;
+        String reason;
+        Long patientId;
+        String patientFirstName;
+        String patientLastName;
+        Long doctorId;
+        String doctorFirstName;
+        String doctorLastName;
+        String doctorSpecialization;
+    }
+}
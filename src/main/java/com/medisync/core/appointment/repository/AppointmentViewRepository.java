@@ -0,0 +1,13 @@
+package com.medisync.core.appointment.repository;
+
+import com.medisync.core.appointment.entity.AppointmentView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for the AppointmentView read model.
+ * The keyset page queries are in AppointmentViewRepositoryCustom.
+ */
+@Repository
+public interface AppointmentViewRepository extends JpaRepository<AppointmentView, Long>, AppointmentViewRepositoryCustom {
+}
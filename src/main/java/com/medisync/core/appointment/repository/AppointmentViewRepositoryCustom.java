@@ -0,0 +1,30 @@
+package com.medisync.core.appointment.repository;
+
+import com.medisync.core.appointment.entity.Appointment;
+import com.medisync.core.appointment.entity.AppointmentView;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Keyset page queries of the AppointmentView read model, built per call from the filters that are set.
+ */
+public interface AppointmentViewRepositoryCustom {
+
+    /**
+     * One page of a patient's/doctor's appointments, newest first.
+     * Keyset pagination: pass the (date, startTime, id) of the last row seen, or nulls for
+     * the first page. Status and date filters are optional (null = any).
+     */
+    List<AppointmentView> findPatientPage(Long patientId, Appointment.AppointmentStatus status,
+                                          LocalDate from, LocalDate to,
+                                          LocalDate cursorDate, LocalTime cursorTime, Long cursorId,
+                                          Limit limit);
+
+    List<AppointmentView> findDoctorPage(Long doctorId, Appointment.AppointmentStatus status,
+                                         LocalDate from, LocalDate to,
+                                         LocalDate cursorDate, LocalTime cursorTime, Long cursorId,
+                                         Limit limit);
+}
@@ -0,0 +1,79 @@
+package com.medisync.core.appointment.repository;
+
+import com.medisync.core.appointment.entity.Appointment;
+import com.medisync.core.appointment.entity.AppointmentView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Only the filters that are set go into the query, and the cursor is a single row-value
+ * comparison, so every variant is a plain range scan on the (user, date, start, id) index
+ * instead of one catch-all query whose null checks the planner has to plan around.
+ */
+class AppointmentViewRepositoryCustomImpl implements AppointmentViewRepositoryCustom {
+
+    private static final String PAGE_ORDER = " ORDER BY v.appointmentDate DESC, v.startTime DESC, v.id DESC";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<AppointmentView> findPatientPage(Long patientId, Appointment.AppointmentStatus status,
+                                                 LocalDate from, LocalDate to,
+                                                 LocalDate cursorDate, LocalTime cursorTime, Long cursorId,
+                                                 Limit limit) {
+        return findPage("v.patientId", patientId, status, from, to, cursorDate, cursorTime, cursorId, limit);
+    }
+
+    @Override
+    public List<AppointmentView> findDoctorPage(Long doctorId, Appointment.AppointmentStatus status,
+                                                LocalDate from, LocalDate to,
+                                                LocalDate cursorDate, LocalTime cursorTime, Long cursorId,
+                                                Limit limit) {
+        return findPage("v.doctorId", doctorId, status, from, to, cursorDate, cursorTime, cursorId, limit);
+    }
+
+    private List<AppointmentView> findPage(String owner, Long ownerId, Appointment.AppointmentStatus status,
+                                           LocalDate from, LocalDate to,
+                                           LocalDate cursorDate, LocalTime cursorTime, Long cursorId,
+                                           Limit limit) {
+        StringBuilder jpql = new StringBuilder("SELECT v FROM AppointmentView v WHERE ")
+                .append(owner).append(" = :ownerId");
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("ownerId", ownerId);
+
+        if (status != null) {
+            jpql.append(" AND v.status = :status");
+            parameters.put("status", status);
+        }
+        if (from != null) {
+            jpql.append(" AND v.appointmentDate >= :from");
+            parameters.put("from", from);
+        }
+        if (to != null) {
+            jpql.append(" AND v.appointmentDate <= :to");
+            parameters.put("to", to);
+        }
+        if (cursorDate != null) {
+            jpql.append(" AND (v.appointmentDate, v.startTime, v.id) < (:cursorDate, :cursorTime, :cursorId)");
+            parameters.put("cursorDate", cursorDate);
+            parameters.put("cursorTime", cursorTime);
+            parameters.put("cursorId", cursorId);
+        }
+
+        TypedQuery<AppointmentView> query = entityManager.createQuery(jpql + PAGE_ORDER, AppointmentView.class);
+        parameters.forEach(query::setParameter);
+        if (limit.isLimited()) {
+            query.setMaxResults(limit.max());
+        }
+        return query.getResultList();
+    }
+}
@@ -0,0 +1,42 @@
+package com.medisync.core.appointment.service;
+
+import com.medisync.core.appointment.dto.AppointmentListDTO;
+import com.medisync.core.appointment.repository.AppointmentListView;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in an appointment list: the (date, startTime, id) of the last row on a page.
+ * Sent to clients as an opaque URL-safe string.
+ */
+record AppointmentCursor(LocalDate date, LocalTime startTime, Long id) {
+
+    static AppointmentCursor of(AppointmentListView appointment) {
+        return new AppointmentCursor(appointment.getAppointmentDate(), appointment.getStartTime(),
+                appointment.getId());
+    }
+
+    static AppointmentCursor of(AppointmentListDTO appointment) {
+        return new AppointmentCursor(appointment.getAppointmentDate(), appointment.getStartTime(),
+                appointment.getId());
+    }
+
+    String encode() {
+        String value = date + "|" + startTime + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static AppointmentCursor decode(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            return new AppointmentCursor(LocalDate.parse(parts[0]), LocalTime.parse(parts[1]),
+                    Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.medisync.core.appointment.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medisync.core.appointment.repository.AppointmentListView;
+import com.medisync.core.appointment.repository.AppointmentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Writes every appointment in a date range as CSV or NDJSON, straight to the response.
+ * Rows are read in keyset chunks of projections, each chunk its own short query, and written
+ * before the next is read - memory stays flat however many rows there are, and no transaction
+ * stays open for the length of the download.
+ */
+@Slf4j
+@Service
+public class AppointmentExportService {
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    // Export columns, in order, and how to read each from a row
+    private static final Map<String, Function<AppointmentListView, Object>> COLUMNS = new LinkedHashMap<>();
+
+    static {
+        COLUMNS.put("id", AppointmentListView::getId);
+        COLUMNS.put("appointmentDate", AppointmentListView::getAppointmentDate);
+        COLUMNS.put("startTime", AppointmentListView::getStartTime);
+        COLUMNS.put("endTime", AppointmentListView::getEndTime);
+        COLUMNS.put("status", AppointmentListView::getStatus);
+        COLUMNS.put("doctorId", AppointmentListView::getDoctorId);
+        COLUMNS.put("doctorFirstName", AppointmentListView::getDoctorFirstName);
+        COLUMNS.put("doctorLastName", AppointmentListView::getDoctorLastName);
+        COLUMNS.put("doctorSpecialization", AppointmentListView::getDoctorSpecialization);
+        COLUMNS.put("patientId", AppointmentListView::getPatientId);
+        COLUMNS.put("patientFirstName", AppointmentListView::getPatientFirstName);
+        COLUMNS.put("patientLastName", AppointmentListView::getPatientLastName);
+        COLUMNS.put("reason", AppointmentListView::getReason);
+    }
+
+    private final AppointmentRepository appointmentRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${appointment.export.chunk-size:1000}")
+    private int chunkSize;
+
+    public AppointmentExportService(AppointmentRepository appointmentRepository, ObjectMapper objectMapper) {
+        this.appointmentRepository = appointmentRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    // Fail before the response starts rather than part way through it
+    public void validate(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+    }
+
+    /**
+     * Write all appointments dated from..to (inclusive), oldest first.
+     * Each chunk is flushed to the client before the next one is read.
+     */
+    public void export(LocalDate from, LocalDate to, Format format, OutputStream out) throws IOException {
+        validate(from, to);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            writer.write(String.join(",", COLUMNS.keySet()));
+            writer.write('\n');
+        }
+
+        AppointmentCursor cursor = null;
+        long rows = 0;
+        List<AppointmentListView> chunk;
+        do {
+            chunk = cursor == null
+                    ? appointmentRepository.findFirstExportChunk(from, to, Limit.of(chunkSize))
+                    : appointmentRepository.findExportChunk(from, to, cursor.date(), cursor.startTime(),
+                            cursor.id(), Limit.of(chunkSize));
+            for (AppointmentListView row : chunk) {
+                writer.write(format == Format.CSV ? toCsv(row) : toJson(row));
+                writer.write('\n');
+            }
+            writer.flush();
+            rows += chunk.size();
+            if (!chunk.isEmpty()) {
+                cursor = AppointmentCursor.of(chunk.get(chunk.size() - 1));
+            }
+        } while (chunk.size() == chunkSize);
+
+        log.info("Exported {} appointments from {} to {} as {}", rows, from, to, format);
+    }
+
+    private String toCsv(AppointmentListView row) {
+        StringBuilder line = new StringBuilder();
+        for (Function<AppointmentListView, Object> column : COLUMNS.values()) {
+            if (!line.isEmpty()) {
+                line.append(',');
+            }
+            Object value = column.apply(row);
+            if (value != null) {
+                line.append(csvField(value.toString()));
+            }
+        }
+        return line.toString();
+    }
+
+    // Quote fields containing a separator, quote or line break (RFC 4180)
+    private String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private String toJson(AppointmentListView row) throws IOException {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        COLUMNS.forEach((name, column) -> fields.put(name, column.apply(row)));
+        return objectMapper.writeValueAsString(fields);
+    }
+}
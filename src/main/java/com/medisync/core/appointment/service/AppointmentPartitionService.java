@@ -0,0 +1,174 @@
+package com.medisync.core.appointment.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains the monthly partitions of the appointments table (see schema.sql).
+ * Handles:
+ * - Creating partitions ahead of time, moving in any rows that landed in the default partition
+ * - Moving closed partitions (no SCHEDULED rows left) older than archive-after-months from
+ *   appointments to appointments_archive; detach/attach only rewrites catalog entries
+ * Everyday queries read appointments only, so they never scan archived months; history
+ * queries opt in to the archive explicitly. Runs on startup and monthly; an advisory lock
+ * keeps several nodes from changing partitions at once.
+ */
+@Slf4j
+@Service
+public class AppointmentPartitionService {
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final Pattern PARTITION_NAME = Pattern.compile("appointments_p(\\d{6})");
+
+    // Arbitrary key shared by every node for pg_advisory_xact_lock
+    private static final long PARTITION_LOCK = 0x4150504f494e54L;
+
+    private static final String LOCK_SQL = "SELECT pg_advisory_xact_lock(?)";
+
+    private static final String EXISTS_SQL = "SELECT to_regclass(?) IS NOT NULL";
+
+    private static final String DEFAULT_MONTHS_SQL =
+            "SELECT DISTINCT date_trunc('month', appointment_date)::date FROM appointments_default " +
+                    "WHERE appointment_date < ? ORDER BY 1";
+
+    private static final String PARTITIONS_SQL =
+            "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                    "WHERE i.inhparent = 'appointments'::regclass ORDER BY c.relname";
+
+    private static final String HAS_SCHEDULED_SQL = "SELECT EXISTS (SELECT 1 FROM %s WHERE status = 'SCHEDULED')";
+
+    // Same constraint schema.sql puts on the default partition
+    private static final String NO_OVERLAP_SQL =
+            "ALTER TABLE %1$s ADD CONSTRAINT %1$s_no_overlap EXCLUDE USING gist (" +
+                    "doctor_id WITH =, " +
+                    "tsrange(appointment_date + start_time, CASE WHEN end_time > start_time " +
+                    "THEN appointment_date + end_time ELSE appointment_date + 1 + end_time END) WITH &&) " +
+                    "WHERE (status NOT IN ('CANCELLED', 'NO_SHOW'))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${appointment.partition.months-ahead:12}")
+    private int monthsAhead;
+
+    @Value("${appointment.partition.archive-after-months:24}")
+    private int archiveAfterMonths;
+
+    public AppointmentPartitionService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    // Before the startup jobs that read appointments
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${appointment.partition.cron:0 0 3 1 * *}")
+    public void maintain() {
+        ensurePartitions();
+        archiveClosedPartitions();
+    }
+
+    /**
+     * Create every missing monthly partition from this month to months-ahead months out,
+     * plus one for each earlier month that has rows waiting in the default partition.
+     */
+    public void ensurePartitions() {
+        YearMonth current = YearMonth.now();
+        for (LocalDate month : jdbcTemplate.queryForList(DEFAULT_MONTHS_SQL, LocalDate.class, current.atDay(1))) {
+            createPartition(YearMonth.from(month));
+        }
+        YearMonth last = current.plusMonths(monthsAhead);
+        for (YearMonth month = current; !month.isAfter(last); month = month.plusMonths(1)) {
+            createPartition(month);
+        }
+    }
+
+    /**
+     * Move partitions that ended archive-after-months ago or earlier to the archive,
+     * skipping any month that still has SCHEDULED appointments.
+     */
+    public void archiveClosedPartitions() {
+        YearMonth cutoff = YearMonth.now().minusMonths(archiveAfterMonths);
+        List<String> partitions = jdbcTemplate.queryForList(PARTITIONS_SQL, String.class);
+
+        for (String partition : partitions) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (!matcher.matches()) {
+                continue;
+            }
+            YearMonth month = YearMonth.parse(matcher.group(1), SUFFIX);
+            if (!month.isBefore(cutoff)) {
+                continue;
+            }
+            archivePartition(partition, month);
+        }
+    }
+
+    private void createPartition(YearMonth month) {
+        String name = partitionName(month);
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.queryForObject(LOCK_SQL, Object.class, PARTITION_LOCK);
+            // Also true for a month that has been archived; it is not recreated
+            if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(EXISTS_SQL, Boolean.class, name))) {
+                return;
+            }
+
+            jdbcTemplate.execute("CREATE TABLE " + name +
+                    " (LIKE appointments INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+            jdbcTemplate.execute(String.format(NO_OVERLAP_SQL, name));
+            int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM appointments_default " +
+                    "WHERE appointment_date >= ? AND appointment_date < ? RETURNING *) " +
+                    "INSERT INTO " + name + " SELECT * FROM moved", month.atDay(1), month.plusMonths(1).atDay(1));
+            jdbcTemplate.execute("ALTER TABLE appointments ATTACH PARTITION " + name + bounds(month));
+
+            log.info("Created appointment partition {} ({} rows moved from the default partition)", name, moved);
+        });
+    }
+
+    private void archivePartition(String name, YearMonth month) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.queryForObject(LOCK_SQL, Object.class, PARTITION_LOCK);
+            if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    String.format(HAS_SCHEDULED_SQL, name), Boolean.class))) {
+                log.warn("Not archiving appointment partition {}: it still has SCHEDULED appointments", name);
+                return;
+            }
+
+            jdbcTemplate.execute("ALTER TABLE appointments DETACH PARTITION " + name);
+            jdbcTemplate.execute("ALTER TABLE appointments_archive ATTACH PARTITION " + name + bounds(month));
+            // The list read model only covers current months
+            jdbcTemplate.update("DELETE FROM appointment_view WHERE appointment_date >= ? AND appointment_date < ?",
+                    month.atDay(1), month.plusMonths(1).atDay(1));
+
+            log.info("Archived appointment partition {}", name);
+        });
+    }
+
+    private static String partitionName(YearMonth month) {
+        return "appointments_p" + month.format(SUFFIX);
+    }
+
+    // Dates come from YearMonth, so they are safe to inline into the DDL
+    private static String bounds(YearMonth month) {
+        return " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')";
+    }
+}
@@ -1,30 +1,60 @@
 package com.medisync.core.appointment.service;
 
 import com.medisync.core.appointment.dto.AppointmentDTO;
+import com.medisync.core.appointment.dto.AppointmentFilter;
 import com.medisync.core.appointment.dto.AppointmentListDTO;
+import com.medisync.core.appointment.dto.AppointmentPageDTO;
 import com.medisync.core.appointment.dto.BookAppointmentRequest;
+import com.medisync.core.appointment.dto.BookSeriesRequest;
+import com.medisync.core.appointment.dto.HoldSlotRequest;
+import com.medisync.core.appointment.dto.SeriesBookingDTO;
+import com.medisync.core.appointment.dto.SlotHoldDTO;
 import com.medisync.core.appointment.entity.Appointment;
+import com.medisync.core.appointment.entity.AppointmentView;
+import com.medisync.core.appointment.event.AppointmentEvent;
+import com.medisync.core.appointment.event.AppointmentStatusChangedEvent;
+import com.medisync.core.appointment.repository.AppointmentBatchRepository;
+import com.medisync.core.appointment.repository.AppointmentListView;
 import com.medisync.core.appointment.repository.AppointmentRepository;
+import com.medisync.core.appointment.repository.AppointmentViewRepository;
 import com.medisync.core.doctor.entity.Doctor;
 import com.medisync.core.doctor.repository.DoctorRepository;
 import com.medisync.core.exception.AppointmentNotFoundException;
 import com.medisync.core.exception.ResourceNotFoundException;
+import com.medisync.core.exception.ScheduleConflictException;
 import com.medisync.core.patient.entity.Patient;
 import com.medisync.core.patient.repository.PatientRepository;
+import com.medisync.core.schedule.service.DayBitmap;
 import com.medisync.core.schedule.service.SchedulingService;
+import com.medisync.core.schedule.service.SlotHoldStore;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.SQLException;
+import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Service for appointment operations.
  * Handles:
  * - Booking appointments
- * - Getting appointments (for patients and doctors)
+ * - Booking recurring series
+ * - Holding slots during checkout
+ * - Getting appointments (for patients and doctors, paged and filtered)
  * - Cancelling appointments
  * - Converting between Entity and DTO
  */
@@ -36,10 +66,44 @@ public class AppointmentService {
     private final PatientRepository patientRepository;
     private final DoctorRepository doctorRepository;
     private final SchedulingService schedulingService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BookingLockManager bookingLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final SlotHoldStore slotHolds;
+    private final AppointmentBatchRepository appointmentBatchRepository;
+    private final AppointmentViewRepository appointmentViewRepository;
 
-    // Book a new appointment
-    @Transactional
+    // Every appointment is booked for a fixed length
+    private static final int APPOINTMENT_MINUTES = 30;
+
+    // Appointment list page sizes
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    // Newest first, like the page queries
+    private static final Comparator<AppointmentListDTO> PAGE_ORDER =
+            Comparator.comparing(AppointmentListDTO::getAppointmentDate)
+                    .thenComparing(AppointmentListDTO::getStartTime)
+                    .thenComparing(AppointmentListDTO::getId)
+                    .reversed();
+
+    // SQLSTATE Postgres reports when a partition's no-overlap exclusion constraint rejects a row
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
+    /**
+     * Book a new appointment.
+     * Bookings for the same doctor and day are serialized, and the lock is held until
+     * the transaction has committed, so a request that lost the race to one on this node is
+     * rejected by the conflict check before it inserts. Bookings written by other app nodes
+     * are caught by the database's exclusion constraint.
+     * A slot held by another patient is rejected; the patient's own hold is consumed on commit.
+     */
     public AppointmentDTO bookAppointment(String patientEmail, BookAppointmentRequest request) {
+        return bookingLocks.withLock(request.getDoctorId(), request.getAppointmentDate(),
+                () -> transactionTemplate.execute(status -> createAppointment(patientEmail, request)));
+    }
+
+    private AppointmentDTO createAppointment(String patientEmail, BookAppointmentRequest request) {
 
         Patient patient = patientRepository.findByEmail(patientEmail)
                 .orElseThrow(() -> new ResourceNotFoundException(
@@ -51,7 +115,7 @@ public class AppointmentService {
                         "Doctor not found with id: " + request.getDoctorId()
                 ));
 
-        LocalTime endTime = request.getStartTime().plusMinutes(30);
+        LocalTime endTime = request.getStartTime().plusMinutes(APPOINTMENT_MINUTES);
 
         schedulingService.isDoctorAvailable(
                 doctor.getId(),
@@ -59,12 +123,15 @@ public class AppointmentService {
                 request.getStartTime()
         );
 
-        schedulingService.hasConflict(
-                doctor.getId(),
-                request.getAppointmentDate(),
-                request.getStartTime(),
-                endTime
-        );
+        if (slotHolds.isHeldByOther(doctor.getId(), request.getAppointmentDate(),
+                request.getStartTime(), endTime, patient.getId())) {
+            throw new ScheduleConflictException(
+                    "Time slot " + request.getStartTime() + " - " + endTime + " is held by another patient"
+            );
+        }
+
+        schedulingService.checkNotBooked(doctor.getId(), request.getAppointmentDate(),
+                request.getStartTime(), endTime);
 
         // Create appointment
         Appointment appointment = Appointment.builder()
@@ -77,31 +144,232 @@ public class AppointmentService {
                 .reason(request.getReason())
                 .build();
 
-        Appointment savedAppointment = appointmentRepository.save(appointment);
+        // Insert optimistically; the exclusion constraint catches bookings from other nodes
+        Appointment savedAppointment;
+        try {
+            savedAppointment = appointmentRepository.saveAndFlush(appointment);
+        } catch (DataIntegrityViolationException e) {
+            if (isOverlap(e)) {
+                throw new ScheduleConflictException(
+                        "Time slot " + request.getStartTime() + " - " + endTime + " is already booked"
+                );
+            }
+            throw e;
+        }
+
+        eventPublisher.publishEvent(AppointmentEvent.of(AppointmentEvent.Type.BOOKED, savedAppointment));
         return mapToFullDTO(savedAppointment);
     }
 
-    // Get all appointments for a patient/doctor.
+    /**
+     * Book the same slot on a series of dates, e.g. every Tuesday 10:00 for 12 weeks.
+     * The patient, doctor, schedules and existing appointments are loaded once for the whole
+     * range, every free occurrence is inserted in one JDBC batch in a single transaction, and
+     * each occurrence reports its own outcome instead of the first conflict failing the series.
+     * All of the doctor's affected days stay locked until the transaction has committed.
+     */
+    public SeriesBookingDTO bookSeries(String patientEmail, BookSeriesRequest request) {
+        List<LocalDate> dates = new ArrayList<>();
+        for (int i = 0; i < request.getOccurrences(); i++) {
+            dates.add(request.getFirstDate().plusWeeks((long) i * request.getIntervalWeeks()));
+        }
+
+        return bookingLocks.withLocks(request.getDoctorId(), dates,
+                () -> transactionTemplate.execute(status -> createSeries(patientEmail, request, dates)));
+    }
+
+    private SeriesBookingDTO createSeries(String patientEmail, BookSeriesRequest request, List<LocalDate> dates) {
+        Patient patient = patientRepository.findByEmail(patientEmail)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Patient not found with email: " + patientEmail
+                ));
+
+        Doctor doctor = doctorRepository.findById(request.getDoctorId())
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Doctor not found with id: " + request.getDoctorId()
+                ));
+
+        LocalTime startTime = request.getStartTime();
+        LocalTime endTime = startTime.plusMinutes(APPOINTMENT_MINUTES);
+        LocalDate lastDate = dates.get(dates.size() - 1);
+
+        Map<LocalDate, String> unavailable = schedulingService.findUnavailableDates(doctor.getId(), dates, startTime);
+
+        Map<LocalDate, DayBitmap> bookedByDate = new HashMap<>();
+        appointmentRepository.findByDoctor_IdAndAppointmentDateBetweenAndStatusNotIn(
+                        doctor.getId(), request.getFirstDate(), lastDate,
+                        List.of(Appointment.AppointmentStatus.CANCELLED, Appointment.AppointmentStatus.NO_SHOW))
+                .forEach(appointment -> bookedByDate
+                        .computeIfAbsent(appointment.getAppointmentDate(), date -> new DayBitmap())
+                        .set(appointment.getStartTime(), appointment.getEndTime()));
+
+        List<SeriesBookingDTO.Occurrence> occurrences = new ArrayList<>();
+        List<Appointment> toInsert = new ArrayList<>();
+        Map<LocalDate, SeriesBookingDTO.Occurrence> pending = new HashMap<>();
+
+        for (LocalDate date : dates) {
+            SeriesBookingDTO.Occurrence occurrence = SeriesBookingDTO.Occurrence.builder()
+                    .date(date)
+                    .startTime(startTime)
+                    .endTime(endTime)
+                    .build();
+            occurrences.add(occurrence);
+
+            if (unavailable.containsKey(date)) {
+                occurrence.setStatus(SeriesBookingDTO.OccurrenceStatus.UNAVAILABLE);
+                occurrence.setMessage(unavailable.get(date));
+            } else if (bookedByDate.containsKey(date) && bookedByDate.get(date).anySet(startTime, endTime)) {
+                occurrence.setStatus(SeriesBookingDTO.OccurrenceStatus.CONFLICT);
+                occurrence.setMessage("Time slot " + startTime + " - " + endTime + " is already booked");
+            } else if (slotHolds.isHeldByOther(doctor.getId(), date, startTime, endTime, patient.getId())) {
+                occurrence.setStatus(SeriesBookingDTO.OccurrenceStatus.CONFLICT);
+                occurrence.setMessage("Time slot " + startTime + " - " + endTime + " is held by another patient");
+            } else {
+                toInsert.add(Appointment.builder()
+                        .patient(patient)
+                        .doctor(doctor)
+                        .appointmentDate(date)
+                        .startTime(startTime)
+                        .endTime(endTime)
+                        .status(Appointment.AppointmentStatus.SCHEDULED)
+                        .reason(request.getReason())
+                        .build());
+                pending.put(date, occurrence);
+            }
+        }
+
+        // The exclusion constraint still guards against bookings from other nodes
+        try {
+            appointmentBatchRepository.insertAll(toInsert);
+        } catch (DataIntegrityViolationException e) {
+            if (isOverlap(e)) {
+                throw new ScheduleConflictException(
+                        "Series conflicts with an appointment booked concurrently, please retry"
+                );
+            }
+            throw e;
+        }
+
+        for (Appointment appointment : toInsert) {
+            SeriesBookingDTO.Occurrence occurrence = pending.get(appointment.getAppointmentDate());
+            occurrence.setStatus(SeriesBookingDTO.OccurrenceStatus.BOOKED);
+            occurrence.setAppointmentId(appointment.getId());
+            eventPublisher.publishEvent(AppointmentEvent.of(AppointmentEvent.Type.BOOKED, appointment));
+        }
+
+        return SeriesBookingDTO.builder()
+                .doctorId(doctor.getId())
+                .requested(dates.size())
+                .booked(toInsert.size())
+                .occurrences(occurrences)
+                .build();
+    }
+
+    /**
+     * Hold a slot for the patient while they complete the booking.
+     * Runs under the same lock as booking, so a slot is never held and booked by different patients.
+     */
+    public SlotHoldDTO holdSlot(String patientEmail, HoldSlotRequest request) {
+        Patient patient = patientRepository.findByEmail(patientEmail)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Patient not found with email: " + patientEmail
+                ));
+
+        LocalTime endTime = request.getStartTime().plusMinutes(APPOINTMENT_MINUTES);
+
+        return bookingLocks.withLock(request.getDoctorId(), request.getAppointmentDate(), () -> {
+            schedulingService.isDoctorAvailable(
+                    request.getDoctorId(),
+                    request.getAppointmentDate(),
+                    request.getStartTime()
+            );
+            schedulingService.hasConflict(
+                    request.getDoctorId(),
+                    request.getAppointmentDate(),
+                    request.getStartTime(),
+                    endTime
+            );
+
+            SlotHoldStore.SlotHold hold = slotHolds.hold(request.getDoctorId(), request.getAppointmentDate(),
+                            request.getStartTime(), endTime, patient.getId())
+                    .orElseThrow(() -> new ScheduleConflictException(
+                            "Time slot " + request.getStartTime() + " - " + endTime + " is held by another patient"
+                    ));
+
+            return SlotHoldDTO.builder()
+                    .id(hold.id())
+                    .doctorId(hold.doctorId())
+                    .appointmentDate(hold.date())
+                    .startTime(hold.startTime())
+                    .endTime(hold.endTime())
+                    .expiresAt(hold.expiresAt())
+                    .build();
+        });
+    }
+
+    // Release a hold before it expires (e.g. the patient left the booking form)
+    public void releaseHold(String holdId, String patientEmail) {
+        Patient patient = patientRepository.findByEmail(patientEmail)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Patient not found with email: " + patientEmail
+                ));
+
+        if (!slotHolds.release(holdId, patient.getId())) {
+            throw new ResourceNotFoundException("Hold not found with id: " + holdId);
+        }
+    }
+
+    /**
+     * Get one page of a patient's/doctor's appointments, newest first.
+     * Reads the appointment_view read model, where names are already formatted.
+     * Filters and the keyset cursor go into the query, so each page reads at most size + 1 rows
+     * (the extra row only tells whether another page follows) however long the history is.
+     */
     @Transactional(readOnly = true)
-    public List<AppointmentListDTO> getPatientAppointments(String patientEmail) {
-        List<Appointment> appointments = appointmentRepository.findByPatient_Email(patientEmail);
-        return appointments.stream()
-                .map(this::mapToListDTO)
-                .collect(Collectors.toList());
+    public AppointmentPageDTO getPatientAppointments(Long patientId, AppointmentFilter filter) {
+        return toPage(filter, (cursor, limit) -> withArchive(filter, limit,
+                appointmentViewRepository.findPatientPage(
+                        patientId, filter.getStatus(), filter.getFrom(), filter.getTo(),
+                        cursor.date(), cursor.startTime(), cursor.id(), limit),
+                () -> appointmentRepository.findArchivedPatientPage(
+                        patientId, filter.getStatus(), filter.getFrom(), filter.getTo(),
+                        cursor.date(), cursor.startTime(), cursor.id(), limit)));
     }
 
     @Transactional(readOnly = true)
-    public List<AppointmentListDTO> getDoctorAppointments(String doctorEmail) {
-        List<Appointment> appointments = appointmentRepository.findByDoctor_Email(doctorEmail);
-        return appointments.stream()
-                .map(this::mapToListDTO)
-                .collect(Collectors.toList());
+    public AppointmentPageDTO getDoctorAppointments(Long doctorId, AppointmentFilter filter) {
+        return toPage(filter, (cursor, limit) -> withArchive(filter, limit,
+                appointmentViewRepository.findDoctorPage(
+                        doctorId, filter.getStatus(), filter.getFrom(), filter.getTo(),
+                        cursor.date(), cursor.startTime(), cursor.id(), limit),
+                () -> appointmentRepository.findArchivedDoctorPage(
+                        doctorId, filter.getStatus(), filter.getFrom(), filter.getTo(),
+                        cursor.date(), cursor.startTime(), cursor.id(), limit)));
     }
 
-    // Get a specific appointment by ID.
+    /**
+     * Merge the archived rows into a page of current ones when the filter asks for them.
+     * Both lists are already in page order, so the first `limit` rows of the merge are the
+     * first `limit` rows of the whole history.
+     */
+    private List<AppointmentListDTO> withArchive(AppointmentFilter filter, Limit limit,
+                                                 List<AppointmentView> current,
+                                                 Supplier<List<AppointmentListView>> archived) {
+        Stream<AppointmentListDTO> rows = current.stream().map(this::mapToListDTO);
+        if (!filter.isIncludeArchived()) {
+            return rows.toList();
+        }
+        return Stream.concat(rows, archived.get().stream().map(this::mapToListDTO))
+                .sorted(PAGE_ORDER)
+                .limit(limit.max())
+                .toList();
+    }
+
+    // Get a specific appointment by ID; appointments in archived months are read from the archive.
     @Transactional(readOnly = true)
     public AppointmentDTO getAppointmentById(Long id, String userEmail) {
-        Appointment appointment = appointmentRepository.findById(id)
+        Appointment appointment = appointmentRepository.findWithPatientAndDoctorById(id)
+                .or(() -> appointmentRepository.findArchivedById(id))
                 .orElseThrow(() -> new AppointmentNotFoundException(
                         "Appointment not found with id: " + id
                 ));
@@ -119,7 +387,7 @@ public class AppointmentService {
     // Cancel an appointment by ID.
     @Transactional
     public AppointmentDTO cancelAppointment(Long id, String userEmail) {
-        Appointment appointment = appointmentRepository.findById(id)
+        Appointment appointment = appointmentRepository.findWithPatientAndDoctorById(id)
                 .orElseThrow(() -> new AppointmentNotFoundException(
                         "Appointment not found with id: " + id
                 ));
@@ -131,12 +399,57 @@ public class AppointmentService {
             throw new SecurityException("You don't have permission to cancel this appointment");
         }
 
+        // Cancelling an already cancelled or no-show appointment frees nothing
+        Appointment.AppointmentStatus previousStatus = appointment.getStatus();
+        boolean releasesSlot = previousStatus != Appointment.AppointmentStatus.CANCELLED &&
+                previousStatus != Appointment.AppointmentStatus.NO_SHOW;
+
         appointment.setStatus(Appointment.AppointmentStatus.CANCELLED);
         Appointment cancelledAppointment = appointmentRepository.save(appointment);
 
+        if (releasesSlot) {
+            eventPublisher.publishEvent(AppointmentEvent.of(AppointmentEvent.Type.CANCELLED, cancelledAppointment));
+        } else if (previousStatus != Appointment.AppointmentStatus.CANCELLED) {
+            // A no-show's time was already free, but its status still changes
+            eventPublisher.publishEvent(new AppointmentStatusChangedEvent(cancelledAppointment.getId(),
+                    cancelledAppointment.getDoctor().getId(), cancelledAppointment.getPatient().getId(),
+                    cancelledAppointment.getAppointmentDate(), cancelledAppointment.getStartTime(),
+                    cancelledAppointment.getEndTime(), previousStatus, cancelledAppointment.getStatus()));
+        }
+
         return mapToFullDTO(cancelledAppointment);
     }
 
+    private AppointmentPageDTO toPage(AppointmentFilter filter,
+                                      BiFunction<AppointmentCursor, Limit, List<AppointmentListDTO>> query) {
+        if (filter.getFrom() != null && filter.getTo() != null && filter.getTo().isBefore(filter.getFrom())) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+
+        int size = filter.getSize() == null
+                ? DEFAULT_PAGE_SIZE
+                : Math.max(1, Math.min(filter.getSize(), MAX_PAGE_SIZE));
+        AppointmentCursor cursor = filter.getCursor() == null || filter.getCursor().isBlank()
+                ? new AppointmentCursor(null, null, null)
+                : AppointmentCursor.decode(filter.getCursor());
+
+        List<AppointmentListDTO> rows = query.apply(cursor, Limit.of(size + 1));
+        boolean hasMore = rows.size() > size;
+        List<AppointmentListDTO> page = hasMore ? rows.subList(0, size) : rows;
+
+        return AppointmentPageDTO.builder()
+                .items(page)
+                .nextCursor(hasMore ? AppointmentCursor.of(page.get(size - 1)).encode() : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    // Check if an insert failed because it overlaps another active appointment
+    private boolean isOverlap(DataIntegrityViolationException e) {
+        return NestedExceptionUtils.getMostSpecificCause(e) instanceof SQLException sqlException &&
+                EXCLUSION_VIOLATION.equals(sqlException.getSQLState());
+    }
+
     // Convert Appointment entity to full AppointmentDTO.
     private AppointmentDTO mapToFullDTO(Appointment appointment) {
         return AppointmentDTO.builder()
@@ -166,18 +479,33 @@ public class AppointmentService {
                 .build();
     }
 
-    // Convert Appointment entity to simplified AppointmentListDTO.
-    private AppointmentListDTO mapToListDTO(Appointment appointment) {
-        String patientFirstName = appointment.getPatient().getFirstName() != null ?
-                appointment.getPatient().getFirstName() : "Unknown";
-        String patientLastName = appointment.getPatient().getLastName() != null ?
-                appointment.getPatient().getLastName() : "";
+    // Convert the read model's row to AppointmentListDTO; names are already formatted.
+    private AppointmentListDTO mapToListDTO(AppointmentView appointment) {
+        return AppointmentListDTO.builder()
+                .id(appointment.getId())
+                .appointmentDate(appointment.getAppointmentDate())
+                .startTime(appointment.getStartTime())
+                .endTime(appointment.getEndTime())
+                .status(appointment.getStatus())
+                .reason(appointment.getReason())
+                .patientName(appointment.getPatientName())
+                .doctorName(appointment.getDoctorName())
+                .doctorSpecialization(appointment.getDoctorSpecialization())
+                .build();
+    }
+
+    // Convert an archived appointment's projection to AppointmentListDTO (same name format as the read model).
+    private AppointmentListDTO mapToListDTO(AppointmentListView appointment) {
+        String patientFirstName = appointment.getPatientFirstName() != null ?
+                appointment.getPatientFirstName() : "Unknown";
+        String patientLastName = appointment.getPatientLastName() != null ?
+                appointment.getPatientLastName() : "";
         String patientName = patientFirstName + " " + patientLastName;
 
-        String doctorFirstName = appointment.getDoctor().getFirstName() != null ?
-                appointment.getDoctor().getFirstName() : "Unknown";
-        String doctorLastName = appointment.getDoctor().getLastName() != null ?
-                appointment.getDoctor().getLastName() : "";
+        String doctorFirstName = appointment.getDoctorFirstName() != null ?
+                appointment.getDoctorFirstName() : "Unknown";
+        String doctorLastName = appointment.getDoctorLastName() != null ?
+                appointment.getDoctorLastName() : "";
         String doctorName = "Dr. " + doctorFirstName + " " + doctorLastName;
 
         return AppointmentListDTO.builder()
@@ -189,7 +517,7 @@ public class AppointmentService {
                 .reason(appointment.getReason())
                 .patientName(patientName)
                 .doctorName(doctorName)
-                .doctorSpecialization(appointment.getDoctor().getSpecialization())
+                .doctorSpecialization(appointment.getDoctorSpecialization())
                 .build();
     }
 }
@@ -0,0 +1,97 @@
+package com.medisync.core.appointment.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medisync.core.appointment.dto.AppointmentChangeDTO;
+import com.medisync.core.appointment.event.AppointmentCompletedEvent;
+import com.medisync.core.appointment.event.AppointmentEvent;
+import com.medisync.core.appointment.event.AppointmentStatusChangedEvent;
+import com.medisync.core.cluster.service.ClusterChannels;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Carries appointment changes to the change streams of every app node, whichever node made them.
+ * Handles:
+ * - Sending each change on the appointment_changes channel from inside the transaction that made
+ *   it, so nodes only hear of it once that transaction commits
+ * - Handing what arrives to AppointmentStreamService
+ * Changes sent while a node's listener is reconnecting don't reach its streams, so clients reload
+ * their list when they reconnect.
+ */
+@Slf4j
+@Service
+public class AppointmentStreamRelay {
+
+    static final String CHANNEL = "appointment_changes";
+
+    private final ClusterChannels channels;
+    private final ObjectMapper objectMapper;
+    private final AppointmentStreamService streamService;
+
+    public AppointmentStreamRelay(ClusterChannels channels,
+                                  ObjectMapper objectMapper,
+                                  AppointmentStreamService streamService) {
+        this.channels = channels;
+        this.objectMapper = objectMapper;
+        this.streamService = streamService;
+        channels.subscribe(CHANNEL, this::deliver);
+    }
+
+    // Bookings, cancellations and reassignments, to the doctor and the patient
+    @EventListener
+    public void onAppointmentEvent(AppointmentEvent event) {
+        send(List.of(event.getDoctorId(), event.getPatientId()), AppointmentChangeDTO.builder()
+                .type(event.getType().name())
+                .appointmentId(event.getAppointmentId())
+                .appointmentDate(event.getAppointmentDate())
+                .startTime(event.getStartTime())
+                .endTime(event.getEndTime())
+                .build());
+    }
+
+    @EventListener
+    public void onAppointmentCompleted(AppointmentCompletedEvent event) {
+        send(List.of(event.getDoctorId(), event.getPatientId()), AppointmentChangeDTO.builder()
+                .type("COMPLETED")
+                .appointmentId(event.getAppointmentId())
+                .appointmentDate(event.getAppointmentDate())
+                .startTime(event.getStartTime())
+                .endTime(event.getEndTime())
+                .build());
+    }
+
+    @EventListener
+    public void onAppointmentStatusChanged(AppointmentStatusChangedEvent event) {
+        send(List.of(event.getDoctorId(), event.getPatientId()), AppointmentChangeDTO.builder()
+                .type(event.getStatus().name())
+                .appointmentId(event.getAppointmentId())
+                .appointmentDate(event.getAppointmentDate())
+                .startTime(event.getStartTime())
+                .endTime(event.getEndTime())
+                .build());
+    }
+
+    private void send(List<Long> userIds, AppointmentChangeDTO change) {
+        try {
+            channels.send(CHANNEL, objectMapper.writeValueAsString(new RelayedChange(userIds, change)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize appointment change", e);
+        }
+    }
+
+    private void deliver(String payload) {
+        try {
+            RelayedChange relayed = objectMapper.readValue(payload, RelayedChange.class);
+            streamService.publish(relayed.userIds(), relayed.change());
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed appointment change notification: {}", e.getMessage());
+        }
+    }
+
+    private record RelayedChange(List<Long> userIds, AppointmentChangeDTO change) {
+    }
+}
@@ -0,0 +1,180 @@
+package com.medisync.core.appointment.service;
+
+import com.medisync.core.appointment.dto.AppointmentChangeDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes appointment changes to the doctors and patients they concern over Server-Sent Events.
+ * Connections are async servlet requests: an idle subscriber holds a socket but no thread.
+ * Changes arrive from AppointmentStreamRelay once the triggering transaction has committed,
+ * whichever node it ran on. Each subscriber has a bounded queue drained by a small pool of
+ * sender threads, so a slow client only delays itself; one that falls queue-size events behind
+ * is dropped and reconnects. A periodic comment keeps idle connections open through proxies
+ * and weeds out clients that have gone away.
+ */
+@Slf4j
+@Service
+public class AppointmentStreamService {
+
+    private static final String EVENT_NAME = "appointment";
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService senders;
+
+    @Value("${appointment.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${appointment.stream.queue-size:100}")
+    private int queueSize;
+
+    public AppointmentStreamService(MeterRegistry meterRegistry,
+                                    @Value("${appointment.stream.send-threads:4}") int sendThreads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(sendThreads, runnable -> {
+            Thread thread = new Thread(runnable, "appointment-stream-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("appointments.stream.connections", subscribers,
+                        map -> map.values().stream().mapToInt(Set::size).sum())
+                .description("Open appointment change streams")
+                .register(meterRegistry);
+    }
+
+    // Open a stream for a user; clients reconnect when it times out
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(userId, emitter, new ArrayBlockingQueue<>(queueSize));
+        subscribers.computeIfAbsent(userId, id -> new CopyOnWriteArraySet<>()).add(subscriber);
+
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        // Close normally on timeout instead of letting it surface as an error response
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> unsubscribe(subscriber));
+
+        // Flush the response headers now rather than on the first change
+        subscriber.enqueue(SseEmitter.event().comment("connected"));
+        return emitter;
+    }
+
+    // Queue a change for every open stream of the given users on this node
+    public void publish(List<Long> userIds, AppointmentChangeDTO change) {
+        for (Long userId : userIds) {
+            for (Subscriber subscriber : subscribers.getOrDefault(userId, Set.of())) {
+                subscriber.enqueue(SseEmitter.event()
+                        .name(EVENT_NAME)
+                        .id(String.valueOf(change.getAppointmentId()))
+                        .data(change));
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${appointment.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(
+                subscriber -> subscriber.enqueue(SseEmitter.event().comment("ping"))));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(
+                subscriber -> subscriber.emitter.complete()));
+        subscribers.clear();
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscribers.computeIfPresent(subscriber.userId, (id, userSubscribers) -> {
+            userSubscribers.remove(subscriber);
+            return userSubscribers.isEmpty() ? null : userSubscribers;
+        });
+    }
+
+    /**
+     * One open stream and the events waiting for it.
+     * At most one sender thread drains a subscriber at a time, so its events stay in order.
+     * The emitter is only touched from that thread: a send blocked on a stalled client holds
+     * the emitter's lock, and completing it from anywhere else would block there too.
+     */
+    private final class Subscriber {
+
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Subscriber(Long userId, SseEmitter emitter, BlockingQueue<SseEmitter.SseEventBuilder> queue) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+
+        // Never blocks: a full queue drops the client instead
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                log.debug("Dropping appointment stream for user {}: {} events behind", userId, queue.size());
+                unsubscribe(this);
+                queue.clear();
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RuntimeException e) {
+                    // Shutting down
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!closed && (event = queue.poll()) != null) {
+                    emitter.send(event);
+                }
+                if (closed) {
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away, or the stream already completed
+                log.debug("Dropping appointment stream for user {}: {}", userId, e.getMessage());
+                unsubscribe(this);
+            } finally {
+                draining.set(false);
+            }
+            // Catch an event queued after the last poll but before the flag was cleared
+            if (!closed && !queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.medisync.core.appointment.service;
+
+import com.medisync.core.appointment.event.AppointmentCompletedEvent;
+import com.medisync.core.appointment.event.AppointmentEvent;
+import com.medisync.core.appointment.event.AppointmentStatusChangedEvent;
+import com.medisync.core.appointment.event.NoShowBatchEvent;
+import com.medisync.core.doctor.event.DoctorProfileUpdatedEvent;
+import com.medisync.core.patient.event.PatientProfileUpdatedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Maintains the appointment_view read model behind the appointment list endpoints.
+ * Handles:
+ * - Copying an appointment, with its patient's and doctor's names, when it is booked or moved
+ *   to another doctor
+ * - Status changes (cancelled, completed, no-show) and renamed patients and doctors
+ * - A full rebuild on startup when the view is empty or was built by an older version of COPY_SQL
+ * Listeners run inside the transaction that makes the change, so the view commits with it.
+ * Names are formatted here once per write instead of once per row on every read.
+ */
+@Slf4j
+@Service
+public class AppointmentViewService {
+
+    private static final String PATIENT_NAME = "COALESCE(%s, 'Unknown') || ' ' || COALESCE(%s, '')";
+    private static final String DOCTOR_NAME = "'Dr. ' || " + PATIENT_NAME;
+
+    private static final String COPY_SQL =
+            "INSERT INTO appointment_view (id, patient_id, doctor_id, appointment_date, start_time, end_time, " +
+                    "status, reason, patient_name, doctor_name, doctor_specialization) " +
+                    "SELECT a.id, a.patient_id, a.doctor_id, a.appointment_date, a.start_time, a.end_time, " +
+                    "a.status, a.reason, " +
+                    PATIENT_NAME.formatted("p.first_name", "p.last_name") + ", " +
+                    DOCTOR_NAME.formatted("d.first_name", "d.last_name") + ", d.specialization " +
+                    "FROM appointments a JOIN users p ON p.id = a.patient_id JOIN users d ON d.id = a.doctor_id ";
+
+    private static final String UPSERT_SQL = COPY_SQL + "WHERE a.id = ? " +
+            "ON CONFLICT (id) DO UPDATE SET doctor_id = EXCLUDED.doctor_id, status = EXCLUDED.status, " +
+            "doctor_name = EXCLUDED.doctor_name, doctor_specialization = EXCLUDED.doctor_specialization";
+
+    private static final String SET_STATUS_SQL = "UPDATE appointment_view SET status = ? WHERE id = ?";
+
+    private static final String RENAME_PATIENT_SQL =
+            "UPDATE appointment_view SET patient_name = " + PATIENT_NAME.formatted("?", "?") +
+                    " WHERE patient_id = ?";
+
+    private static final String RENAME_DOCTOR_SQL =
+            "UPDATE appointment_view SET doctor_name = " + DOCTOR_NAME.formatted("?", "?") +
+                    ", doctor_specialization = ? WHERE doctor_id = ?";
+
+    // Bump whenever COPY_SQL changes what a row holds, so the next startup rebuilds the view
+    private static final int VIEW_VERSION = 1;
+
+    private static final String VERSION_SQL =
+            "SELECT COALESCE(MAX(version), 0) FROM read_model_version WHERE name = 'appointment_view'";
+
+    private static final String SET_VERSION_SQL =
+            "INSERT INTO read_model_version (name, version, rebuilt_at) VALUES ('appointment_view', ?, now()) " +
+                    "ON CONFLICT (name) DO UPDATE SET version = EXCLUDED.version, rebuilt_at = EXCLUDED.rebuilt_at";
+
+    private static final String EMPTY_SQL =
+            "SELECT NOT EXISTS (SELECT 1 FROM appointment_view) AND EXISTS (SELECT 1 FROM appointments)";
+
+    // Conflicts with the lock the listeners' writes take and with itself, so writers wait for a rebuild
+    // to commit instead of racing the rows it replaces, and only one node rebuilds at a time
+    private static final String LOCK_SQL = "LOCK TABLE appointment_view IN SHARE ROW EXCLUSIVE MODE";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public AppointmentViewService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (isStale()) {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.execute(LOCK_SQL);
+                // Another node may have rebuilt it while this one waited for the lock
+                if (isStale()) {
+                    copyAll();
+                }
+            });
+        }
+    }
+
+    // Rebuild the whole view now, whatever its version
+    public void rebuild() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute(LOCK_SQL);
+            copyAll();
+        });
+    }
+
+    private boolean isStale() {
+        return jdbcTemplate.queryForObject(VERSION_SQL, Integer.class) < VIEW_VERSION ||
+                Boolean.TRUE.equals(jdbcTemplate.queryForObject(EMPTY_SQL, Boolean.class));
+    }
+
+    private void copyAll() {
+        jdbcTemplate.execute("DELETE FROM appointment_view");
+        int rows = jdbcTemplate.update(COPY_SQL);
+        jdbcTemplate.update(SET_VERSION_SQL, VIEW_VERSION);
+        log.debug("Rebuilt appointment view: {} rows", rows);
+    }
+
+    /**
+     * A booking (including a reassignment's BOOKED half) copies the row as written, so it also
+     * picks up a new doctor; a cancellation only changes the status. The REASSIGNED half is
+     * covered by the BOOKED one that follows it.
+     * Bookings and reassignments are written to appointments before the event, so the copy sees them.
+     */
+    @EventListener
+    public void onAppointmentEvent(AppointmentEvent event) {
+        switch (event.getType()) {
+            case BOOKED -> jdbcTemplate.update(UPSERT_SQL, event.getAppointmentId());
+            case CANCELLED -> jdbcTemplate.update(SET_STATUS_SQL, "CANCELLED", event.getAppointmentId());
+            case REASSIGNED -> { }
+        }
+    }
+
+    @EventListener
+    public void onAppointmentCompleted(AppointmentCompletedEvent event) {
+        jdbcTemplate.update(SET_STATUS_SQL, "COMPLETED", event.getAppointmentId());
+    }
+
+    @EventListener
+    public void onAppointmentStatusChanged(AppointmentStatusChangedEvent event) {
+        jdbcTemplate.update(SET_STATUS_SQL, event.getStatus().name(), event.getAppointmentId());
+    }
+
+    @EventListener
+    public void onNoShowBatch(NoShowBatchEvent event) {
+        List<Object[]> rows = event.getAppointments().stream()
+                .map(appointment -> new Object[]{"NO_SHOW", appointment.appointmentId()})
+                .toList();
+        jdbcTemplate.batchUpdate(SET_STATUS_SQL, rows);
+    }
+
+    // Names come from the event: the profile change may not be flushed to users yet
+    @EventListener
+    public void onPatientProfileUpdated(PatientProfileUpdatedEvent event) {
+        jdbcTemplate.update(RENAME_PATIENT_SQL, event.getFirstName(), event.getLastName(), event.getPatientId());
+    }
+
+    @EventListener
+    public void onDoctorProfileUpdated(DoctorProfileUpdatedEvent event) {
+        jdbcTemplate.update(RENAME_DOCTOR_SQL, event.getFirstName(), event.getLastName(),
+                event.getSpecialization(), event.getDoctorId());
+    }
+}
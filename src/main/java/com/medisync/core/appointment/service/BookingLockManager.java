@@ -0,0 +1,79 @@
+package com.medisync.core.appointment.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped locks keyed on (doctor, appointment date).
+ * Bookings for the same doctor and day run one at a time so the conflict check and
+ * the insert can't interleave; bookings for other doctors or days take other stripes
+ * and run in parallel.
+ */
+@Component
+public class BookingLockManager {
+
+    private final ReentrantLock[] stripes;
+
+    public BookingLockManager(@Value("${appointment.booking.lock-stripes:1024}") int stripeCount) {
+        // Round up to a power of two so the stripe can be picked with a mask
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    // Run an action while holding the lock for a doctor's day
+    public <T> T withLock(Long doctorId, LocalDate date, Supplier<T> action) {
+        ReentrantLock lock = stripes[stripeFor(doctorId, date)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Run an action while holding the locks for several of a doctor's days.
+     * Stripes are taken in ascending order, so two multi-day bookings can't deadlock.
+     */
+    public <T> T withLocks(Long doctorId, Collection<LocalDate> dates, Supplier<T> action) {
+        return withLocks(Map.of(doctorId, dates), action);
+    }
+
+    // Same as above across several doctors (e.g. moving appointments between doctors)
+    public <T> T withLocks(Map<Long, ? extends Collection<LocalDate>> datesByDoctor, Supplier<T> action) {
+        int[] order = datesByDoctor.entrySet().stream()
+                .flatMapToInt(entry -> entry.getValue().stream()
+                        .mapToInt(date -> stripeFor(entry.getKey(), date)))
+                .distinct()
+                .sorted()
+                .toArray();
+
+        int locked = 0;
+        try {
+            for (int stripe : order) {
+                stripes[stripe].lock();
+                locked++;
+            }
+            return action.get();
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                stripes[order[i]].unlock();
+            }
+        }
+    }
+
+    int stripeFor(Long doctorId, LocalDate date) {
+        int hash = 31 * doctorId.hashCode() + date.hashCode();
+        hash ^= hash >>> 16;
+        return hash & (stripes.length - 1);
+    }
+}
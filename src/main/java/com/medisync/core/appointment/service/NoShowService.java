@@ -0,0 +1,86 @@
+package com.medisync.core.appointment.service;
+
+import com.medisync.core.appointment.event.NoShowBatchEvent;
+import com.medisync.core.appointment.repository.AppointmentBatchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves scheduled appointments that ended without a visit to NO_SHOW.
+ * Works in chunks of set-based UPDATEs, each in its own short transaction, so a run that
+ * stops part way loses nothing - the next run picks up whatever is still SCHEDULED.
+ * Chunks claim rows with FOR UPDATE SKIP LOCKED, so several nodes can run the job at once.
+ * Metrics: appointments.no_show.marked (rows) and appointments.no_show.run (duration).
+ */
+@Slf4j
+@Service
+public class NoShowService {
+
+    private final AppointmentBatchRepository appointmentBatchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Counter markedCounter;
+    private final Timer runTimer;
+
+    @Value("${appointment.no-show.grace-minutes:60}")
+    private int graceMinutes;
+
+    @Value("${appointment.no-show.batch-size:500}")
+    private int batchSize;
+
+    public NoShowService(AppointmentBatchRepository appointmentBatchRepository,
+                         TransactionTemplate transactionTemplate,
+                         ApplicationEventPublisher eventPublisher,
+                         MeterRegistry meterRegistry) {
+        this.appointmentBatchRepository = appointmentBatchRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.markedCounter = Counter.builder("appointments.no_show.marked")
+                .description("Past-due appointments moved to NO_SHOW")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("appointments.no_show.run")
+                .description("Duration of no-show job runs")
+                .register(meterRegistry);
+    }
+
+    // Mark appointments that ended more than the grace period ago
+    @Scheduled(cron = "${appointment.no-show.cron:0 */15 * * * *}")
+    public void markPastDue() {
+        int marked = runTimer.record(() -> markEndedBefore(LocalDateTime.now().minusMinutes(graceMinutes)));
+        if (marked > 0) {
+            log.info("Marked {} past-due appointments as NO_SHOW", marked);
+        }
+    }
+
+    /**
+     * Mark every scheduled appointment that ended at or before the cutoff, one chunk at a time.
+     * Stops at the first short chunk: either nothing is left, or another node holds the rest.
+     */
+    public int markEndedBefore(LocalDateTime cutoff) {
+        int total = 0;
+        int marked;
+        do {
+            marked = transactionTemplate.execute(status -> {
+                List<NoShowBatchEvent.MarkedAppointment> rows =
+                        appointmentBatchRepository.markNoShow(cutoff, batchSize);
+                if (!rows.isEmpty()) {
+                    eventPublisher.publishEvent(new NoShowBatchEvent(rows));
+                }
+                return rows.size();
+            });
+            markedCounter.increment(marked);
+            total += marked;
+        } while (marked == batchSize);
+        return total;
+    }
+}
@@ -0,0 +1,283 @@
+package com.medisync.core.appointment.service;
+
+import com.medisync.core.appointment.dto.ReassignmentPlanDTO;
+import com.medisync.core.appointment.dto.ReassignmentRequest;
+import com.medisync.core.appointment.entity.Appointment;
+import com.medisync.core.appointment.event.AppointmentEvent;
+import com.medisync.core.appointment.repository.AppointmentBatchRepository;
+import com.medisync.core.appointment.repository.AppointmentRepository;
+import com.medisync.core.doctor.entity.Doctor;
+import com.medisync.core.doctor.repository.DoctorRepository;
+import com.medisync.core.exception.ResourceNotFoundException;
+import com.medisync.core.exception.ScheduleConflictException;
+import com.medisync.core.schedule.dto.AvailabilityGridDTO;
+import com.medisync.core.schedule.service.DayBitmap;
+import com.medisync.core.schedule.service.SchedulingService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * Moves an unavailable doctor's upcoming appointments to colleagues with the same specialization.
+ * Candidate doctors' availability grids are built in parallel, then appointments are assigned
+ * greedily in time order, each to the least-loaded colleague free for the whole slot.
+ * Applying a plan locks every affected doctor-day, and the plan is computed and written
+ * (one JDBC batch) in the same transaction, so it can't go stale between the two.
+ */
+@Slf4j
+@Service
+public class ReassignmentService {
+
+    // Longest range a single reassignment may cover
+    private static final int MAX_REASSIGNMENT_DAYS = 31;
+
+    // SQLSTATE Postgres reports when a partition's no-overlap exclusion constraint rejects a row
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentBatchRepository appointmentBatchRepository;
+    private final DoctorRepository doctorRepository;
+    private final SchedulingService schedulingService;
+    private final BookingLockManager bookingLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Grid builds each run a couple of queries, so keep this below the connection pool size
+    private final ForkJoinPool gridPool;
+
+    public ReassignmentService(AppointmentRepository appointmentRepository,
+                               AppointmentBatchRepository appointmentBatchRepository,
+                               DoctorRepository doctorRepository,
+                               SchedulingService schedulingService,
+                               BookingLockManager bookingLocks,
+                               TransactionTemplate transactionTemplate,
+                               ApplicationEventPublisher eventPublisher,
+                               @Value("${appointment.reassignment.parallelism:4}") int parallelism) {
+        this.appointmentRepository = appointmentRepository;
+        this.appointmentBatchRepository = appointmentBatchRepository;
+        this.doctorRepository = doctorRepository;
+        this.schedulingService = schedulingService;
+        this.bookingLocks = bookingLocks;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.gridPool = new ForkJoinPool(Math.max(1, parallelism));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        gridPool.shutdown();
+    }
+
+    /**
+     * Propose (or, with apply set, book) new doctors for every scheduled appointment of a
+     * doctor in [fromDate, toDate]. Appointments nobody can take are listed without a new doctor.
+     */
+    public ReassignmentPlanDTO reassign(ReassignmentRequest request) {
+        if (request.getToDate().isBefore(request.getFromDate())) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(request.getFromDate(), request.getToDate()) >= MAX_REASSIGNMENT_DAYS) {
+            throw new IllegalArgumentException("Date range must not exceed " + MAX_REASSIGNMENT_DAYS + " days");
+        }
+
+        Doctor doctor = doctorRepository.findById(request.getDoctorId())
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Doctor not found with id: " + request.getDoctorId()
+                ));
+
+        List<Doctor> candidates = doctorRepository.findBySpecializationIgnoreCase(doctor.getSpecialization())
+                .stream()
+                .filter(candidate -> !candidate.getId().equals(doctor.getId()))
+                .sorted(Comparator.comparing(Doctor::getId))
+                .collect(Collectors.toList());
+
+        if (!request.isApply()) {
+            return transactionTemplate.execute(status -> plan(doctor, candidates, request, false));
+        }
+
+        // Lock the doctor's and every candidate's days in the range before planning
+        Set<LocalDate> dates = new TreeSet<>();
+        for (LocalDate date = request.getFromDate(); !date.isAfter(request.getToDate()); date = date.plusDays(1)) {
+            dates.add(date);
+        }
+        Map<Long, Set<LocalDate>> datesByDoctor = new HashMap<>();
+        datesByDoctor.put(doctor.getId(), dates);
+        candidates.forEach(candidate -> datesByDoctor.put(candidate.getId(), dates));
+
+        return bookingLocks.withLocks(datesByDoctor,
+                () -> transactionTemplate.execute(status -> plan(doctor, candidates, request, true)));
+    }
+
+    private ReassignmentPlanDTO plan(Doctor doctor, List<Doctor> candidates, ReassignmentRequest request,
+                                     boolean apply) {
+        LocalDateTime now = LocalDateTime.now();
+        // Patients come with the appointments; the plan lists each one by name
+        List<Appointment> affected = appointmentRepository
+                .findWithPatientByDoctor_IdAndAppointmentDateBetweenAndStatusNotIn(
+                        doctor.getId(), request.getFromDate(), request.getToDate(),
+                        List.of(Appointment.AppointmentStatus.CANCELLED, Appointment.AppointmentStatus.NO_SHOW,
+                                Appointment.AppointmentStatus.COMPLETED))
+                .stream()
+                .filter(appointment -> LocalDateTime.of(appointment.getAppointmentDate(), appointment.getStartTime())
+                        .isAfter(now))
+                .sorted(Comparator.comparing(Appointment::getAppointmentDate)
+                        .thenComparing(Appointment::getStartTime))
+                .collect(Collectors.toList());
+
+        Map<Long, Map<LocalDate, DayBitmap>> takenByDoctor = affected.isEmpty()
+                ? Map.of()
+                : loadTakenMinutes(candidates, request.getFromDate(), request.getToDate());
+
+        Map<Long, Integer> load = new HashMap<>();
+        Map<Long, Long> newDoctorByAppointment = new LinkedHashMap<>();
+        List<ReassignmentPlanDTO.Assignment> assignments = new ArrayList<>();
+
+        for (Appointment appointment : affected) {
+            Doctor chosen = null;
+            for (Doctor candidate : candidates) {
+                DayBitmap taken = takenByDoctor.get(candidate.getId()).get(appointment.getAppointmentDate());
+                boolean free = taken != null && !taken.anySet(appointment.getStartTime(), appointment.getEndTime());
+                if (free && (chosen == null ||
+                        load.getOrDefault(candidate.getId(), 0) < load.getOrDefault(chosen.getId(), 0))) {
+                    chosen = candidate;
+                }
+            }
+
+            ReassignmentPlanDTO.Assignment assignment = ReassignmentPlanDTO.Assignment.builder()
+                    .appointmentId(appointment.getId())
+                    .patientId(appointment.getPatient().getId())
+                    .patientName(appointment.getPatient().getFirstName() + " " +
+                            appointment.getPatient().getLastName())
+                    .date(appointment.getAppointmentDate())
+                    .startTime(appointment.getStartTime())
+                    .endTime(appointment.getEndTime())
+                    .build();
+
+            if (chosen == null) {
+                assignment.setMessage("No " + doctor.getSpecialization() + " doctor is free at this time");
+            } else {
+                takenByDoctor.get(chosen.getId()).get(appointment.getAppointmentDate())
+                        .set(appointment.getStartTime(), appointment.getEndTime());
+                load.merge(chosen.getId(), 1, Integer::sum);
+                newDoctorByAppointment.put(appointment.getId(), chosen.getId());
+                assignment.setNewDoctorId(chosen.getId());
+                assignment.setNewDoctorName(chosen.getFirstName() + " " + chosen.getLastName());
+            }
+            assignments.add(assignment);
+        }
+
+        if (apply) {
+            write(doctor.getId(), affected, newDoctorByAppointment);
+        }
+
+        return ReassignmentPlanDTO.builder()
+                .doctorId(doctor.getId())
+                .fromDate(request.getFromDate())
+                .toDate(request.getToDate())
+                .applied(apply)
+                .affected(affected.size())
+                .reassigned(newDoctorByAppointment.size())
+                .assignments(assignments)
+                .build();
+    }
+
+    /**
+     * Build every candidate's grid in parallel and turn it into taken minutes per date.
+     * Minutes outside free slots (not working, booked, held, time off) count as taken;
+     * a date missing from a doctor's map means they don't work that day.
+     */
+    private Map<Long, Map<LocalDate, DayBitmap>> loadTakenMinutes(List<Doctor> candidates, LocalDate from,
+                                                                  LocalDate to) {
+        Map<Long, CompletableFuture<Map<LocalDate, DayBitmap>>> futures = new LinkedHashMap<>();
+        for (Doctor candidate : candidates) {
+            futures.put(candidate.getId(), CompletableFuture.supplyAsync(
+                    () -> toTakenMinutes(schedulingService.getAvailabilityGrid(candidate.getId(), from, to)),
+                    gridPool));
+        }
+
+        Map<Long, Map<LocalDate, DayBitmap>> takenByDoctor = new HashMap<>();
+        futures.forEach((doctorId, future) -> takenByDoctor.put(doctorId, future.join()));
+        return takenByDoctor;
+    }
+
+    private Map<LocalDate, DayBitmap> toTakenMinutes(AvailabilityGridDTO grid) {
+        Map<LocalDate, DayBitmap> takenByDate = new HashMap<>();
+        for (AvailabilityGridDTO.DayAvailability block : grid.getDays()) {
+            DayBitmap taken = takenByDate.computeIfAbsent(block.getDate(), date -> {
+                DayBitmap wholeDay = new DayBitmap();
+                wholeDay.set(LocalTime.MIDNIGHT, LocalTime.MIDNIGHT);
+                return wholeDay;
+            });
+
+            LocalTime slotStart = block.getStartTime();
+            for (char slot : block.getSlots().toCharArray()) {
+                LocalTime slotEnd = slotStart.plusMinutes(block.getSlotDuration());
+                if (slot == '1') {
+                    taken.clear(slotStart, slotEnd);
+                }
+                slotStart = slotEnd;
+            }
+        }
+        return takenByDate;
+    }
+
+    /**
+     * Move the rows in one batch, then release each slot from the old doctor and book it
+     * for the new one. The release is REASSIGNED rather than CANCELLED so the old doctor's
+     * slots aren't offered to their waitlist.
+     */
+    private void write(Long fromDoctorId, List<Appointment> affected, Map<Long, Long> newDoctorByAppointment) {
+        int moved;
+        try {
+            moved = appointmentBatchRepository.reassignAll(fromDoctorId, affected, newDoctorByAppointment);
+        } catch (DataIntegrityViolationException e) {
+            if (NestedExceptionUtils.getMostSpecificCause(e) instanceof SQLException sqlException &&
+                    EXCLUSION_VIOLATION.equals(sqlException.getSQLState())) {
+                throw new ScheduleConflictException(
+                        "Reassignment conflicts with an appointment booked concurrently, please retry"
+                );
+            }
+            throw e;
+        }
+        if (moved != newDoctorByAppointment.size()) {
+            throw new ScheduleConflictException(
+                    "Appointments changed while they were being reassigned, please retry"
+            );
+        }
+
+        for (Appointment appointment : affected) {
+            Long newDoctorId = newDoctorByAppointment.get(appointment.getId());
+            if (newDoctorId == null) {
+                continue;
+            }
+            eventPublisher.publishEvent(AppointmentEvent.of(AppointmentEvent.Type.REASSIGNED, appointment));
+            AppointmentEvent booked = AppointmentEvent.of(AppointmentEvent.Type.BOOKED, appointment);
+            booked.setDoctorId(newDoctorId);
+            eventPublisher.publishEvent(booked);
+        }
+
+        log.info("Reassigned {} appointments of doctor {}", newDoctorByAppointment.size(), fromDoctorId);
+    }
+}
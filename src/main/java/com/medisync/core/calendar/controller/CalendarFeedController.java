@@ -0,0 +1,64 @@
+package com.medisync.core.calendar.controller;
+
+import com.medisync.core.calendar.dto.CalendarFeedDTO;
+import com.medisync.core.calendar.service.CalendarFeedService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+/**
+ * REST Controller for doctors' calendar feeds.
+ * Endpoints:
+ * - GET /api/calendar/feed - The current doctor's feed URL (DOCTOR only)
+ * - POST /api/calendar/feed/reset - Replace the current doctor's feed URL, e.g. after it leaked (DOCTOR only)
+ * - GET /api/calendar/doctors/{doctorId}/appointments.ics?token= - The feed itself (public, token checked);
+ *   answers 304 Not Modified to an If-None-Match with the current ETag
+ */
+@RestController
+@RequestMapping("/api/calendar")
+@RequiredArgsConstructor
+public class CalendarFeedController {
+
+    private static final MediaType TEXT_CALENDAR = MediaType.parseMediaType("text/calendar;charset=UTF-8");
+
+    private final CalendarFeedService calendarFeedService;
+
+    @GetMapping("/feed")
+    @PreAuthorize("hasRole('DOCTOR')")
+    public ResponseEntity<CalendarFeedDTO> getMyFeed(Authentication authentication) {
+        String baseUrl = ServletUriComponentsBuilder.fromCurrentContextPath().toUriString();
+        return ResponseEntity.ok(calendarFeedService.getFeed(authentication.getName(), baseUrl));
+    }
+
+    @PostMapping("/feed/reset")
+    @PreAuthorize("hasRole('DOCTOR')")
+    public ResponseEntity<CalendarFeedDTO> resetMyFeed(Authentication authentication) {
+        String baseUrl = ServletUriComponentsBuilder.fromCurrentContextPath().toUriString();
+        return ResponseEntity.ok(calendarFeedService.resetFeed(authentication.getName(), baseUrl));
+    }
+
+    // Calendar apps poll this; an unchanged feed costs a token check and one row read
+    @GetMapping("/doctors/{doctorId}/appointments.ics")
+    public ResponseEntity<String> getFeed(
+            @PathVariable Long doctorId,
+            @RequestParam String token,
+            WebRequest webRequest
+    ) {
+        String etag = calendarFeedService.checkTokenAndGetEtag(doctorId, token);
+        if (webRequest.checkNotModified(etag)) {
+            return null; // 304 with the ETag already set
+        }
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .contentType(TEXT_CALENDAR)
+                .body(calendarFeedService.render(doctorId));
+    }
+}
@@ -0,0 +1,19 @@
+package com.medisync.core.calendar.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a doctor's calendar feed subscription.
+ * The URL carries the feed token, so it works without logging in; treat it like a password.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalendarFeedDTO {
+
+    private String url;
+}
@@ -0,0 +1,32 @@
+package com.medisync.core.calendar.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * CalendarFeedVersion entity: a counter per doctor, bumped whenever any of their appointments changes.
+ * Calendar feeds use it as their ETag, so an unchanged feed is answered from this one row.
+ * tokenVersion is part of the feed token and is bumped when the doctor resets their feed URL.
+ * Written only by CalendarFeedService.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "calendar_feed_version")
+public class CalendarFeedVersion {
+
+    @Id
+    @Column(name = "doctor_id")
+    private Long doctorId;
+
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(name = "token_version", nullable = false)
+    private Long tokenVersion;
+}
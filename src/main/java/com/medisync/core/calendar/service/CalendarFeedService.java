@@ -0,0 +1,230 @@
+package com.medisync.core.calendar.service;
+
+import com.medisync.core.appointment.entity.Appointment;
+import com.medisync.core.appointment.event.AppointmentCompletedEvent;
+import com.medisync.core.appointment.event.AppointmentEvent;
+import com.medisync.core.appointment.event.AppointmentStatusChangedEvent;
+import com.medisync.core.appointment.event.NoShowBatchEvent;
+import com.medisync.core.appointment.repository.AppointmentRepository;
+import com.medisync.core.calendar.dto.CalendarFeedDTO;
+import com.medisync.core.doctor.entity.Doctor;
+import com.medisync.core.doctor.repository.DoctorRepository;
+import com.medisync.core.exception.ResourceNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * iCalendar (.ics) feeds of doctors' upcoming appointments.
+ * Handles:
+ * - Feed tokens: an HMAC of the doctor's id and token version, keyed by calendar.feed.secret;
+ *   resetting the link bumps the token version, so every earlier URL stops working
+ * - A version per doctor, bumped in the same transaction as every change to their appointments;
+ *   with the date it forms the feed's ETag, so a poll of an unchanged feed reads one row (which
+ *   also holds the token version) and sends nothing back
+ * - Rendering the feed when it did change
+ * Events carry no patient names or reasons, because calendar apps copy feeds to third-party servers.
+ */
+@Service
+public class CalendarFeedService {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+    private static final DateTimeFormatter UTC_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+    private static final String CRLF = "\r\n";
+
+    private static final String BUMP_SQL =
+            "INSERT INTO calendar_feed_version (doctor_id, version, token_version) VALUES (?, 1, 0) " +
+                    "ON CONFLICT (doctor_id) DO UPDATE SET version = calendar_feed_version.version + 1";
+
+    private static final String RESET_TOKEN_SQL =
+            "INSERT INTO calendar_feed_version (doctor_id, version, token_version) VALUES (?, 0, 1) " +
+                    "ON CONFLICT (doctor_id) DO UPDATE SET token_version = calendar_feed_version.token_version + 1 " +
+                    "RETURNING token_version";
+
+    // A doctor without a row yet has never had a change or a reset: both versions are 0
+    private static final String VERSIONS_SQL =
+            "SELECT COALESCE(MAX(version), 0) AS version, COALESCE(MAX(token_version), 0) AS token_version " +
+                    "FROM calendar_feed_version WHERE doctor_id = ?";
+
+    private final AppointmentRepository appointmentRepository;
+    private final DoctorRepository doctorRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final SecretKeySpec tokenKey;
+
+    @Value("${calendar.feed.days-ahead:90}")
+    private int daysAhead;
+
+    public CalendarFeedService(AppointmentRepository appointmentRepository,
+                               DoctorRepository doctorRepository,
+                               JdbcTemplate jdbcTemplate,
+                               @Value("${calendar.feed.secret}") String secret,
+                               @Value("${jwt.secret.key}") String jwtSecret) {
+        // Feed URLs end up in calendar apps and their servers; a leaked one must not expose the JWT key
+        if (secret.isBlank() || secret.equals(jwtSecret)) {
+            throw new IllegalStateException("calendar.feed.secret must be set and differ from jwt.secret.key");
+        }
+        this.appointmentRepository = appointmentRepository;
+        this.doctorRepository = doctorRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.tokenKey = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+    }
+
+    // Feed URL of a doctor, under the app's base URL
+    @Transactional(readOnly = true)
+    public CalendarFeedDTO getFeed(String doctorEmail, String baseUrl) {
+        Doctor doctor = findDoctor(doctorEmail);
+        return feedFor(doctor.getId(), versions(doctor.getId()).tokenVersion(), baseUrl);
+    }
+
+    // Issue a new feed URL; the old one stops working at once
+    @Transactional
+    public CalendarFeedDTO resetFeed(String doctorEmail, String baseUrl) {
+        Doctor doctor = findDoctor(doctorEmail);
+        Long tokenVersion = jdbcTemplate.queryForObject(RESET_TOKEN_SQL, Long.class, doctor.getId());
+        return feedFor(doctor.getId(), tokenVersion, baseUrl);
+    }
+
+    private Doctor findDoctor(String doctorEmail) {
+        return doctorRepository.findByEmail(doctorEmail)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Doctor not found with email: " + doctorEmail
+                ));
+    }
+
+    private CalendarFeedDTO feedFor(Long doctorId, long tokenVersion, String baseUrl) {
+        String url = UriComponentsBuilder.fromUriString(baseUrl)
+                .path("/api/calendar/doctors/{doctorId}/appointments.ics")
+                .queryParam("token", tokenFor(doctorId, tokenVersion))
+                .buildAndExpand(doctorId)
+                .toUriString();
+        return CalendarFeedDTO.builder().url(url).build();
+    }
+
+    private String tokenFor(Long doctorId, long tokenVersion) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(tokenKey);
+            byte[] digest = mac.doFinal(("calendar-feed:" + doctorId + ":" + tokenVersion)
+                    .getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+
+    /**
+     * Check the token and return the ETag of the doctor's feed as it would be rendered now,
+     * both from the one calendar_feed_version row.
+     * A wrong or reset token looks the same as a doctor without a feed.
+     * The date is part of the ETag because the feed's window moves every day.
+     */
+    public String checkTokenAndGetEtag(Long doctorId, String token) {
+        Versions versions = versions(doctorId);
+        byte[] expected = tokenFor(doctorId, versions.tokenVersion()).getBytes(StandardCharsets.UTF_8);
+        if (token == null || !MessageDigest.isEqual(expected, token.getBytes(StandardCharsets.UTF_8))) {
+            throw new ResourceNotFoundException("Calendar feed not found");
+        }
+        return "\"" + doctorId + "-" + versions.version() + "-" + LocalDate.now(ZONE) + "\"";
+    }
+
+    private Versions versions(Long doctorId) {
+        return jdbcTemplate.queryForObject(VERSIONS_SQL, (rs, rowNum) ->
+                new Versions(rs.getLong("version"), rs.getLong("token_version")), doctorId);
+    }
+
+    // The doctor's appointments from today to days-ahead days out, except cancelled and no-shows
+    @Transactional(readOnly = true)
+    public String render(Long doctorId) {
+        LocalDate today = LocalDate.now(ZONE);
+        List<Appointment> appointments = appointmentRepository.findByDoctor_IdAndAppointmentDateBetweenAndStatusNotIn(
+                doctorId, today, today.plusDays(daysAhead),
+                List.of(Appointment.AppointmentStatus.CANCELLED, Appointment.AppointmentStatus.NO_SHOW));
+
+        StringBuilder ics = new StringBuilder()
+                .append("BEGIN:VCALENDAR").append(CRLF)
+                .append("VERSION:2.0").append(CRLF)
+                .append("PRODID:-//MediSync//Appointments//EN").append(CRLF)
+                .append("CALSCALE:GREGORIAN").append(CRLF)
+                .append("METHOD:PUBLISH").append(CRLF)
+                .append("X-WR-CALNAME:MediSync appointments").append(CRLF);
+
+        appointments.stream()
+                .sorted(Comparator.comparing(Appointment::getAppointmentDate).thenComparing(Appointment::getStartTime))
+                .forEach(appointment -> appendEvent(ics, appointment));
+
+        return ics.append("END:VCALENDAR").append(CRLF).toString();
+    }
+
+    // Bump the version inside the transaction that changes the appointment
+    @EventListener
+    public void onAppointmentEvent(AppointmentEvent event) {
+        jdbcTemplate.update(BUMP_SQL, event.getDoctorId());
+    }
+
+    @EventListener
+    public void onAppointmentCompleted(AppointmentCompletedEvent event) {
+        jdbcTemplate.update(BUMP_SQL, event.getDoctorId());
+    }
+
+    @EventListener
+    public void onAppointmentStatusChanged(AppointmentStatusChangedEvent event) {
+        jdbcTemplate.update(BUMP_SQL, event.getDoctorId());
+    }
+
+    @EventListener
+    public void onNoShowBatch(NoShowBatchEvent event) {
+        List<Object[]> doctors = event.getAppointments().stream()
+                .map(NoShowBatchEvent.MarkedAppointment::doctorId)
+                .distinct()
+                .map(doctorId -> new Object[]{doctorId})
+                .toList();
+        jdbcTemplate.batchUpdate(BUMP_SQL, doctors);
+    }
+
+    private void appendEvent(StringBuilder ics, Appointment appointment) {
+        LocalDate date = appointment.getAppointmentDate();
+        LocalTime start = appointment.getStartTime();
+        LocalTime end = appointment.getEndTime();
+        // An end time at or before the start time means the appointment runs past midnight
+        LocalDate endDate = end.isAfter(start) ? date : date.plusDays(1);
+        LocalDateTime stamp = appointment.getUpdatedAt() != null ? appointment.getUpdatedAt() : LocalDateTime.now();
+
+        ics.append("BEGIN:VEVENT").append(CRLF)
+                .append("UID:appointment-").append(appointment.getId()).append("@medisync").append(CRLF)
+                .append("DTSTAMP:").append(utc(stamp)).append(CRLF)
+                .append("DTSTART:").append(utc(LocalDateTime.of(date, start))).append(CRLF)
+                .append("DTEND:").append(utc(LocalDateTime.of(endDate, end))).append(CRLF)
+                .append("SUMMARY:").append(summary(appointment.getStatus())).append(CRLF)
+                .append("STATUS:CONFIRMED").append(CRLF)
+                .append("END:VEVENT").append(CRLF);
+    }
+
+    private static String summary(Appointment.AppointmentStatus status) {
+        return status == Appointment.AppointmentStatus.COMPLETED ? "Patient appointment (completed)" : "Patient appointment";
+    }
+
+    private static String utc(LocalDateTime time) {
+        return time.atZone(ZONE).withZoneSameInstant(ZoneOffset.UTC).format(UTC_STAMP);
+    }
+
+    private record Versions(long version, long tokenVersion) {
+    }
+}
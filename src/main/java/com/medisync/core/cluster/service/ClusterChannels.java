@@ -0,0 +1,133 @@
+package com.medisync.core.cluster.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Postgres LISTEN/NOTIFY channels shared by every app node.
+ * Handles:
+ * - Sending a message with NOTIFY; inside a transaction Postgres only delivers it once that
+ *   transaction commits, outside one it goes out at once, to every listening node, this one included
+ * - Listening on one connection per node for every subscribed channel and handing each message
+ *   to that channel's handlers, on the listener thread
+ * Delivery is best effort: messages sent while a node's listener is reconnecting never reach it,
+ * so whatever is kept in step this way also has to expire or be checked against the database.
+ */
+@Slf4j
+@Service
+public class ClusterChannels {
+
+    private static final String NOTIFY_SQL = "SELECT pg_notify(?, ?)";
+
+    // How long one wait for notifications lasts, and the pause before reconnecting after a failure
+    private static final int POLL_MS = 10_000;
+    private static final long RECONNECT_MS = 5_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+
+    private final Map<String, List<Consumer<String>>> handlers = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+    private Thread listener;
+
+    public ClusterChannels(JdbcTemplate jdbcTemplate, DataSource dataSource) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+    }
+
+    // Send a message to every node listening on the channel
+    public void send(String channel, String payload) {
+        jdbcTemplate.queryForObject(NOTIFY_SQL, Object.class, channel, payload);
+    }
+
+    // Handle the channel's messages; subscribe while the application starts, before the listener does
+    public void subscribe(String channel, Consumer<String> handler) {
+        handlers.computeIfAbsent(channel, name -> new CopyOnWriteArrayList<>()).add(handler);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        listener = new Thread(this::listen, "cluster-channels");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                try {
+                    try (Statement statement = connection.createStatement()) {
+                        for (String channel : handlers.keySet()) {
+                            statement.execute("LISTEN " + channel);
+                        }
+                    }
+                    PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                    while (running) {
+                        PGNotification[] notifications = pgConnection.getNotifications(POLL_MS);
+                        if (notifications != null) {
+                            for (PGNotification notification : notifications) {
+                                deliver(notification.getName(), notification.getParameter());
+                            }
+                        }
+                    }
+                } finally {
+                    // The connection goes back to the pool; it mustn't keep collecting notifications there
+                    try (Statement statement = connection.createStatement()) {
+                        statement.execute("UNLISTEN *");
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Cluster channel listener failed, reconnecting: {}", e.getMessage());
+                    pause();
+                }
+            }
+        }
+    }
+
+    // One failing handler mustn't stop the others or the listener
+    private void deliver(String channel, String payload) {
+        for (Consumer<String> handler : handlers.getOrDefault(channel, List.of())) {
+            try {
+                handler.accept(payload);
+            } catch (RuntimeException e) {
+                log.warn("Handler for channel {} failed: {}", channel, e.getMessage());
+            }
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(RECONNECT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.medisync.core.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Response caches for public, read-heavy endpoints.
+ * Caffeine sizing, TTL and stats are set through spring.cache.* in application.properties;
+ * hit/miss counts are published as cache.gets metrics. Entries are evicted by SlotCacheInvalidator.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    // Available slots per doctor and date, keyed "doctorId:date"
+    public static final String AVAILABLE_SLOTS = "availableSlots";
+
+    // A doctor's weekly schedule, keyed by doctorId
+    public static final String DOCTOR_SCHEDULES = "doctorSchedules";
+}
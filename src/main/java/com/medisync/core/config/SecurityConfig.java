@@ -1,5 +1,6 @@
 package com.medisync.core.config;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -25,6 +26,7 @@ public class SecurityConfig {
      * Configure HTTP security.
      * Current setup:
      * - /api/auth/** endpoints are PUBLIC (register, login)
+     * - /api/admin/** and /actuator/metrics/** endpoints are ADMIN only
      * - All other endpoints require authentication
      * - CSRF disabled (not needed for stateless JWT auth)
      * - Stateless sessions (no server-side sessions)
@@ -44,10 +46,17 @@ public class SecurityConfig {
                 }))
 
                 .authorizeHttpRequests(auth -> auth
+                        // Async dispatches resume a request that was already authorized (SSE streams)
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/doctors/*/available-slots").permitAll()
+                        .requestMatchers("/api/doctors/*/available-slots/range").permitAll()
                         .requestMatchers("/api/doctors").permitAll()
+                        .requestMatchers("/api/doctors/earliest-slots").permitAll()
                         .requestMatchers("/api/doctors/*/schedule").permitAll()
+                        .requestMatchers("/api/calendar/doctors/*/appointments.ics").permitAll()
+                        .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                        .requestMatchers("/actuator/metrics/**").hasRole("ADMIN")
 
                         .anyRequest().authenticated()
                 )
@@ -0,0 +1,17 @@
+package com.medisync.core.doctor.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Domain event published by DoctorService after a doctor updates their profile.
+ */
+@Data
+@AllArgsConstructor
+public class DoctorProfileUpdatedEvent {
+
+    private Long doctorId;
+    private String firstName;
+    private String lastName;
+    private String specialization;
+}
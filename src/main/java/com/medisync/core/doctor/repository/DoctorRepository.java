@@ -4,6 +4,7 @@ import com.medisync.core.doctor.entity.Doctor;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 // Repository interface for Doctor entity
@@ -13,4 +14,5 @@ public interface DoctorRepository extends JpaRepository<Doctor, Long> {
     Optional<Doctor> findByEmail(String email);
     boolean existsByEmail(String email);
     Optional<Doctor> findByLicenseNumber(String licenseNumber);
+    List<Doctor> findBySpecializationIgnoreCase(String specialization);
 }
@@ -3,9 +3,11 @@ package com.medisync.core.doctor.service;
 import com.medisync.core.doctor.dto.DoctorProfileDTO;
 import com.medisync.core.doctor.dto.UpdateDoctorProfileRequest;
 import com.medisync.core.doctor.entity.Doctor;
+import com.medisync.core.doctor.event.DoctorProfileUpdatedEvent;
 import com.medisync.core.doctor.repository.DoctorRepository;
 import com.medisync.core.exception.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,6 +17,7 @@ import org.springframework.transaction.annotation.Transactional;
 public class DoctorService {
 
     private final DoctorRepository doctorRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public DoctorProfileDTO getProfile(String email) {
@@ -59,6 +62,8 @@ public class DoctorService {
         }
 
         Doctor updatedDoctor = doctorRepository.save(doctor);
+        eventPublisher.publishEvent(new DoctorProfileUpdatedEvent(updatedDoctor.getId(),
+                updatedDoctor.getFirstName(), updatedDoctor.getLastName(), updatedDoctor.getSpecialization()));
         return mapToDTO(updatedDoctor);
     }
 
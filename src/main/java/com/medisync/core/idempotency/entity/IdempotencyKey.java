@@ -0,0 +1,45 @@
+package com.medisync.core.idempotency.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * IdempotencyKey entity: one row per user and Idempotency-Key, shared by every app node.
+ * Claimed when the first request starts; the response columns are filled in when it finishes,
+ * and stay empty while it is in progress. Written only by IdempotencyStore.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "idempotency_keys")
+public class IdempotencyKey {
+
+    @Id
+    @Column(name = "user_key", length = 600)
+    private String userKey; // User name, "|", then the header value
+
+    @Column(nullable = false, length = 64)
+    private String fingerprint; // SHA-256 of the path and body, hex
+
+    @Column(name = "response_status")
+    private Integer responseStatus;
+
+    @Column(name = "response_content_type")
+    private String responseContentType;
+
+    @Column(name = "response_body")
+    private byte[] responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt; // When the key was claimed
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
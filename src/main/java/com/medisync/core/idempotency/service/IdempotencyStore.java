@@ -0,0 +1,121 @@
+package com.medisync.core.idempotency.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Store of responses to requests sent with an Idempotency-Key, in the idempotency_keys table,
+ * so a retry that lands on another node still finds the first attempt.
+ * An entry is claimed when the first request starts and filled in with its response when it
+ * finishes; retries with the same key get that response back. Entries are keyed by user and key,
+ * and remember a fingerprint of the request so a key can't be reused for a different one.
+ * Entries expire after ttl-hours; a claim whose request never finished (e.g. its node died)
+ * can be taken over after claim-timeout-seconds.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    // Inserts the claim, or takes over an expired or abandoned one; returns a row only if this call won
+    private static final String CLAIM_SQL =
+            "INSERT INTO idempotency_keys (user_key, fingerprint, created_at) VALUES (?, ?, ?) " +
+                    "ON CONFLICT (user_key) DO UPDATE SET fingerprint = EXCLUDED.fingerprint, " +
+                    "response_status = NULL, response_content_type = NULL, response_body = NULL, " +
+                    "created_at = EXCLUDED.created_at, completed_at = NULL " +
+                    "WHERE idempotency_keys.created_at < ? " +
+                    "OR (idempotency_keys.completed_at IS NULL AND idempotency_keys.created_at < ?) " +
+                    "RETURNING user_key";
+
+    private static final String FIND_SQL =
+            "SELECT fingerprint, response_status, response_content_type, response_body, completed_at " +
+                    "FROM idempotency_keys WHERE user_key = ?";
+
+    private static final String COMPLETE_SQL =
+            "UPDATE idempotency_keys SET response_status = ?, response_content_type = ?, response_body = ?, " +
+                    "completed_at = ? WHERE user_key = ? AND fingerprint = ? AND completed_at IS NULL";
+
+    private static final String RELEASE_SQL =
+            "DELETE FROM idempotency_keys WHERE user_key = ? AND completed_at IS NULL";
+
+    private static final String PURGE_SQL = "DELETE FROM idempotency_keys WHERE created_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration ttl;
+    private final Duration claimTimeout;
+
+    public IdempotencyStore(JdbcTemplate jdbcTemplate,
+                            @Value("${idempotency.ttl-hours:24}") long ttlHours,
+                            @Value("${idempotency.claim-timeout-seconds:120}") long claimTimeoutSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.claimTimeout = Duration.ofSeconds(claimTimeoutSeconds);
+    }
+
+    /**
+     * Claim a key for a new request, or report what is already stored under it.
+     * Exactly one of any number of concurrent callers with the same key gets STARTED,
+     * whichever node they run on; the unique key decides.
+     */
+    public Claim claim(String userKey, String fingerprint) {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> claimed = jdbcTemplate.queryForList(CLAIM_SQL, String.class,
+                userKey, fingerprint, now, now.minus(ttl), now.minus(claimTimeout));
+        if (!claimed.isEmpty()) {
+            return new Claim(ClaimStatus.STARTED, null);
+        }
+
+        List<Claim> existing = jdbcTemplate.query(FIND_SQL, (rs, rowNum) -> {
+            if (!rs.getString("fingerprint").equals(fingerprint)) {
+                return new Claim(ClaimStatus.MISMATCH, null);
+            }
+            if (rs.getObject("completed_at") == null) {
+                return new Claim(ClaimStatus.IN_PROGRESS, null);
+            }
+            return new Claim(ClaimStatus.REPLAY, new StoredResponse(rs.getInt("response_status"),
+                    rs.getString("response_content_type"), rs.getBytes("response_body")));
+        }, userKey);
+
+        // Released between the two statements; the retry will claim it
+        return existing.isEmpty() ? new Claim(ClaimStatus.IN_PROGRESS, null) : existing.get(0);
+    }
+
+    // Store the response of a claimed request for its retries
+    public void complete(String userKey, String fingerprint, StoredResponse response) {
+        jdbcTemplate.update(COMPLETE_SQL, response.status(), response.contentType(), response.body(),
+                LocalDateTime.now(), userKey, fingerprint);
+    }
+
+    // Release a claim without a response (the request failed), so a retry runs again
+    public void release(String userKey) {
+        jdbcTemplate.update(RELEASE_SQL, userKey);
+    }
+
+    // Drop expired entries so the table only holds keys that can still be replayed
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        int purged = jdbcTemplate.update(PURGE_SQL, LocalDateTime.now().minus(ttl));
+        if (purged > 0) {
+            log.debug("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    public enum ClaimStatus {
+        STARTED,     // First request with this key - run it
+        IN_PROGRESS, // The first request hasn't finished yet
+        MISMATCH,    // The key was used for a different request
+        REPLAY       // The first request finished - return its response
+    }
+
+    public record Claim(ClaimStatus status, StoredResponse response) {
+    }
+
+    public record StoredResponse(int status, String contentType, byte[] body) {
+    }
+}
@@ -2,8 +2,11 @@ package com.medisync.core.medicalrecord.repository;
 
 import com.medisync.core.medicalrecord.entity.LabReport;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -13,4 +16,9 @@ import java.util.List;
 public interface LabReportRepository extends JpaRepository<LabReport, Long> {
 
     List<LabReport> findByMedicalRecord_Id(Long medicalRecordId);
+
+    // How many each of these medical records has, in one grouped query (records with none are left out)
+    @Query("SELECT l.medicalRecord.id AS medicalRecordId, COUNT(l) AS count FROM LabReport l " +
+            "WHERE l.medicalRecord.id IN :medicalRecordIds GROUP BY l.medicalRecord.id")
+    List<RecordItemCount> countByMedicalRecordIds(@Param("medicalRecordIds") Collection<Long> medicalRecordIds);
 }
@@ -1,6 +1,7 @@
 package com.medisync.core.medicalrecord.repository;
 
 import com.medisync.core.medicalrecord.entity.MedicalRecord;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -12,7 +13,10 @@ import java.util.List;
 @Repository
 public interface MedicalRecordRepository extends JpaRepository<MedicalRecord, Long> {
 
+    // Records for a patient/doctor with the doctor loaded in the same query (for MedicalRecordListDTO)
+    @EntityGraph(attributePaths = "doctor")
     List<MedicalRecord> findByPatient_Email(String email);
+    @EntityGraph(attributePaths = "doctor")
     List<MedicalRecord> findByDoctor_Email(String email);
 
     List<MedicalRecord> findByPatient_Id(Long patientId);
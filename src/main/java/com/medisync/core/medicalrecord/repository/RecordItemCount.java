@@ -0,0 +1,10 @@
+package com.medisync.core.medicalrecord.repository;
+
+/**
+ * Projection of how many items (prescriptions or lab reports) one medical record has.
+ */
+public interface RecordItemCount {
+
+    Long getMedicalRecordId();
+    Long getCount();
+}
@@ -1,6 +1,7 @@
 package com.medisync.core.medicalrecord.service;
 
 import com.medisync.core.appointment.entity.Appointment;
+import com.medisync.core.appointment.event.AppointmentCompletedEvent;
 import com.medisync.core.appointment.repository.AppointmentRepository;
 import com.medisync.core.doctor.entity.Doctor;
 import com.medisync.core.doctor.repository.DoctorRepository;
@@ -13,11 +14,14 @@ import com.medisync.core.medicalrecord.entity.Prescription;
 import com.medisync.core.medicalrecord.repository.LabReportRepository;
 import com.medisync.core.medicalrecord.repository.MedicalRecordRepository;
 import com.medisync.core.medicalrecord.repository.PrescriptionRepository;
+import com.medisync.core.medicalrecord.repository.RecordItemCount;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -36,6 +40,7 @@ public class MedicalRecordService {
     private final DoctorRepository doctorRepository;
     private final PrescriptionRepository prescriptionRepository;
     private final LabReportRepository labReportRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Create a medical record for an appointment.
@@ -54,7 +59,7 @@ public class MedicalRecordService {
                 ));
 
         // Find appointment
-        Appointment appointment = appointmentRepository.findById(request.getAppointmentId())
+        Appointment appointment = appointmentRepository.findWithPatientAndDoctorById(request.getAppointmentId())
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Appointment not found with id: " + request.getAppointmentId()
                 ));
@@ -82,6 +87,10 @@ public class MedicalRecordService {
         appointment.setStatus(Appointment.AppointmentStatus.COMPLETED);
         appointmentRepository.save(appointment);
 
+        eventPublisher.publishEvent(new AppointmentCompletedEvent(appointment.getId(), doctor.getId(),
+                appointment.getPatient().getId(), appointment.getAppointmentDate(),
+                appointment.getStartTime(), appointment.getEndTime()));
+
         return mapToFullDTO(savedRecord);
     }
 
@@ -94,9 +103,7 @@ public class MedicalRecordService {
     @Transactional(readOnly = true)
     public List<MedicalRecordListDTO> getPatientMedicalRecords(String patientEmail) {
         List<MedicalRecord> records = medicalRecordRepository.findByPatient_Email(patientEmail);
-        return records.stream()
-                .map(this::mapToListDTO)
-                .collect(Collectors.toList());
+        return mapToListDTOs(records);
     }
 
     /**
@@ -108,9 +115,7 @@ public class MedicalRecordService {
     @Transactional(readOnly = true)
     public List<MedicalRecordListDTO> getDoctorMedicalRecords(String doctorEmail) {
         List<MedicalRecord> records = medicalRecordRepository.findByDoctor_Email(doctorEmail);
-        return records.stream()
-                .map(this::mapToListDTO)
-                .collect(Collectors.toList());
+        return mapToListDTOs(records);
     }
 
     /**
@@ -181,17 +186,38 @@ public class MedicalRecordService {
                 .build();
     }
 
+    /**
+     * Convert MedicalRecord entities to simplified list DTOs.
+     * Prescriptions and lab reports are counted for all records at once with one grouped query each,
+     * so a list costs three statements however many records it has (doctors come with the records).
+     */
+    private List<MedicalRecordListDTO> mapToListDTOs(List<MedicalRecord> records) {
+        if (records.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = records.stream().map(MedicalRecord::getId).toList();
+        Map<Long, Long> prescriptionCounts = toMap(prescriptionRepository.countByMedicalRecordIds(ids));
+        Map<Long, Long> labReportCounts = toMap(labReportRepository.countByMedicalRecordIds(ids));
+
+        return records.stream()
+                .map(record -> mapToListDTO(record,
+                        prescriptionCounts.getOrDefault(record.getId(), 0L).intValue(),
+                        labReportCounts.getOrDefault(record.getId(), 0L).intValue()))
+                .collect(Collectors.toList());
+    }
+
+    private static Map<Long, Long> toMap(List<RecordItemCount> counts) {
+        return counts.stream()
+                .collect(Collectors.toMap(RecordItemCount::getMedicalRecordId, RecordItemCount::getCount));
+    }
+
     /**
      * Convert MedicalRecord entity to simplified list DTO.
      */
-    private MedicalRecordListDTO mapToListDTO(MedicalRecord record) {
+    private MedicalRecordListDTO mapToListDTO(MedicalRecord record, int prescriptionCount, int labReportCount) {
         String doctorName = "Dr. " + record.getDoctor().getFirstName() + " " +
                 record.getDoctor().getLastName();
 
-        // Count prescriptions and lab reports
-        int prescriptionCount = prescriptionRepository.findByMedicalRecord_Id(record.getId()).size();
-        int labReportCount = labReportRepository.findByMedicalRecord_Id(record.getId()).size();
-
         return MedicalRecordListDTO.builder()
                 .id(record.getId())
                 .visitDate(record.getVisitDate())
@@ -0,0 +1,16 @@
+package com.medisync.core.patient.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Domain event published by PatientService after a patient updates their profile.
+ */
+@Data
+@AllArgsConstructor
+public class PatientProfileUpdatedEvent {
+
+    private Long patientId;
+    private String firstName;
+    private String lastName;
+}
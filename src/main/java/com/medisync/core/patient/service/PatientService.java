@@ -4,8 +4,10 @@ import com.medisync.core.exception.ResourceNotFoundException;
 import com.medisync.core.patient.dto.PatientProfileDTO;
 import com.medisync.core.patient.dto.UpdatePatientProfileRequest;
 import com.medisync.core.patient.entity.Patient;
+import com.medisync.core.patient.event.PatientProfileUpdatedEvent;
 import com.medisync.core.patient.repository.PatientRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,6 +17,7 @@ import org.springframework.transaction.annotation.Transactional;
 public class PatientService {
 
     private final PatientRepository patientRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     // Get current patient's profile
     @Transactional(readOnly = true)
@@ -73,6 +76,8 @@ public class PatientService {
         }
 
         Patient updatedPatient = patientRepository.save(patient);
+        eventPublisher.publishEvent(new PatientProfileUpdatedEvent(updatedPatient.getId(),
+                updatedPatient.getFirstName(), updatedPatient.getLastName()));
         return mapToDTO(updatedPatient);
     }
 
@@ -0,0 +1,44 @@
+package com.medisync.core.reminder.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * ReminderSent entity: one row per reminder that has been claimed for sending.
+ * Every node keeps its own timing wheel of the same reminders; the first to insert the row
+ * sends the reminder and the others skip it. Written only by ReminderService.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@IdClass(ReminderSent.Key.class)
+@Table(name = "reminder_sent")
+public class ReminderSent {
+
+    @Id
+    @Column(name = "appointment_id")
+    private Long appointmentId;
+
+    @Id
+    @Column(length = 20)
+    private String kind; // AppointmentReminder.Kind
+
+    @Column(name = "sent_at", nullable = false)
+    private LocalDateTime sentAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long appointmentId;
+        private String kind;
+    }
+}
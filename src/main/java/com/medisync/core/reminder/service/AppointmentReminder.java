@@ -0,0 +1,18 @@
+package com.medisync.core.reminder.service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * A reminder due for one appointment. Notifiers look up contact details by patient id.
+ */
+public record AppointmentReminder(Long appointmentId, Long patientId, Long doctorId,
+                                  LocalDate appointmentDate, LocalTime startTime,
+                                  Kind kind, Instant dueAt) {
+
+    public enum Kind {
+        DAY_BEFORE,
+        TWO_HOURS_BEFORE
+    }
+}
@@ -0,0 +1,24 @@
+package com.medisync.core.reminder.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Notifier used until a real delivery channel is configured: logs each reminder.
+ * A real notifier declared @Primary takes its place.
+ */
+@Slf4j
+@Component
+public class LoggingNotifier implements Notifier {
+
+    @Override
+    public void send(List<AppointmentReminder> reminders) {
+        for (AppointmentReminder reminder : reminders) {
+            log.info("Reminder {} for appointment {} (patient {}) on {} at {}",
+                    reminder.kind(), reminder.appointmentId(), reminder.patientId(),
+                    reminder.appointmentDate(), reminder.startTime());
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.medisync.core.reminder.service;
+
+import java.util.List;
+
+/**
+ * Delivers appointment reminders (email, SMS, push...).
+ * Called with batches of reminders that fell due together; implementations should send
+ * a batch in as few calls to their provider as it allows.
+ */
+public interface Notifier {
+
+    void send(List<AppointmentReminder> reminders);
+}
@@ -0,0 +1,191 @@
+package com.medisync.core.reminder.service;
+
+import com.medisync.core.appointment.entity.Appointment;
+import com.medisync.core.appointment.event.AppointmentEvent;
+import com.medisync.core.appointment.repository.AppointmentListView;
+import com.medisync.core.appointment.repository.AppointmentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends reminders 24 hours and 2 hours before each scheduled appointment.
+ * Handles:
+ * - Loading the reminders that fall due within the next window into a timing wheel,
+ *   on startup (so a restart loses nothing still ahead) and again every reload
+ * - Adding and dropping reminders as appointments are booked, cancelled or reassigned
+ * - Advancing the wheel every tick and handing due reminders to the Notifier in batches
+ * Every node has every reminder in its wheel; a reminder is claimed in reminder_sent before it is
+ * sent, so exactly one node sends it. Reminders that fell due while the app was down are not sent late.
+ */
+@Slf4j
+@Service
+public class ReminderService {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private static final String CLAIM_SQL =
+            "INSERT INTO reminder_sent (appointment_id, kind, sent_at) VALUES (?, ?, ?) " +
+                    "ON CONFLICT (appointment_id, kind) DO NOTHING";
+
+    private static final String DELETE_CLAIMS_SQL = "DELETE FROM reminder_sent WHERE sent_at < ?";
+
+    private final AppointmentRepository appointmentRepository;
+    private final Notifier notifier;
+    private final JdbcTemplate jdbcTemplate;
+    private final ReminderWheel wheel;
+    private final Duration window;
+
+    @Value("${reminder.batch-size:100}")
+    private int batchSize;
+
+    // Reminders due before this are in the wheel; later ones are picked up by the next reload
+    private volatile Instant loadedUntil = Instant.EPOCH;
+
+    public ReminderService(AppointmentRepository appointmentRepository,
+                           Notifier notifier,
+                           JdbcTemplate jdbcTemplate,
+                           @Value("${reminder.tick-seconds:30}") long tickSeconds,
+                           @Value("${reminder.wheel-size:512}") int wheelSize,
+                           @Value("${reminder.window-hours:3}") long windowHours) {
+        this.appointmentRepository = appointmentRepository;
+        this.notifier = notifier;
+        this.jdbcTemplate = jdbcTemplate;
+        this.wheel = new ReminderWheel(Duration.ofSeconds(tickSeconds), wheelSize, Instant.now());
+        this.window = Duration.ofHours(windowHours);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        loadWindow();
+    }
+
+    /**
+     * Put every reminder due between now and the end of the window into the wheel.
+     * Reads only the days those appointments can fall on; already-loaded reminders are just moved.
+     */
+    @Scheduled(cron = "${reminder.reload-cron:0 0 * * * *}")
+    public void loadWindow() {
+        Instant now = Instant.now();
+        Instant until = now.plus(window);
+        LocalDate from = LocalDateTime.ofInstant(now, ZONE).toLocalDate();
+        LocalDate to = LocalDateTime.ofInstant(until.plus(longestLead()), ZONE).toLocalDate();
+
+        int loaded = 0;
+        for (AppointmentListView appointment : appointmentRepository.findViewsByStatusAndDateBetween(
+                Appointment.AppointmentStatus.SCHEDULED, from, to)) {
+            loaded += schedule(appointment.getId(), appointment.getPatientId(), appointment.getDoctorId(),
+                    appointment.getAppointmentDate(), appointment.getStartTime(), now, until);
+        }
+        loadedUntil = until;
+
+        // A claim is only needed until its reminder can no longer come due on any node
+        jdbcTemplate.update(DELETE_CLAIMS_SQL, LocalDateTime.ofInstant(now.minus(longestLead()).minus(window), ZONE));
+        log.debug("Loaded {} reminders due before {}; {} pending", loaded, until, wheel.size());
+    }
+
+    // Keep the wheel in step with bookings and cancellations once they commit
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentEvent(AppointmentEvent event) {
+        if (event.getType() == AppointmentEvent.Type.BOOKED) {
+            schedule(event.getAppointmentId(), event.getPatientId(), event.getDoctorId(),
+                    event.getAppointmentDate(), event.getStartTime(), Instant.now(), loadedUntil);
+        } else {
+            wheel.cancel(event.getAppointmentId());
+        }
+    }
+
+    /**
+     * Advance the wheel and send what fell due.
+     * Due reminders are checked against the database in one query first, so one whose appointment
+     * stopped being scheduled without this node seeing the event (another node, a reload racing a
+     * cancellation) is dropped. The rest are claimed in one batch, and only the reminders this node
+     * inserted a claim for are sent; a failed send is logged and not retried.
+     */
+    @Scheduled(fixedDelayString = "${reminder.tick-seconds:30}", timeUnit = TimeUnit.SECONDS)
+    public void dispatchDue() {
+        List<AppointmentReminder> fired = wheel.advance(Instant.now());
+        if (fired.isEmpty()) {
+            return;
+        }
+        Set<Long> stillScheduled = new HashSet<>(appointmentRepository.findIdsByIdInAndStatus(
+                fired.stream().map(AppointmentReminder::appointmentId).distinct().toList(),
+                fired.stream().map(AppointmentReminder::appointmentDate).distinct().toList(),
+                Appointment.AppointmentStatus.SCHEDULED));
+        List<AppointmentReminder> due = claim(fired.stream()
+                .filter(reminder -> stillScheduled.contains(reminder.appointmentId()))
+                .toList());
+
+        for (int start = 0; start < due.size(); start += batchSize) {
+            List<AppointmentReminder> batch = due.subList(start, Math.min(start + batchSize, due.size()));
+            try {
+                notifier.send(batch);
+            } catch (RuntimeException e) {
+                log.error("Failed to send {} appointment reminders", batch.size(), e);
+            }
+        }
+    }
+
+    // The reminders whose claim row this call inserted; another node already sent the rest
+    private List<AppointmentReminder> claim(List<AppointmentReminder> reminders) {
+        if (reminders.isEmpty()) {
+            return reminders;
+        }
+        LocalDateTime now = LocalDateTime.now(ZONE);
+        int[] inserted = jdbcTemplate.batchUpdate(CLAIM_SQL, reminders.stream()
+                .map(reminder -> new Object[]{reminder.appointmentId(), reminder.kind().name(), now})
+                .toList());
+
+        List<AppointmentReminder> claimed = new ArrayList<>();
+        for (int i = 0; i < reminders.size(); i++) {
+            if (inserted[i] > 0) {
+                claimed.add(reminders.get(i));
+            }
+        }
+        return claimed;
+    }
+
+    // Schedule the appointment's reminders that fall due in [from, until); returns how many
+    private int schedule(Long appointmentId, Long patientId, Long doctorId, LocalDate date, LocalTime startTime,
+                         Instant from, Instant until) {
+        Instant start = LocalDateTime.of(date, startTime).atZone(ZONE).toInstant();
+        int scheduled = 0;
+        for (AppointmentReminder.Kind kind : AppointmentReminder.Kind.values()) {
+            Instant dueAt = start.minus(lead(kind));
+            if (!dueAt.isBefore(from) && dueAt.isBefore(until)) {
+                wheel.schedule(new AppointmentReminder(appointmentId, patientId, doctorId, date, startTime,
+                        kind, dueAt));
+                scheduled++;
+            }
+        }
+        return scheduled;
+    }
+
+    private static Duration lead(AppointmentReminder.Kind kind) {
+        return switch (kind) {
+            case DAY_BEFORE -> Duration.ofHours(24);
+            case TWO_HOURS_BEFORE -> Duration.ofHours(2);
+        };
+    }
+
+    private static Duration longestLead() {
+        return lead(AppointmentReminder.Kind.DAY_BEFORE);
+    }
+}
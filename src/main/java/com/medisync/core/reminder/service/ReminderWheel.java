@@ -0,0 +1,142 @@
+package com.medisync.core.reminder.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hashed timing wheel of pending reminders.
+ * Time is cut into ticks; a reminder goes into the bucket of the tick it falls due in
+ * (modulo the wheel size) with the number of full turns still to wait. Scheduling and
+ * cancelling are O(1), and advancing one tick only looks at one bucket, however many
+ * reminders are pending. A reminder is identified by (appointment, kind); scheduling it
+ * again moves it, so reloading a window that overlaps the wheel is harmless.
+ */
+public class ReminderWheel {
+
+    private final long tickMillis;
+    private final List<Set<Slot>> buckets;
+    private final Map<Long, List<Slot>> byAppointment = new HashMap<>();
+
+    // Start of the tick that will be processed next
+    private long nextTick;
+    private int size;
+
+    public ReminderWheel(Duration tick, int wheelSize, Instant start) {
+        this.tickMillis = tick.toMillis();
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new HashSet<>());
+        }
+        this.nextTick = Math.floorDiv(start.toEpochMilli(), tickMillis);
+    }
+
+    /**
+     * Add or move a reminder. Reminders already due fire on the next tick.
+     */
+    public synchronized void schedule(AppointmentReminder reminder) {
+        remove(reminder.appointmentId(), reminder.kind());
+
+        long dueTick = Math.max(Math.floorDiv(reminder.dueAt().toEpochMilli(), tickMillis), nextTick);
+        long ticksAway = dueTick - nextTick;
+        int bucket = (int) Math.floorMod(dueTick, (long) buckets.size());
+        Slot slot = new Slot(reminder, bucket, ticksAway / buckets.size());
+
+        buckets.get(bucket).add(slot);
+        byAppointment.computeIfAbsent(reminder.appointmentId(), id -> new ArrayList<>()).add(slot);
+        size++;
+    }
+
+    // Drop every pending reminder of an appointment
+    public synchronized void cancel(Long appointmentId) {
+        List<Slot> slots = byAppointment.remove(appointmentId);
+        if (slots == null) {
+            return;
+        }
+        for (Slot slot : slots) {
+            buckets.get(slot.bucket).remove(slot);
+            size--;
+        }
+    }
+
+    /**
+     * Process every tick that has started by now and return the reminders that fell due,
+     * in tick order.
+     */
+    public synchronized List<AppointmentReminder> advance(Instant now) {
+        List<AppointmentReminder> due = new ArrayList<>();
+        long currentTick = Math.floorDiv(now.toEpochMilli(), tickMillis);
+
+        while (nextTick <= currentTick && size > 0) {
+            Set<Slot> bucket = buckets.get((int) Math.floorMod(nextTick, (long) buckets.size()));
+            List<Slot> fired = new ArrayList<>();
+            for (Slot slot : bucket) {
+                if (slot.rounds == 0) {
+                    fired.add(slot);
+                } else {
+                    slot.rounds--;
+                }
+            }
+            for (Slot slot : fired) {
+                bucket.remove(slot);
+                forget(slot);
+                due.add(slot.reminder);
+            }
+            nextTick++;
+        }
+        // Nothing pending: skip idle ticks instead of walking them
+        nextTick = Math.max(nextTick, currentTick + 1);
+        return due;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void remove(Long appointmentId, AppointmentReminder.Kind kind) {
+        List<Slot> slots = byAppointment.get(appointmentId);
+        if (slots == null) {
+            return;
+        }
+        slots.removeIf(slot -> {
+            boolean match = slot.reminder.kind() == kind;
+            if (match) {
+                buckets.get(slot.bucket).remove(slot);
+                size--;
+            }
+            return match;
+        });
+        if (slots.isEmpty()) {
+            byAppointment.remove(appointmentId);
+        }
+    }
+
+    private void forget(Slot slot) {
+        size--;
+        List<Slot> slots = byAppointment.get(slot.reminder.appointmentId());
+        if (slots != null) {
+            slots.remove(slot);
+            if (slots.isEmpty()) {
+                byAppointment.remove(slot.reminder.appointmentId());
+            }
+        }
+    }
+
+    // Identity-based so a reminder's turn counter can change while it sits in a bucket
+    private static final class Slot {
+        private final AppointmentReminder reminder;
+        private final int bucket;
+        private long rounds;
+
+        private Slot(AppointmentReminder reminder, int bucket, long rounds) {
+            this.reminder = reminder;
+            this.bucket = bucket;
+            this.rounds = rounds;
+        }
+    }
+}
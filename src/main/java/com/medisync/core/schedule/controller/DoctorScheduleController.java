@@ -1,9 +1,10 @@
 package com.medisync.core.schedule.controller;
 
+import com.medisync.core.schedule.dto.AvailabilityGridDTO;
 import com.medisync.core.schedule.dto.AvailableSlotDTO;
 import com.medisync.core.schedule.dto.CreateScheduleRequest;
 import com.medisync.core.schedule.dto.DoctorScheduleDTO;
-import com.medisync.core.schedule.entity.DoctorSchedule;
+import com.medisync.core.schedule.dto.EarliestSlotDTO;
 import com.medisync.core.schedule.service.SchedulingService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -15,8 +16,8 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * REST Controller for doctor schedule management.
@@ -25,6 +26,8 @@ import java.util.stream.Collectors;
  * - GET /api/doctors/schedule - View my schedules (DOCTOR only)
  * - DELETE /api/doctors/schedule/{id} - Delete a schedule (DOCTOR only)
  * - GET /api/doctors/{doctorId}/available-slots - View available slots (PUBLIC)
+ * - GET /api/doctors/{doctorId}/available-slots/range - View availability over a date range (PUBLIC)
+ * - GET /api/doctors/earliest-slots - Earliest open slots for a specialization (PUBLIC)
  */
 @RestController
 @RequiredArgsConstructor
@@ -75,24 +78,36 @@ public class DoctorScheduleController {
         return ResponseEntity.ok(slots);
     }
 
+    // Get a doctor's availability for every day in a date range
+    @GetMapping("/api/doctors/{doctorId}/available-slots/range")
+    public ResponseEntity<AvailabilityGridDTO> getAvailabilityGrid(
+            @PathVariable Long doctorId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        AvailabilityGridDTO grid = schedulingService.getAvailabilityGrid(doctorId, from, to);
+        return ResponseEntity.ok(grid);
+    }
+
+    // Get the earliest open slots across all doctors of a specialization (default window: next 7 days)
+    @GetMapping("/api/doctors/earliest-slots")
+    public ResponseEntity<List<EarliestSlotDTO>> getEarliestSlots(
+            @RequestParam String specialization,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        LocalDateTime windowStart = from != null ? from : LocalDateTime.now();
+        LocalDateTime windowEnd = to != null ? to : windowStart.plusDays(7);
+
+        List<EarliestSlotDTO> slots = schedulingService.findEarliestSlots(specialization, windowStart, windowEnd, limit);
+        return ResponseEntity.ok(slots);
+    }
+
     // Get a doctor's schedule by ID
     @GetMapping("/api/doctors/{doctorId}/schedule")
     public ResponseEntity<List<DoctorScheduleDTO>> getDoctorSchedule(@PathVariable Long doctorId) {
-        List<DoctorSchedule> schedules = schedulingService.getDoctorSchedulesByDoctorId(doctorId);
-
-        List<DoctorScheduleDTO> scheduleDTOs = schedules.stream()
-                .map(schedule -> DoctorScheduleDTO.builder()
-                        .id(schedule.getId())
-                        .dayOfWeek(schedule.getDayOfWeek())
-                        .startTime(schedule.getStartTime())
-                        .endTime(schedule.getEndTime())
-                        .slotDuration(schedule.getSlotDuration())
-                        .isAvailable(schedule.getIsAvailable())
-                        .createdAt(schedule.getCreatedAt())
-                        .updatedAt(schedule.getUpdatedAt())
-                        .build())
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(scheduleDTOs);
+        List<DoctorScheduleDTO> schedules = schedulingService.getDoctorSchedulesByDoctorId(doctorId);
+        return ResponseEntity.ok(schedules);
     }
 }
@@ -0,0 +1,83 @@
+package com.medisync.core.schedule.controller;
+
+import com.medisync.core.schedule.dto.CreateTimeOffRequest;
+import com.medisync.core.schedule.dto.TimeOffDTO;
+import com.medisync.core.schedule.service.TimeOffService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST Controller for doctor time off and clinic closures.
+ * Endpoints:
+ * - POST /api/doctors/time-off - Add time off (DOCTOR only)
+ * - GET /api/doctors/time-off - View my time off (DOCTOR only)
+ * - DELETE /api/doctors/time-off/{id} - Remove time off (DOCTOR only)
+ * - POST /api/admin/closures - Add a clinic closure (ADMIN only)
+ * - GET /api/admin/closures - View clinic closures (ADMIN only)
+ * - DELETE /api/admin/closures/{id} - Remove a clinic closure (ADMIN only)
+ */
+@RestController
+@RequiredArgsConstructor
+public class TimeOffController {
+
+    private final TimeOffService timeOffService;
+
+    // Add time off for the current doctor
+    @PostMapping("/api/doctors/time-off")
+    @PreAuthorize("hasRole('DOCTOR')")
+    public ResponseEntity<TimeOffDTO> createTimeOff(
+            Authentication authentication,
+            @Valid @RequestBody CreateTimeOffRequest request
+    ) {
+        TimeOffDTO timeOff = timeOffService.createTimeOff(authentication.getName(), request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(timeOff);
+    }
+
+    // Get all time off for the current doctor
+    @GetMapping("/api/doctors/time-off")
+    @PreAuthorize("hasRole('DOCTOR')")
+    public ResponseEntity<List<TimeOffDTO>> getMyTimeOff(Authentication authentication) {
+        return ResponseEntity.ok(timeOffService.getDoctorTimeOff(authentication.getName()));
+    }
+
+    // Remove time off for the current doctor
+    @DeleteMapping("/api/doctors/time-off/{id}")
+    @PreAuthorize("hasRole('DOCTOR')")
+    public ResponseEntity<Void> deleteTimeOff(
+            @PathVariable Long id,
+            Authentication authentication
+    ) {
+        timeOffService.deleteTimeOff(id, authentication.getName());
+        return ResponseEntity.noContent().build();
+    }
+
+    // Add a clinic-wide closure
+    @PostMapping("/api/admin/closures")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<TimeOffDTO> createClosure(@Valid @RequestBody CreateTimeOffRequest request) {
+        TimeOffDTO closure = timeOffService.createClosure(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(closure);
+    }
+
+    // Get all clinic-wide closures
+    @GetMapping("/api/admin/closures")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<TimeOffDTO>> getClosures() {
+        return ResponseEntity.ok(timeOffService.getClosures());
+    }
+
+    // Remove a clinic-wide closure
+    @DeleteMapping("/api/admin/closures/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> deleteClosure(@PathVariable Long id) {
+        timeOffService.deleteClosure(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,41 @@
+package com.medisync.core.schedule.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * DTO for a doctor's availability over a date range.
+ * Each working block is sent as a start time, a slot duration and one character per slot
+ * ('1' = free, '0' = booked), so a month fits in a few hundred bytes.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityGridDTO {
+
+    private Long doctorId;
+    private LocalDate from;
+    private LocalDate to;
+    private List<DayAvailability> days;
+
+    /**
+     * Nested DTO for one working block on one date.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DayAvailability {
+        private LocalDate date;
+        private LocalTime startTime;
+        private Integer slotDuration;
+        private String slots;
+    }
+}
@@ -0,0 +1,30 @@
+package com.medisync.core.schedule.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * DTO for blocking a date range.
+ * Used for a doctor's leave and for clinic-wide closures.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateTimeOffRequest {
+
+    @NotNull(message = "Start date is required")
+    private LocalDate startDate;
+
+    @NotNull(message = "End date is required")
+    private LocalDate endDate; // Inclusive
+
+    @Size(max = 255, message = "Reason must not exceed 255 characters")
+    private String reason;
+}
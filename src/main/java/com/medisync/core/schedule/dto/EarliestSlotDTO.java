@@ -0,0 +1,27 @@
+package com.medisync.core.schedule.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * DTO for an open slot returned by the earliest-slot search.
+ * Carries enough doctor info to book without another lookup.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EarliestSlotDTO {
+
+    private Long doctorId;
+    private String doctorName;
+    private String specialization;
+    private LocalDate date;
+    private LocalTime startTime;
+    private LocalTime endTime;
+}
@@ -0,0 +1,27 @@
+package com.medisync.core.schedule.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for time off responses.
+ * doctorId is null for clinic-wide closures.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimeOffDTO {
+
+    private Long id;
+    private Long doctorId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private String reason;
+    private LocalDateTime createdAt;
+}
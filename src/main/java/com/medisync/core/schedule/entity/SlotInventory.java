@@ -0,0 +1,60 @@
+package com.medisync.core.schedule.entity;
+
+import com.medisync.core.doctor.entity.Doctor;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * SlotInventory entity representing one bookable slot of a doctor on a specific date.
+ * Rows are pre-generated from DoctorSchedule by SlotInventoryService for a rolling horizon
+ * and flipped between OPEN and BOOKED as appointments are booked and cancelled.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(
+        name = "doctor_slot_inventory",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_slot_inventory_doctor_date_start",
+                columnNames = {"doctor_id", "slot_date", "start_time"}
+        )
+)
+public class SlotInventory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "doctor_id", nullable = false)
+    private Doctor doctor;
+
+    @Column(name = "slot_date", nullable = false)
+    private LocalDate slotDate;
+
+    @Column(name = "start_time", nullable = false)
+    private LocalTime startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private LocalTime endTime;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private SlotStatus status;
+
+    @Column(name = "appointment_id")
+    private Long appointmentId; // The appointment holding the slot, when BOOKED
+
+    public enum SlotStatus {
+        OPEN,
+        BOOKED
+    }
+}
@@ -0,0 +1,18 @@
+package com.medisync.core.schedule.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.DayOfWeek;
+
+/**
+ * Domain event published by SchedulingService when a doctor's working schedule
+ * is created or deleted.
+ */
+@Data
+@AllArgsConstructor
+public class ScheduleChangedEvent {
+
+    private Long doctorId;
+    private DayOfWeek dayOfWeek;
+}
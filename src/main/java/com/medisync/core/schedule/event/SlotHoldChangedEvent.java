@@ -0,0 +1,17 @@
+package com.medisync.core.schedule.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * Domain event published by SlotHoldStore when a hold is placed, released or expires.
+ */
+@Data
+@AllArgsConstructor
+public class SlotHoldChangedEvent {
+
+    private Long doctorId;
+    private LocalDate date;
+}
@@ -0,0 +1,19 @@
+package com.medisync.core.schedule.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * Domain event published by TimeOffService when time off is added or removed.
+ * doctorId is null for clinic-wide closures, which affect every doctor.
+ */
+@Data
+@AllArgsConstructor
+public class TimeOffChangedEvent {
+
+    private Long doctorId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+}
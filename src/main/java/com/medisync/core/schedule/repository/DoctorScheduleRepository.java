@@ -5,8 +5,8 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.time.DayOfWeek;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
 /**
  * Repository interface for DoctorSchedule entity.
@@ -21,11 +21,14 @@ public interface DoctorScheduleRepository extends JpaRepository<DoctorSchedule,
     // Find by ID
     List<DoctorSchedule> findByDoctor_Id(Long doctorId);
 
-    // Find by day of the week
-    Optional<DoctorSchedule> findByDoctor_IdAndDayOfWeek(Long doctorId, DayOfWeek dayOfWeek);
+    // Find the available schedules of several doctors at once
+    List<DoctorSchedule> findByDoctor_IdInAndIsAvailable(Collection<Long> doctorIds, Boolean isAvailable);
 
-    // Find by doctor ID, day of week, and availability
-    Optional<DoctorSchedule> findByDoctor_IdAndDayOfWeekAndIsAvailable(
+    // Find every block on a day of the week, earliest first (a day can have split shifts)
+    List<DoctorSchedule> findByDoctor_IdAndDayOfWeekOrderByStartTime(Long doctorId, DayOfWeek dayOfWeek);
+
+    // Find by doctor ID, day of week, and availability, earliest block first
+    List<DoctorSchedule> findByDoctor_IdAndDayOfWeekAndIsAvailableOrderByStartTime(
             Long doctorId,
             DayOfWeek dayOfWeek,
             Boolean isAvailable
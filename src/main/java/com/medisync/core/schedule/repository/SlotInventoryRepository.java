@@ -0,0 +1,46 @@
+package com.medisync.core.schedule.repository;
+
+import com.medisync.core.schedule.entity.SlotInventory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Repository interface for SlotInventory entity.
+ * Reads are range scans on the (doctor_id, slot_date, start_time) unique index.
+ * Bulk generation is done with JDBC batches in SlotInventoryService.
+ */
+@Repository
+public interface SlotInventoryRepository extends JpaRepository<SlotInventory, Long> {
+
+    // Find a doctor's slots on a date, in time order
+    List<SlotInventory> findByDoctor_IdAndSlotDateOrderByStartTime(Long doctorId, LocalDate slotDate);
+
+    /**
+     * Recompute the slots overlapping [startTime, endTime) from the active appointments that overlap
+     * each one: BOOKED by the earliest of them, or OPEN once none is left. Run after every booking and
+     * cancellation, so a slot shared by two appointments stays BOOKED until both are gone.
+     * An appointment whose end time is at or before its start runs past midnight.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE doctor_slot_inventory s SET appointment_id = h.appointment_id, " +
+            "status = CASE WHEN h.appointment_id IS NULL THEN 'OPEN' ELSE 'BOOKED' END " +
+            "FROM (SELECT t.id, (SELECT a.id FROM appointments a " +
+            "WHERE a.doctor_id = t.doctor_id AND a.appointment_date = :date " +
+            "AND a.status NOT IN ('CANCELLED', 'NO_SHOW') AND a.start_time < t.end_time " +
+            "AND (a.end_time > t.start_time OR a.end_time <= a.start_time) " +
+            "ORDER BY a.start_time, a.id LIMIT 1) AS appointment_id " +
+            "FROM doctor_slot_inventory t WHERE t.doctor_id = :doctorId AND t.slot_date = :date " +
+            "AND t.start_time < :endTime AND t.end_time > :startTime) h " +
+            "WHERE s.id = h.id", nativeQuery = true)
+    int refreshOverlapping(@Param("doctorId") Long doctorId,
+                           @Param("date") LocalDate date,
+                           @Param("startTime") LocalTime startTime,
+                           @Param("endTime") LocalTime endTime);
+}
@@ -0,0 +1,31 @@
+package com.medisync.core.schedule.repository;
+
+import com.medisync.core.schedule.entity.TimeOff;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository interface for TimeOff entity.
+ * Provides methods to query doctor leave and clinic closures.
+ */
+@Repository
+public interface TimeOffRepository extends JpaRepository<TimeOff, Long> {
+
+    // Find a doctor's time off by their email
+    List<TimeOff> findByDoctor_EmailOrderByStartDate(String email);
+
+    // Find clinic-wide closures
+    List<TimeOff> findByDoctorIsNullOrderByStartDate();
+
+    // The doctor's time off and clinic closures overlapping from..to (inclusive)
+    @Query("SELECT t FROM TimeOff t WHERE (t.doctor IS NULL OR t.doctor.id = :doctorId) " +
+            "AND t.startDate <= :to AND t.endDate >= :from")
+    List<TimeOff> findCovering(@Param("doctorId") Long doctorId,
+                               @Param("from") LocalDate from,
+                               @Param("to") LocalDate to);
+}
@@ -0,0 +1,79 @@
+package com.medisync.core.schedule.service;
+
+import java.time.LocalTime;
+
+/**
+ * Compact bitmap of the booked minutes in one doctor's day.
+ * Bit i is set when minute i of the day (0 - 1439) is taken by an active appointment.
+ * A whole day fits in 23 longs, so checking a slot is a handful of word operations
+ * instead of a scan over the day's appointments.
+ */
+public class DayBitmap {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final long[] words = new long[(MINUTES_PER_DAY + 63) / 64];
+
+    // Mark [startTime, endTime) as booked
+    public synchronized void set(LocalTime startTime, LocalTime endTime) {
+        apply(toMinute(startTime), toEndMinute(startTime, endTime), true);
+    }
+
+    // Mark [startTime, endTime) as free
+    public synchronized void clear(LocalTime startTime, LocalTime endTime) {
+        apply(toMinute(startTime), toEndMinute(startTime, endTime), false);
+    }
+
+    // True if any minute in [startTime, endTime) is booked
+    public synchronized boolean anySet(LocalTime startTime, LocalTime endTime) {
+        int from = toMinute(startTime);
+        int to = toEndMinute(startTime, endTime);
+        if (from >= to) {
+            return false;
+        }
+
+        int firstWord = from >>> 6;
+        int lastWord = (to - 1) >>> 6;
+        for (int i = firstWord; i <= lastWord; i++) {
+            if ((words[i] & mask(i, from, to)) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void apply(int from, int to, boolean value) {
+        if (from >= to) {
+            return;
+        }
+
+        int firstWord = from >>> 6;
+        int lastWord = (to - 1) >>> 6;
+        for (int i = firstWord; i <= lastWord; i++) {
+            if (value) {
+                words[i] |= mask(i, from, to);
+            } else {
+                words[i] &= ~mask(i, from, to);
+            }
+        }
+    }
+
+    // Bits of word i that fall inside [from, to)
+    private static long mask(int wordIndex, int from, int to) {
+        int wordStart = wordIndex << 6;
+        int lo = Math.max(from, wordStart) - wordStart;
+        int hi = Math.min(to, wordStart + 64) - wordStart;
+        long upper = hi == 64 ? -1L : (1L << hi) - 1;
+        return upper & (-1L << lo);
+    }
+
+    private static int toMinute(LocalTime time) {
+        return time.toSecondOfDay() / 60;
+    }
+
+    // An end time at or before the start (e.g. 00:00) means the range runs to midnight
+    private static int toEndMinute(LocalTime startTime, LocalTime endTime) {
+        int end = (endTime.toSecondOfDay() + 59) / 60;
+        return end <= toMinute(startTime) ? MINUTES_PER_DAY : end;
+    }
+}
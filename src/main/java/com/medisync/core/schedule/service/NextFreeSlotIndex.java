@@ -0,0 +1,393 @@
+package com.medisync.core.schedule.service;
+
+import com.medisync.core.appointment.entity.Appointment;
+import com.medisync.core.appointment.event.AppointmentEvent;
+import com.medisync.core.appointment.repository.AppointmentRepository;
+import com.medisync.core.doctor.entity.Doctor;
+import com.medisync.core.doctor.event.DoctorProfileUpdatedEvent;
+import com.medisync.core.doctor.repository.DoctorRepository;
+import com.medisync.core.schedule.dto.EarliestSlotDTO;
+import com.medisync.core.schedule.entity.DoctorSchedule;
+import com.medisync.core.schedule.event.ScheduleChangedEvent;
+import com.medisync.core.schedule.event.TimeOffChangedEvent;
+import com.medisync.core.schedule.repository.DoctorScheduleRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Precomputed index of open slots per specialization.
+ * Every free slot of every matching doctor over the next few weeks sits in one set
+ * ordered by start time, so "first N free cardiology slots" is a walk from the head
+ * of the set instead of a slot lookup per doctor.
+ * A specialization is built lazily with three batched queries and then kept current
+ * from appointment, schedule, time off and profile events.
+ * Events only come from this node, so each date is also reloaded for the whole specialization
+ * ttl-seconds after it was loaded, and the slots a search returns are first checked against
+ * the appointments table in one query; a slot another node has booked is dropped and its
+ * doctor's day re-derived.
+ */
+@Component
+@RequiredArgsConstructor
+public class NextFreeSlotIndex {
+
+    private final DoctorRepository doctorRepository;
+    private final DoctorScheduleRepository scheduleRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final SlotAvailabilityIndex availabilityIndex;
+    private final SlotHoldStore slotHolds;
+    private final TimeOffIndex timeOffIndex;
+
+    private final Map<String, SpecialtySlots> specialties = new ConcurrentHashMap<>();
+    private final Map<Long, SpecialtySlots> doctorSpecialties = new ConcurrentHashMap<>();
+
+    // Searches that find a returned slot taken re-derive it and search again, at most this often
+    private static final int CONFIRM_ATTEMPTS = 3;
+
+    private static final List<Appointment.AppointmentStatus> INACTIVE =
+            List.of(Appointment.AppointmentStatus.CANCELLED, Appointment.AppointmentStatus.NO_SHOW);
+
+    @Value("${scheduling.earliest-slot.horizon-days:28}")
+    private int horizonDays;
+
+    @Value("${scheduling.earliest-slot.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    /**
+     * Find the earliest open slots for a specialization.
+     * Only slots starting in [from, to) are returned; the window is cut at the index horizon.
+     * Held slots stay in the index (holds are short-lived) and are skipped here.
+     */
+    public List<EarliestSlotDTO> findEarliest(String specialization, LocalDateTime from, LocalDateTime to, int limit) {
+        SpecialtySlots index = getOrBuild(toKey(specialization));
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = from.isBefore(now) ? now : from;
+
+        List<OpenSlot> result = List.of();
+        for (int attempt = 0; attempt < CONFIRM_ATTEMPTS; attempt++) {
+            List<OpenSlot> candidates = walk(index, start, to, limit);
+            result = confirm(index, candidates);
+            if (result.size() == candidates.size()) {
+                break;
+            }
+        }
+
+        return result.stream()
+                .map(slot -> {
+                    DoctorEntry doctor = index.doctors().get(slot.doctorId());
+                    return EarliestSlotDTO.builder()
+                            .doctorId(slot.doctorId())
+                            .doctorName(doctor.name())
+                            .specialization(doctor.specialization())
+                            .date(slot.start().toLocalDate())
+                            .startTime(slot.start().toLocalTime())
+                            .endTime(slot.end())
+                            .build();
+                })
+                .collect(Collectors.toList());
+    }
+
+    // Re-derive the doctor's open slots for the day once a booking or cancellation is committed
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onAppointmentEvent(AppointmentEvent event) {
+        SpecialtySlots index = doctorSpecialties.get(event.getDoctorId());
+        if (index == null || !index.covers(event.getAppointmentDate())) {
+            return;
+        }
+
+        replaceDay(index, event.getDoctorId(), event.getAppointmentDate(),
+                availabilityIndex.getBookedMinutes(event.getDoctorId(), event.getAppointmentDate()));
+    }
+
+    // Working hours changed - rebuild the doctor's specialization on next search
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onScheduleChanged(ScheduleChangedEvent event) {
+        SpecialtySlots index = doctorSpecialties.get(event.getDoctorId());
+        if (index != null) {
+            drop(index);
+        }
+    }
+
+    // Time off changed - rebuild that doctor's specialization, or everything for a clinic closure
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onTimeOffChanged(TimeOffChangedEvent event) {
+        if (event.getDoctorId() == null) {
+            specialties.clear();
+            doctorSpecialties.clear();
+            return;
+        }
+
+        SpecialtySlots index = doctorSpecialties.get(event.getDoctorId());
+        if (index != null) {
+            drop(index);
+        }
+    }
+
+    // The doctor may have moved to another specialization, so every index is suspect
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onDoctorProfileUpdated(DoctorProfileUpdatedEvent event) {
+        specialties.clear();
+        doctorSpecialties.clear();
+    }
+
+    private SpecialtySlots getOrBuild(String key) {
+        SpecialtySlots index = specialties.get(key);
+        if (index != null && index.builtOn().equals(LocalDate.now())) {
+            return index;
+        }
+
+        synchronized (this) {
+            index = specialties.get(key);
+            if (index == null || !index.builtOn().equals(LocalDate.now())) {
+                if (index != null) {
+                    drop(index);
+                }
+                index = build(key);
+                specialties.put(key, index);
+                for (Long doctorId : index.doctors().keySet()) {
+                    doctorSpecialties.put(doctorId, index);
+                }
+            }
+            return index;
+        }
+    }
+
+    // Load doctors, schedules and appointments for the whole specialization in three queries
+    private SpecialtySlots build(String key) {
+        LocalDate today = LocalDate.now();
+        SpecialtySlots index = new SpecialtySlots(key, today, today.plusDays(horizonDays - 1),
+                new HashMap<>(), new ConcurrentSkipListSet<>(), new ConcurrentHashMap<>());
+
+        List<Doctor> doctors = doctorRepository.findBySpecializationIgnoreCase(key);
+        if (doctors.isEmpty()) {
+            return index;
+        }
+
+        List<Long> doctorIds = doctors.stream().map(Doctor::getId).collect(Collectors.toList());
+
+        Map<Long, Map<DayOfWeek, List<Block>>> blocksByDoctor = new HashMap<>();
+        scheduleRepository.findByDoctor_IdInAndIsAvailable(doctorIds, true).stream()
+                .sorted(Comparator.comparing(DoctorSchedule::getStartTime))
+                .forEach(schedule -> blocksByDoctor
+                        .computeIfAbsent(schedule.getDoctor().getId(), id -> new HashMap<>())
+                        .computeIfAbsent(schedule.getDayOfWeek(), day -> new ArrayList<>())
+                        .add(new Block(schedule.getStartTime(), schedule.getEndTime(), schedule.getSlotDuration())));
+
+        Map<DoctorDay, DayBitmap> booked = loadBookedMinutes(doctorIds, index.firstDate(), index.lastDate());
+
+        DayBitmap noBookings = new DayBitmap();
+        for (Doctor doctor : doctors) {
+            index.doctors().put(doctor.getId(), new DoctorEntry(
+                    "Dr. " + doctor.getFirstName() + " " + doctor.getLastName(),
+                    doctor.getSpecialization(),
+                    blocksByDoctor.getOrDefault(doctor.getId(), Map.of())
+            ));
+
+            for (LocalDate date = index.firstDate(); !date.isAfter(index.lastDate()); date = date.plusDays(1)) {
+                addOpenSlots(index, doctor.getId(), date,
+                        booked.getOrDefault(new DoctorDay(doctor.getId(), date), noBookings));
+            }
+        }
+
+        long loadedAt = System.nanoTime();
+        for (LocalDate date = index.firstDate(); !date.isAfter(index.lastDate()); date = date.plusDays(1)) {
+            index.loadedAt().put(date, loadedAt);
+        }
+        return index;
+    }
+
+    // Open slots in [start, to) in start order, reloading each date on the way once it has expired
+    private List<OpenSlot> walk(SpecialtySlots index, LocalDateTime start, LocalDateTime to, int limit) {
+        List<OpenSlot> found = new ArrayList<>();
+        for (LocalDate date = start.toLocalDate();
+             found.size() < limit && index.covers(date) && date.atStartOfDay().isBefore(to);
+             date = date.plusDays(1)) {
+            if (isExpired(index, date)) {
+                reloadDate(index, date);
+            }
+
+            LocalDateTime dayStart = date.atStartOfDay().isBefore(start) ? start : date.atStartOfDay();
+            for (OpenSlot slot : index.slots().subSet(
+                    OpenSlot.lowerBound(dayStart), OpenSlot.lowerBound(date.plusDays(1).atStartOfDay()))) {
+                if (found.size() >= limit || !slot.start().isBefore(to)) {
+                    break;
+                }
+                if (!slotHolds.isHeld(slot.doctorId(), date, slot.start().toLocalTime(), slot.end())) {
+                    found.add(slot);
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Check candidates against the appointments table in one query.
+     * Returns those still free; the doctor-days of the others are re-derived from what was read,
+     * so the next walk no longer finds them.
+     */
+    private List<OpenSlot> confirm(SpecialtySlots index, List<OpenSlot> candidates) {
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+
+        Set<Long> doctorIds = candidates.stream().map(OpenSlot::doctorId).collect(Collectors.toSet());
+        Map<DoctorDay, DayBitmap> booked = loadBookedMinutes(doctorIds,
+                candidates.get(0).start().toLocalDate(), candidates.get(candidates.size() - 1).start().toLocalDate());
+
+        List<OpenSlot> confirmed = new ArrayList<>();
+        Set<DoctorDay> outdated = new HashSet<>();
+        for (OpenSlot slot : candidates) {
+            DoctorDay day = new DoctorDay(slot.doctorId(), slot.start().toLocalDate());
+            DayBitmap minutes = booked.get(day);
+            if (minutes != null && minutes.anySet(slot.start().toLocalTime(), slot.end())) {
+                outdated.add(day);
+            } else {
+                confirmed.add(slot);
+            }
+        }
+
+        if (!outdated.isEmpty()) {
+            synchronized (this) {
+                for (DoctorDay day : outdated) {
+                    availabilityIndex.invalidate(day.doctorId(), day.date());
+                    replaceDay(index, day.doctorId(), day.date(), booked.get(day));
+                }
+            }
+        }
+        return confirmed;
+    }
+
+    // Re-derive one date for every doctor of the specialization, with one query
+    private synchronized void reloadDate(SpecialtySlots index, LocalDate date) {
+        if (!isExpired(index, date)) {
+            return; // Another search reloaded it meanwhile
+        }
+
+        Map<DoctorDay, DayBitmap> booked = loadBookedMinutes(index.doctors().keySet(), date, date);
+        DayBitmap noBookings = new DayBitmap();
+        for (Long doctorId : index.doctors().keySet()) {
+            replaceDay(index, doctorId, date, booked.getOrDefault(new DoctorDay(doctorId, date), noBookings));
+        }
+        index.loadedAt().put(date, System.nanoTime());
+    }
+
+    private boolean isExpired(SpecialtySlots index, LocalDate date) {
+        Long loadedAt = index.loadedAt().get(date);
+        return loadedAt == null || System.nanoTime() - loadedAt >= TimeUnit.SECONDS.toNanos(ttlSeconds);
+    }
+
+    // Booked minutes of active appointments per doctor-day, for the doctors and dates given
+    private Map<DoctorDay, DayBitmap> loadBookedMinutes(Collection<Long> doctorIds, LocalDate from, LocalDate to) {
+        Map<DoctorDay, DayBitmap> booked = new HashMap<>();
+        appointmentRepository.findByDoctor_IdInAndAppointmentDateBetweenAndStatusNotIn(doctorIds, from, to, INACTIVE)
+                .forEach(appointment -> booked
+                        .computeIfAbsent(new DoctorDay(appointment.getDoctor().getId(),
+                                appointment.getAppointmentDate()), day -> new DayBitmap())
+                        .set(appointment.getStartTime(), appointment.getEndTime()));
+        return booked;
+    }
+
+    // Replace a doctor's open slots for one day with those left free by bookedMinutes
+    private void replaceDay(SpecialtySlots index, Long doctorId, LocalDate date, DayBitmap bookedMinutes) {
+        index.slots().subSet(
+                OpenSlot.lowerBound(date.atStartOfDay()),
+                OpenSlot.lowerBound(date.plusDays(1).atStartOfDay())
+        ).removeIf(slot -> slot.doctorId().equals(doctorId));
+
+        addOpenSlots(index, doctorId, date, bookedMinutes);
+    }
+
+    private void addOpenSlots(SpecialtySlots index, Long doctorId, LocalDate date, DayBitmap bookedMinutes) {
+        if (timeOffIndex.isBlocked(doctorId, date)) {
+            return;
+        }
+
+        DoctorEntry doctor = index.doctors().get(doctorId);
+        for (Block block : doctor.blocks().getOrDefault(date.getDayOfWeek(), List.of())) {
+            LocalTime currentTime = block.startTime();
+
+            while (currentTime.isBefore(block.endTime())) {
+                LocalTime slotEnd = currentTime.plusMinutes(block.slotDuration());
+
+                if (slotEnd.isAfter(block.endTime())) {
+                    break;
+                }
+
+                if (!bookedMinutes.anySet(currentTime, slotEnd)) {
+                    index.slots().add(new OpenSlot(date.atTime(currentTime), doctorId, slotEnd));
+                }
+
+                currentTime = slotEnd;
+            }
+        }
+    }
+
+    private void drop(SpecialtySlots index) {
+        if (specialties.get(index.key()) == index) {
+            specialties.remove(index.key());
+        }
+        doctorSpecialties.values().removeIf(existing -> existing == index);
+    }
+
+    private static String toKey(String specialization) {
+        return specialization.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // loadedAt: System.nanoTime() when each date was last loaded from the database
+    private record SpecialtySlots(String key, LocalDate firstDate, LocalDate lastDate,
+                                  Map<Long, DoctorEntry> doctors, NavigableSet<OpenSlot> slots,
+                                  Map<LocalDate, Long> loadedAt) {
+
+        LocalDate builtOn() {
+            return firstDate;
+        }
+
+        boolean covers(LocalDate date) {
+            return !date.isBefore(firstDate) && !date.isAfter(lastDate);
+        }
+    }
+
+    private record DoctorDay(Long doctorId, LocalDate date) {
+    }
+
+    private record DoctorEntry(String name, String specialization, Map<DayOfWeek, List<Block>> blocks) {
+    }
+
+    private record Block(LocalTime startTime, LocalTime endTime, int slotDuration) {
+    }
+
+    // Ordered by start time, then doctor, so equal start times from different doctors all fit
+    private record OpenSlot(LocalDateTime start, Long doctorId, LocalTime end) implements Comparable<OpenSlot> {
+
+        static OpenSlot lowerBound(LocalDateTime start) {
+            return new OpenSlot(start, Long.MIN_VALUE, null);
+        }
+
+        @Override
+        public int compareTo(OpenSlot other) {
+            int byStart = start.compareTo(other.start);
+            return byStart != 0 ? byStart : Long.compare(doctorId, other.doctorId);
+        }
+    }
+}
@@ -2,25 +2,39 @@ package com.medisync.core.schedule.service;
 
 import com.medisync.core.appointment.entity.Appointment;
 import com.medisync.core.appointment.repository.AppointmentRepository;
+import com.medisync.core.config.CacheConfig;
 import com.medisync.core.exception.DoctorNotAvailableException;
 import com.medisync.core.exception.ScheduleConflictException;
+import com.medisync.core.schedule.dto.AvailabilityGridDTO;
 import com.medisync.core.schedule.dto.AvailableSlotDTO;
 import com.medisync.core.schedule.dto.CreateScheduleRequest;
 import com.medisync.core.schedule.dto.DoctorScheduleDTO;
+import com.medisync.core.schedule.dto.EarliestSlotDTO;
 import com.medisync.core.schedule.entity.DoctorSchedule;
+import com.medisync.core.schedule.entity.SlotInventory;
+import com.medisync.core.schedule.event.ScheduleChangedEvent;
 import com.medisync.core.schedule.repository.DoctorScheduleRepository;
 import com.medisync.core.doctor.entity.Doctor;
 import com.medisync.core.doctor.repository.DoctorRepository;
 import com.medisync.core.exception.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -38,6 +52,18 @@ public class SchedulingService {
     private final DoctorScheduleRepository scheduleRepository;
     private final DoctorRepository doctorRepository;
     private final AppointmentRepository appointmentRepository;
+    private final SlotAvailabilityIndex availabilityIndex;
+    private final NextFreeSlotIndex nextFreeSlotIndex;
+    private final SlotHoldStore slotHolds;
+    private final TimeOffIndex timeOffIndex;
+    private final SlotInventoryService slotInventory;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Longest range a single availability grid request may cover
+    private static final int MAX_GRID_DAYS = 62;
+
+    // Most slots a single earliest-slot search may return
+    private static final int MAX_EARLIEST_SLOTS = 50;
 
     // Create a new schedule for a doctor
     @Transactional
@@ -52,6 +78,18 @@ public class SchedulingService {
             throw new IllegalArgumentException("End time must be after start time");
         }
 
+        // Blocks on the same day must not overlap; touching (e.g. 09:00-12:00 and 12:00-15:00) is fine
+        for (DoctorSchedule existing : scheduleRepository
+                .findByDoctor_IdAndDayOfWeekOrderByStartTime(doctor.getId(), request.getDayOfWeek())) {
+            if (existing.getStartTime().isBefore(request.getEndTime()) &&
+                    request.getStartTime().isBefore(existing.getEndTime())) {
+                throw new ScheduleConflictException(
+                        "Schedule overlaps existing block " + existing.getStartTime() +
+                                " - " + existing.getEndTime() + " on " + request.getDayOfWeek()
+                );
+            }
+        }
+
         DoctorSchedule schedule = DoctorSchedule.builder()
                 .doctor(doctor)
                 .dayOfWeek(request.getDayOfWeek())
@@ -62,6 +100,7 @@ public class SchedulingService {
                 .build();
 
         DoctorSchedule savedSchedule = scheduleRepository.save(schedule);
+        eventPublisher.publishEvent(new ScheduleChangedEvent(doctor.getId(), savedSchedule.getDayOfWeek()));
         return mapToDTO(savedSchedule);
     }
 
@@ -74,9 +113,13 @@ public class SchedulingService {
                 .collect(Collectors.toList());
     }
 
+    // Get a doctor's schedules by ID (public access, cached until the schedule changes)
+    @Cacheable(cacheNames = CacheConfig.DOCTOR_SCHEDULES, key = "#doctorId")
     @Transactional(readOnly = true)
-    public List<DoctorSchedule> getDoctorSchedulesByDoctorId(Long doctorId) {
-        return scheduleRepository.findByDoctor_Id(doctorId);
+    public List<DoctorScheduleDTO> getDoctorSchedulesByDoctorId(Long doctorId) {
+        return scheduleRepository.findByDoctor_Id(doctorId).stream()
+                .map(this::mapToDTO)
+                .collect(Collectors.toList());
     }
 
     @Transactional
@@ -91,114 +134,287 @@ public class SchedulingService {
         }
 
         scheduleRepository.delete(schedule);
+        eventPublisher.publishEvent(new ScheduleChangedEvent(schedule.getDoctor().getId(), schedule.getDayOfWeek()));
     }
 
-    // Check if a doctor is available at a specific time
+    // Check if a doctor is available at a specific time; time off is read from the database, not the index
     @Transactional(readOnly = true)
     public boolean isDoctorAvailable(Long doctorId, LocalDate date, LocalTime startTime) {
 
+        if (timeOffIndex.isBlockedInDatabase(doctorId, date)) {
+            throw new DoctorNotAvailableException("Doctor is not available on " + date);
+        }
+
         DayOfWeek dayOfWeek = date.getDayOfWeek();
 
-        DoctorSchedule schedule = scheduleRepository
-                .findByDoctor_IdAndDayOfWeekAndIsAvailable(doctorId, dayOfWeek, true)
-                .orElseThrow(() -> new DoctorNotAvailableException(
-                        "Doctor does not work on " + dayOfWeek
-                ));
+        List<DoctorSchedule> blocks = getWorkingBlocks(doctorId, dayOfWeek);
 
-        if (startTime.isBefore(schedule.getStartTime()) ||
-                startTime.isAfter(schedule.getEndTime().minusMinutes(schedule.getSlotDuration()))) {
-            throw new DoctorNotAvailableException(
-                    "Doctor's working hours are " + schedule.getStartTime() +
-                            " to " + schedule.getEndTime()
-            );
+        if (!isWithinBlocks(blocks, startTime)) {
+            throw new DoctorNotAvailableException(workingHoursMessage(blocks));
         }
 
         return true;
     }
 
-    // Check if a doctor has any conflicting appointments on a specific date
+    /**
+     * Check the same start time on many dates at once (e.g. a recurring series).
+     * Loads the doctor's schedules once and returns why each unavailable date can't be booked;
+     * dates missing from the result are within working hours. Time off is read from the database
+     * with one query, so a change made on another node can't slip past the index.
+     */
     @Transactional(readOnly = true)
-    public boolean hasConflict(Long doctorId, LocalDate date, LocalTime startTime, LocalTime endTime) {
-        List<Appointment> existingAppointments = appointmentRepository
-                .findByDoctor_IdAndAppointmentDate(doctorId, date);
-
-        for (Appointment existing : existingAppointments) {
-            if (existing.getStatus() == Appointment.AppointmentStatus.CANCELLED ||
-                    existing.getStatus() == Appointment.AppointmentStatus.NO_SHOW) {
-                continue;
+    public Map<LocalDate, String> findUnavailableDates(Long doctorId, List<LocalDate> dates, LocalTime startTime) {
+        Map<DayOfWeek, List<DoctorSchedule>> blocksByDay = scheduleRepository.findByDoctor_Id(doctorId)
+                .stream()
+                .filter(DoctorSchedule::getIsAvailable)
+                .sorted(Comparator.comparing(DoctorSchedule::getStartTime))
+                .collect(Collectors.groupingBy(DoctorSchedule::getDayOfWeek));
+
+        Set<LocalDate> blocked = timeOffIndex.findBlockedInDatabase(doctorId, dates);
+
+        Map<LocalDate, String> unavailable = new LinkedHashMap<>();
+        for (LocalDate date : dates) {
+            List<DoctorSchedule> blocks = blocksByDay.getOrDefault(date.getDayOfWeek(), List.of());
+
+            if (blocked.contains(date)) {
+                unavailable.put(date, "Doctor is not available on " + date);
+            } else if (blocks.isEmpty()) {
+                unavailable.put(date, "Doctor does not work on " + date.getDayOfWeek());
+            } else if (!isWithinBlocks(blocks, startTime)) {
+                unavailable.put(date, workingHoursMessage(blocks));
             }
+        }
 
-            boolean overlaps = startTime.isBefore(existing.getEndTime()) &&
-                    endTime.isAfter(existing.getStartTime());
+        return unavailable;
+    }
 
-            if (overlaps) {
-                throw new ScheduleConflictException(
-                        "Time slot " + startTime + " - " + endTime + " is already booked"
-                );
-            }
+    /**
+     * Conflict check for a booking made under its doctor-day lock.
+     * This node's earlier bookings are in the availability index by the time the lock is released,
+     * so only a slot the index shows as taken costs a query (hasConflict, which has the final say).
+     * Bookings from other nodes the index hasn't seen are left to the exclusion constraint.
+     */
+    public void checkNotBooked(Long doctorId, LocalDate date, LocalTime startTime, LocalTime endTime) {
+        if (availabilityIndex.getBookedMinutes(doctorId, date).anySet(startTime, endTime)) {
+            hasConflict(doctorId, date, startTime, endTime);
+        }
+    }
+
+    /**
+     * Check if a doctor has any conflicting appointments on a specific date.
+     * Asks the database rather than the availability index, which may not have seen a booking or
+     * cancellation from another node yet; a disagreement drops the index's copy of the day.
+     */
+    @Transactional(readOnly = true)
+    public boolean hasConflict(Long doctorId, LocalDate date, LocalTime startTime, LocalTime endTime) {
+        boolean booked = appointmentRepository.existsActiveOverlap(doctorId, date, startTime, endTime);
+        if (booked != availabilityIndex.getBookedMinutes(doctorId, date).anySet(startTime, endTime)) {
+            availabilityIndex.invalidate(doctorId, date);
+        }
+
+        if (booked) {
+            throw new ScheduleConflictException(
+                    "Time slot " + startTime + " - " + endTime + " is already booked"
+            );
         }
 
         return false;
     }
 
-    // Get all available time slots for a doctor on a specific date
+    /**
+     * Get all available time slots for a doctor on a specific date; held slots count as taken.
+     * Inside the inventory horizon this is one range scan over doctor_slot_inventory.
+     * Dates outside it, or not generated yet, are derived from the schedule.
+     * Results are cached per doctor and date until a booking, hold or schedule change evicts them.
+     */
+    @Cacheable(cacheNames = CacheConfig.AVAILABLE_SLOTS, key = "#doctorId + ':' + #date")
     @Transactional(readOnly = true)
     public List<AvailableSlotDTO> getAvailableSlots(Long doctorId, LocalDate date) {
+        checkNotBlocked(doctorId, date);
+
+        if (slotInventory.covers(date)) {
+            List<SlotInventory> inventory = slotInventory.getSlots(doctorId, date);
+            if (!inventory.isEmpty()) {
+                DayBitmap heldMinutes = slotHolds.getHeldMinutes(doctorId, date);
+                return inventory.stream()
+                        .map(slot -> AvailableSlotDTO.builder()
+                                .startTime(slot.getStartTime())
+                                .endTime(slot.getEndTime())
+                                .isAvailable(slot.getStatus() == SlotInventory.SlotStatus.OPEN &&
+                                        !heldMinutes.anySet(slot.getStartTime(), slot.getEndTime()))
+                                .build())
+                        .collect(Collectors.toList());
+            }
+        }
+
         DayOfWeek dayOfWeek = date.getDayOfWeek();
 
-        DoctorSchedule schedule = scheduleRepository
-                .findByDoctor_IdAndDayOfWeekAndIsAvailable(doctorId, dayOfWeek, true)
-                .orElseThrow(() -> new DoctorNotAvailableException(
-                        "Doctor does not work on " + dayOfWeek
-                ));
+        List<DoctorSchedule> blocks = getWorkingBlocks(doctorId, dayOfWeek);
 
-        List<Appointment> existingAppointments = appointmentRepository
-                .findByDoctor_IdAndAppointmentDate(doctorId, date);
+        DayBitmap bookedMinutes = availabilityIndex.getBookedMinutes(doctorId, date);
+        DayBitmap heldMinutes = slotHolds.getHeldMinutes(doctorId, date);
 
+        // Blocks are sorted and don't overlap, so the slots come out in time order
         List<AvailableSlotDTO> slots = new ArrayList<>();
-        LocalTime currentTime = schedule.getStartTime();
+        for (DoctorSchedule block : blocks) {
+            LocalTime currentTime = block.getStartTime();
 
-        while (currentTime.isBefore(schedule.getEndTime())) {
-            LocalTime slotEnd = currentTime.plusMinutes(schedule.getSlotDuration());
+            while (currentTime.isBefore(block.getEndTime())) {
+                LocalTime slotEnd = currentTime.plusMinutes(block.getSlotDuration());
 
-            if (slotEnd.isAfter(schedule.getEndTime())) {
-                break;
-            }
+                if (slotEnd.isAfter(block.getEndTime())) {
+                    break;
+                }
 
-            boolean isBooked = isSlotBooked(currentTime, slotEnd, existingAppointments);
+                boolean isBooked = bookedMinutes.anySet(currentTime, slotEnd) ||
+                        heldMinutes.anySet(currentTime, slotEnd);
 
-            slots.add(AvailableSlotDTO.builder()
-                    .startTime(currentTime)
-                    .endTime(slotEnd)
-                    .isAvailable(!isBooked)
-                    .build());
+                slots.add(AvailableSlotDTO.builder()
+                        .startTime(currentTime)
+                        .endTime(slotEnd)
+                        .isAvailable(!isBooked)
+                        .build());
 
-            currentTime = slotEnd;
+                currentTime = slotEnd;
+            }
         }
 
         return slots;
     }
 
-    // Check if a specific time slot is booked
-    private boolean isSlotBooked(LocalTime startTime, LocalTime endTime,
-                                 List<Appointment> appointments) {
-        for (Appointment appointment : appointments) {
-            if (appointment.getStatus() == Appointment.AppointmentStatus.CANCELLED ||
-                    appointment.getStatus() == Appointment.AppointmentStatus.NO_SHOW) {
+    /**
+     * Get a doctor's availability for every day in [from, to].
+     * Loads all schedules and all active appointments in the window with one query each,
+     * then builds every day's slots in a single pass.
+     */
+    @Transactional(readOnly = true)
+    public AvailabilityGridDTO getAvailabilityGrid(Long doctorId, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_GRID_DAYS) {
+            throw new IllegalArgumentException("Date range must not exceed " + MAX_GRID_DAYS + " days");
+        }
+
+        Map<DayOfWeek, List<DoctorSchedule>> schedulesByDay = scheduleRepository.findByDoctor_Id(doctorId)
+                .stream()
+                .filter(DoctorSchedule::getIsAvailable)
+                .sorted(Comparator.comparing(DoctorSchedule::getStartTime))
+                .collect(Collectors.groupingBy(DoctorSchedule::getDayOfWeek));
+
+        Map<LocalDate, DayBitmap> bookedByDate = new HashMap<>();
+        appointmentRepository.findByDoctor_IdAndAppointmentDateBetweenAndStatusNotIn(
+                        doctorId, from, to,
+                        List.of(Appointment.AppointmentStatus.CANCELLED, Appointment.AppointmentStatus.NO_SHOW))
+                .forEach(appointment -> bookedByDate
+                        .computeIfAbsent(appointment.getAppointmentDate(), date -> new DayBitmap())
+                        .set(appointment.getStartTime(), appointment.getEndTime()));
+
+        DayBitmap noBookings = new DayBitmap();
+        List<AvailabilityGridDTO.DayAvailability> days = new ArrayList<>();
+
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            List<DoctorSchedule> daySchedules = schedulesByDay.getOrDefault(date.getDayOfWeek(), List.of());
+            if (daySchedules.isEmpty() || timeOffIndex.isBlocked(doctorId, date)) {
                 continue;
             }
 
-            boolean overlaps = startTime.isBefore(appointment.getEndTime()) &&
-                    endTime.isAfter(appointment.getStartTime());
+            DayBitmap bookedMinutes = bookedByDate.getOrDefault(date, noBookings);
+            DayBitmap heldMinutes = slotHolds.getHeldMinutes(doctorId, date);
 
-            if (overlaps) {
-                return true;
+            for (DoctorSchedule schedule : daySchedules) {
+                days.add(AvailabilityGridDTO.DayAvailability.builder()
+                        .date(date)
+                        .startTime(schedule.getStartTime())
+                        .slotDuration(schedule.getSlotDuration())
+                        .slots(toSlotString(schedule, bookedMinutes, heldMinutes))
+                        .build());
             }
         }
 
+        return AvailabilityGridDTO.builder()
+                .doctorId(doctorId)
+                .from(from)
+                .to(to)
+                .days(days)
+                .build();
+    }
+
+    /**
+     * Find the earliest open slots across all doctors of a specialization.
+     * Served from NextFreeSlotIndex, so no query runs per doctor.
+     */
+    @Transactional(readOnly = true)
+    public List<EarliestSlotDTO> findEarliestSlots(String specialization, LocalDateTime from,
+                                                   LocalDateTime to, int limit) {
+        if (specialization == null || specialization.isBlank()) {
+            throw new IllegalArgumentException("Specialization is required");
+        }
+        if (!to.isAfter(from)) {
+            throw new IllegalArgumentException("End of search window must be after its start");
+        }
+
+        int cappedLimit = Math.max(1, Math.min(limit, MAX_EARLIEST_SLOTS));
+        return nextFreeSlotIndex.findEarliest(specialization, from, to, cappedLimit);
+    }
+
+    // A doctor's available blocks on a weekday, earliest first
+    private List<DoctorSchedule> getWorkingBlocks(Long doctorId, DayOfWeek dayOfWeek) {
+        List<DoctorSchedule> blocks = scheduleRepository
+                .findByDoctor_IdAndDayOfWeekAndIsAvailableOrderByStartTime(doctorId, dayOfWeek, true);
+
+        if (blocks.isEmpty()) {
+            throw new DoctorNotAvailableException("Doctor does not work on " + dayOfWeek);
+        }
+        return blocks;
+    }
+
+    // Blocks are sorted by start time, so stop at the first one starting after the slot
+    private boolean isWithinBlocks(List<DoctorSchedule> blocks, LocalTime startTime) {
+        for (DoctorSchedule block : blocks) {
+            if (startTime.isBefore(block.getStartTime())) {
+                break;
+            }
+            if (!startTime.isAfter(block.getEndTime().minusMinutes(block.getSlotDuration()))) {
+                return true;
+            }
+        }
         return false;
     }
 
+    private String workingHoursMessage(List<DoctorSchedule> blocks) {
+        return "Doctor's working hours are " + blocks.stream()
+                .map(block -> block.getStartTime() + " to " + block.getEndTime())
+                .collect(Collectors.joining(", "));
+    }
+
+    // Reject dates covered by the doctor's time off or a clinic closure
+    private void checkNotBlocked(Long doctorId, LocalDate date) {
+        if (timeOffIndex.isBlocked(doctorId, date)) {
+            throw new DoctorNotAvailableException("Doctor is not available on " + date);
+        }
+    }
+
+    // One character per slot in the schedule block: '1' if free, '0' if booked or held
+    private String toSlotString(DoctorSchedule schedule, DayBitmap bookedMinutes, DayBitmap heldMinutes) {
+        StringBuilder slots = new StringBuilder();
+        LocalTime currentTime = schedule.getStartTime();
+
+        while (currentTime.isBefore(schedule.getEndTime())) {
+            LocalTime slotEnd = currentTime.plusMinutes(schedule.getSlotDuration());
+
+            if (slotEnd.isAfter(schedule.getEndTime())) {
+                break;
+            }
+
+            boolean taken = bookedMinutes.anySet(currentTime, slotEnd) || heldMinutes.anySet(currentTime, slotEnd);
+            slots.append(taken ? '0' : '1');
+            currentTime = slotEnd;
+        }
+
+        return slots.toString();
+    }
+
     /**
      * Convert DoctorSchedule entity to DTO.
      */
@@ -0,0 +1,105 @@
+package com.medisync.core.schedule.service;
+
+import com.medisync.core.appointment.entity.Appointment;
+import com.medisync.core.appointment.event.AppointmentEvent;
+import com.medisync.core.appointment.repository.AppointmentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory index of booked minutes per (doctor, date), for slot listings.
+ * Each day is loaded from the database, kept current from this node's AppointmentEvents and
+ * reloaded ttl-seconds after loading, so bookings and cancellations made on other nodes show up
+ * within that time. Conflict checks don't trust it: they ask the database (see SchedulingService).
+ */
+@Component
+@RequiredArgsConstructor
+public class SlotAvailabilityIndex {
+
+    private final AppointmentRepository appointmentRepository;
+
+    private final Map<DayKey, Day> days = new ConcurrentHashMap<>();
+
+    @Value("${scheduling.availability-index.max-days:50000}")
+    private int maxDays;
+
+    @Value("${scheduling.availability-index.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    // Get the booked minutes for a doctor's day, rebuilding from the database on a miss or once expired
+    public DayBitmap getBookedMinutes(Long doctorId, LocalDate date) {
+        if (days.size() >= maxDays) {
+            evict();
+        }
+        long now = System.nanoTime();
+        return days.compute(new DayKey(doctorId, date),
+                (key, day) -> day != null && now - day.loadedAt() < TimeUnit.SECONDS.toNanos(ttlSeconds)
+                        ? day
+                        : new Day(load(key), now))
+                .bitmap();
+    }
+
+    // Drop a day so the next read rebuilds it from the database
+    public void invalidate(Long doctorId, LocalDate date) {
+        days.remove(new DayKey(doctorId, date));
+    }
+
+    /**
+     * Apply a booking or cancellation once it is committed.
+     * Days that aren't loaded yet are skipped - they'll be read fresh on first use.
+     * Runs before other listeners, which read the updated bitmap.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentEvent(AppointmentEvent event) {
+        DayKey key = new DayKey(event.getDoctorId(), event.getAppointmentDate());
+        days.computeIfPresent(key, (k, day) -> {
+            if (event.getType() == AppointmentEvent.Type.BOOKED) {
+                day.bitmap().set(event.getStartTime(), event.getEndTime());
+            } else {
+                day.bitmap().clear(event.getStartTime(), event.getEndTime());
+            }
+            return day;
+        });
+    }
+
+    private DayBitmap load(DayKey key) {
+        DayBitmap bitmap = new DayBitmap();
+        for (Appointment appointment : appointmentRepository
+                .findByDoctor_IdAndAppointmentDate(key.doctorId(), key.date())) {
+            if (isActive(appointment)) {
+                bitmap.set(appointment.getStartTime(), appointment.getEndTime());
+            }
+        }
+        return bitmap;
+    }
+
+    // Past days are never booked again, so drop them first; clear everything if that isn't enough
+    private void evict() {
+        LocalDate today = LocalDate.now();
+        days.keySet().removeIf(key -> key.date().isBefore(today));
+        if (days.size() >= maxDays) {
+            days.clear();
+        }
+    }
+
+    private static boolean isActive(Appointment appointment) {
+        return appointment.getStatus() != Appointment.AppointmentStatus.CANCELLED &&
+                appointment.getStatus() != Appointment.AppointmentStatus.NO_SHOW;
+    }
+
+    private record DayKey(Long doctorId, LocalDate date) {
+    }
+
+    private record Day(DayBitmap bitmap, long loadedAt) {
+    }
+}
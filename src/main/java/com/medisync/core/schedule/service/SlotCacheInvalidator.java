@@ -0,0 +1,165 @@
+package com.medisync.core.schedule.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medisync.core.appointment.event.AppointmentEvent;
+import com.medisync.core.cluster.service.ClusterChannels;
+import com.medisync.core.config.CacheConfig;
+import com.medisync.core.schedule.event.ScheduleChangedEvent;
+import com.medisync.core.schedule.event.SlotHoldChangedEvent;
+import com.medisync.core.schedule.event.TimeOffChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Evicts cached slot and schedule responses once the change behind them is committed.
+ * Bookings and holds evict a single (doctor, date) entry; schedule and time off changes
+ * evict every date of the affected doctor. Runs after the other listeners so the
+ * indexes and inventory it reads through are already up to date.
+ * Every node keeps its own caches, so booking, schedule and time off evictions are also sent
+ * to the other nodes, which drop the same entries along with the index days behind them.
+ * Holds aren't sent: checkout holds live on one node, and waitlist offer holds are replicated
+ * by WaitlistService, which raises the hold event on each node. A message missed while a node's
+ * listener reconnects leaves its entry stale until expireAfterWrite in spring.cache.caffeine.spec.
+ */
+@Slf4j
+@Component
+public class SlotCacheInvalidator {
+
+    static final String CHANNEL = "slot_cache_evictions";
+
+    private final CacheManager cacheManager;
+    private final ClusterChannels channels;
+    private final ObjectMapper objectMapper;
+    private final SlotAvailabilityIndex availabilityIndex;
+    private final TimeOffIndex timeOffIndex;
+
+    // Tells this node's own messages apart; it has already evicted
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public SlotCacheInvalidator(CacheManager cacheManager,
+                                ClusterChannels channels,
+                                ObjectMapper objectMapper,
+                                SlotAvailabilityIndex availabilityIndex,
+                                TimeOffIndex timeOffIndex) {
+        this.cacheManager = cacheManager;
+        this.channels = channels;
+        this.objectMapper = objectMapper;
+        this.availabilityIndex = availabilityIndex;
+        this.timeOffIndex = timeOffIndex;
+        channels.subscribe(CHANNEL, this::onRemoteEviction);
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentEvent(AppointmentEvent event) {
+        evictSlots(event.getDoctorId(), event.getAppointmentDate());
+        send(new Eviction(nodeId, Eviction.Kind.APPOINTMENT, event.getDoctorId(), event.getAppointmentDate()));
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSlotHoldChanged(SlotHoldChangedEvent event) {
+        evictSlots(event.getDoctorId(), event.getDate());
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScheduleChanged(ScheduleChangedEvent event) {
+        evictDoctorSlots(event.getDoctorId());
+        cache(CacheConfig.DOCTOR_SCHEDULES).evict(event.getDoctorId());
+        send(new Eviction(nodeId, Eviction.Kind.SCHEDULE, event.getDoctorId(), null));
+    }
+
+    // Clinic closures (no doctor) affect everyone
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTimeOffChanged(TimeOffChangedEvent event) {
+        if (event.getDoctorId() == null) {
+            cache(CacheConfig.AVAILABLE_SLOTS).clear();
+        } else {
+            evictDoctorSlots(event.getDoctorId());
+        }
+        send(new Eviction(nodeId, Eviction.Kind.TIME_OFF, event.getDoctorId(), null));
+    }
+
+    private void send(Eviction eviction) {
+        try {
+            channels.send(CHANNEL, objectMapper.writeValueAsString(eviction));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize slot cache eviction", e);
+        }
+    }
+
+    // Another node committed a change; drop what this node built from the old state
+    private void onRemoteEviction(String payload) {
+        Eviction eviction;
+        try {
+            eviction = objectMapper.readValue(payload, Eviction.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed slot cache eviction: {}", e.getMessage());
+            return;
+        }
+        if (nodeId.equals(eviction.origin())) {
+            return;
+        }
+
+        switch (eviction.kind()) {
+            case APPOINTMENT -> {
+                availabilityIndex.invalidate(eviction.doctorId(), eviction.date());
+                evictSlots(eviction.doctorId(), eviction.date());
+            }
+            case SCHEDULE -> {
+                evictDoctorSlots(eviction.doctorId());
+                cache(CacheConfig.DOCTOR_SCHEDULES).evict(eviction.doctorId());
+            }
+            case TIME_OFF -> {
+                timeOffIndex.invalidate();
+                if (eviction.doctorId() == null) {
+                    cache(CacheConfig.AVAILABLE_SLOTS).clear();
+                } else {
+                    evictDoctorSlots(eviction.doctorId());
+                }
+            }
+        }
+    }
+
+    // Same key as SchedulingService.getAvailableSlots: "doctorId:date"
+    private void evictSlots(Long doctorId, LocalDate date) {
+        cache(CacheConfig.AVAILABLE_SLOTS).evict(doctorId + ":" + date);
+    }
+
+    private void evictDoctorSlots(Long doctorId) {
+        Cache cache = cache(CacheConfig.AVAILABLE_SLOTS);
+        if (cache instanceof CaffeineCache caffeineCache) {
+            String prefix = doctorId + ":";
+            caffeineCache.getNativeCache().asMap().keySet()
+                    .removeIf(key -> key.toString().startsWith(prefix));
+        } else {
+            cache.clear();
+        }
+    }
+
+    private Cache cache(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache == null) {
+            throw new IllegalStateException("Cache not configured: " + name);
+        }
+        return cache;
+    }
+
+    // date is set for APPOINTMENT only; doctorId is null for a clinic closure
+    record Eviction(String origin, Kind kind, Long doctorId, LocalDate date) {
+
+        enum Kind { APPOINTMENT, SCHEDULE, TIME_OFF }
+    }
+}
@@ -0,0 +1,239 @@
+package com.medisync.core.schedule.service;
+
+import com.medisync.core.appointment.event.AppointmentEvent;
+import com.medisync.core.schedule.event.SlotHoldChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Expiring in-memory store of temporary slot holds.
+ * A patient holds a slot while filling in the booking form; until the hold expires
+ * the slot is shown as unavailable and only that patient can book it.
+ * Each doctor's day is updated atomically. A patient holds at most one checkout slot per doctor-day,
+ * plus any waitlist offers made to them.
+ */
+@Component
+public class SlotHoldStore {
+
+    private final Map<DayKey, List<SlotHold>> days = new ConcurrentHashMap<>();
+    private final Map<String, DayKey> holdDays = new ConcurrentHashMap<>();
+
+    private final Duration ttl;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public SlotHoldStore(@Value("${scheduling.slot-hold.ttl-seconds:300}") long ttlSeconds,
+                         ApplicationEventPublisher eventPublisher) {
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Hold [startTime, endTime) for a patient.
+     * Returns empty if another hold overlaps the slot; the patient's earlier holds are kept then.
+     * Otherwise the patient's earlier checkout hold on that doctor-day, if any, is replaced.
+     */
+    public Optional<SlotHold> hold(Long doctorId, LocalDate date, LocalTime startTime, LocalTime endTime,
+                                   Long patientId) {
+        return place(new SlotHold(UUID.randomUUID().toString(), doctorId, date, startTime, endTime,
+                patientId, Instant.now().plus(ttl), SlotHold.Kind.CHECKOUT));
+    }
+
+    /**
+     * Hold the slot behind a waitlist offer; it sits alongside the patient's checkout hold.
+     * The offer decides the id and expiry, so every node places the same hold for it.
+     */
+    public Optional<SlotHold> holdOffer(String offerId, Long doctorId, LocalDate date, LocalTime startTime,
+                                        LocalTime endTime, Long patientId, Instant expiresAt) {
+        if (holdDays.containsKey(offerId)) {
+            return Optional.empty();
+        }
+        return place(new SlotHold(offerId, doctorId, date, startTime, endTime,
+                patientId, expiresAt, SlotHold.Kind.OFFER));
+    }
+
+    private Optional<SlotHold> place(SlotHold newHold) {
+        Instant now = Instant.now();
+        DayKey key = new DayKey(newHold.doctorId(), newHold.date());
+
+        boolean[] placed = new boolean[1];
+        days.compute(key, (k, holds) -> {
+            List<SlotHold> current = holds == null ? new ArrayList<>() : holds;
+            current.removeIf(existing -> {
+                if (existing.isExpired(now)) {
+                    holdDays.remove(existing.id());
+                    return true;
+                }
+                return false;
+            });
+
+            SlotHold replaced = newHold.kind() != SlotHold.Kind.CHECKOUT ? null : current.stream()
+                    .filter(existing -> existing.kind() == SlotHold.Kind.CHECKOUT &&
+                            existing.patientId().equals(newHold.patientId()))
+                    .findFirst()
+                    .orElse(null);
+            boolean taken = current.stream().anyMatch(existing -> existing != replaced &&
+                    existing.overlaps(newHold.startTime(), newHold.endTime()));
+            if (!taken) {
+                if (replaced != null) {
+                    current.remove(replaced);
+                    holdDays.remove(replaced.id());
+                }
+                current.add(newHold);
+                holdDays.put(newHold.id(), k);
+                placed[0] = true;
+            }
+            return current.isEmpty() ? null : current;
+        });
+
+        if (placed[0]) {
+            eventPublisher.publishEvent(new SlotHoldChangedEvent(newHold.doctorId(), newHold.date()));
+            return Optional.of(newHold);
+        }
+        return Optional.empty();
+    }
+
+    // Release a hold early; returns false if the patient has no such hold
+    public boolean release(String holdId, Long patientId) {
+        DayKey key = holdDays.get(holdId);
+        if (key == null) {
+            return false;
+        }
+
+        boolean[] removed = new boolean[1];
+        days.computeIfPresent(key, (k, holds) -> {
+            removed[0] = holds.removeIf(hold -> hold.id().equals(holdId) && hold.patientId().equals(patientId));
+            if (removed[0]) {
+                holdDays.remove(holdId);
+            }
+            return holds.isEmpty() ? null : holds;
+        });
+
+        if (removed[0]) {
+            eventPublisher.publishEvent(new SlotHoldChangedEvent(key.doctorId(), key.date()));
+        }
+        return removed[0];
+    }
+
+    // True if a live hold by anyone other than the patient overlaps [startTime, endTime)
+    public boolean isHeldByOther(Long doctorId, LocalDate date, LocalTime startTime, LocalTime endTime,
+                                 Long patientId) {
+        Instant now = Instant.now();
+        return getHolds(doctorId, date).stream()
+                .anyMatch(hold -> !hold.isExpired(now) &&
+                        !hold.patientId().equals(patientId) &&
+                        hold.overlaps(startTime, endTime));
+    }
+
+    // True if any live hold overlaps [startTime, endTime)
+    public boolean isHeld(Long doctorId, LocalDate date, LocalTime startTime, LocalTime endTime) {
+        return isHeldByOther(doctorId, date, startTime, endTime, null);
+    }
+
+    // Live holds for a doctor's day, copied so callers can read without locking
+    public List<SlotHold> getHolds(Long doctorId, LocalDate date) {
+        Instant now = Instant.now();
+        List<SlotHold> result = new ArrayList<>();
+        days.computeIfPresent(new DayKey(doctorId, date), (k, holds) -> {
+            holds.stream().filter(hold -> !hold.isExpired(now)).forEach(result::add);
+            return holds;
+        });
+        return result;
+    }
+
+    // Minutes covered by live holds, in the same form as the booked-minutes index
+    public DayBitmap getHeldMinutes(Long doctorId, LocalDate date) {
+        DayBitmap heldMinutes = new DayBitmap();
+        for (SlotHold hold : getHolds(doctorId, date)) {
+            heldMinutes.set(hold.startTime(), hold.endTime());
+        }
+        return heldMinutes;
+    }
+
+    // A committed booking consumes the patient's hold on that slot
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentEvent(AppointmentEvent event) {
+        if (event.getType() != AppointmentEvent.Type.BOOKED) {
+            return;
+        }
+
+        days.computeIfPresent(new DayKey(event.getDoctorId(), event.getAppointmentDate()), (k, holds) -> {
+            holds.removeIf(hold -> {
+                boolean consumed = hold.patientId().equals(event.getPatientId()) &&
+                        hold.overlaps(event.getStartTime(), event.getEndTime());
+                if (consumed) {
+                    holdDays.remove(hold.id());
+                }
+                return consumed;
+            });
+            return holds.isEmpty() ? null : holds;
+        });
+    }
+
+    // Drop expired holds so abandoned checkouts don't accumulate
+    @Scheduled(fixedDelayString = "${scheduling.slot-hold.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        for (DayKey key : days.keySet()) {
+            boolean[] expired = new boolean[1];
+            days.computeIfPresent(key, (k, holds) -> {
+                expired[0] = holds.removeIf(hold -> {
+                    if (hold.isExpired(now)) {
+                        holdDays.remove(hold.id());
+                        return true;
+                    }
+                    return false;
+                });
+                return holds.isEmpty() ? null : holds;
+            });
+
+            if (expired[0]) {
+                eventPublisher.publishEvent(new SlotHoldChangedEvent(key.doctorId(), key.date()));
+            }
+        }
+    }
+
+    public record SlotHold(String id, Long doctorId, LocalDate date, LocalTime startTime, LocalTime endTime,
+                           Long patientId, Instant expiresAt, Kind kind) {
+
+        public enum Kind {
+            CHECKOUT, // Taken while filling in the booking form
+            OFFER     // Behind a waitlist offer
+        }
+
+        boolean isExpired(Instant now) {
+            return !expiresAt.isAfter(now);
+        }
+
+        // Same convention as DayBitmap: an end at or before the start runs to midnight
+        boolean overlaps(LocalTime otherStart, LocalTime otherEnd) {
+            return toMinute(startTime) < toEndMinute(otherStart, otherEnd) &&
+                    toMinute(otherStart) < toEndMinute(startTime, endTime);
+        }
+
+        private static int toMinute(LocalTime time) {
+            return time.toSecondOfDay() / 60;
+        }
+
+        private static int toEndMinute(LocalTime start, LocalTime end) {
+            int minute = (end.toSecondOfDay() + 59) / 60;
+            return minute <= toMinute(start) ? DayBitmap.MINUTES_PER_DAY : minute;
+        }
+    }
+
+    private record DayKey(Long doctorId, LocalDate date) {
+    }
+}
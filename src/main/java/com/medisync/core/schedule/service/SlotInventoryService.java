@@ -0,0 +1,262 @@
+package com.medisync.core.schedule.service;
+
+import com.medisync.core.appointment.entity.Appointment;
+import com.medisync.core.appointment.event.AppointmentEvent;
+import com.medisync.core.appointment.repository.AppointmentRepository;
+import com.medisync.core.schedule.entity.DoctorSchedule;
+import com.medisync.core.schedule.entity.SlotInventory;
+import com.medisync.core.schedule.event.ScheduleChangedEvent;
+import com.medisync.core.schedule.event.TimeOffChangedEvent;
+import com.medisync.core.schedule.repository.DoctorScheduleRepository;
+import com.medisync.core.schedule.repository.SlotInventoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the doctor_slot_inventory table - every bookable slot for a rolling horizon.
+ * Handles:
+ * - Nightly generation of the whole horizon (which also repairs any drift)
+ * - Incremental regeneration of one doctor's affected days after schedule or time off changes
+ * - Recomputing the affected slots inside the booking/cancelling transaction
+ * Regeneration replaces OPEN rows only; BOOKED rows are left for their appointments to release.
+ * Both paths take a doctor-day advisory lock first, so a regeneration never writes slots from
+ * appointments read before a booking or cancellation on another node committed.
+ */
+@Slf4j
+@Service
+public class SlotInventoryService {
+
+    private static final String DELETE_OPEN_SQL =
+            "DELETE FROM doctor_slot_inventory WHERE doctor_id = ? AND slot_date = ? AND status = 'OPEN'";
+
+    // OPEN slots of doctors that no longer have any available schedule block
+    private static final String DELETE_UNSCHEDULED_SQL =
+            "DELETE FROM doctor_slot_inventory WHERE slot_date BETWEEN ? AND ? AND status = 'OPEN' " +
+                    "AND NOT (doctor_id = ANY (?))";
+
+    // One transaction-scoped lock per (doctor, day), taken in date order so lockers can't deadlock
+    private static final String LOCK_DAYS_SQL =
+            "SELECT count(pg_advisory_xact_lock(?, day)) FROM generate_series(?, ?) AS day";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO doctor_slot_inventory (doctor_id, slot_date, start_time, end_time, status, appointment_id) " +
+                    "VALUES (?, ?, ?, ?, ?, ?) " +
+                    "ON CONFLICT (doctor_id, slot_date, start_time) DO NOTHING";
+
+    private static final String DELETE_PAST_SQL =
+            "DELETE FROM doctor_slot_inventory WHERE slot_date < ?";
+
+    private static final List<Appointment.AppointmentStatus> INACTIVE =
+            List.of(Appointment.AppointmentStatus.CANCELLED, Appointment.AppointmentStatus.NO_SHOW);
+
+    private final SlotInventoryRepository inventoryRepository;
+    private final DoctorScheduleRepository scheduleRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final TimeOffIndex timeOffIndex;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTransaction;
+
+    @Value("${scheduling.slot-inventory.horizon-days:90}")
+    private int horizonDays;
+
+    public SlotInventoryService(SlotInventoryRepository inventoryRepository,
+                                DoctorScheduleRepository scheduleRepository,
+                                AppointmentRepository appointmentRepository,
+                                TimeOffIndex timeOffIndex,
+                                JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager) {
+        this.inventoryRepository = inventoryRepository;
+        this.scheduleRepository = scheduleRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.timeOffIndex = timeOffIndex;
+        this.jdbcTemplate = jdbcTemplate;
+        // Listeners run after the triggering transaction has committed, so they need their own
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // True if the date is inside the generated horizon
+    public boolean covers(LocalDate date) {
+        LocalDate today = LocalDate.now();
+        return !date.isBefore(today) && date.isBefore(today.plusDays(horizonDays));
+    }
+
+    // Get a doctor's generated slots for a date (one index range scan)
+    public List<SlotInventory> getSlots(Long doctorId, LocalDate date) {
+        return inventoryRepository.findByDoctor_IdAndSlotDateOrderByStartTime(doctorId, date);
+    }
+
+    /**
+     * Recompute the slots an appointment covers in the same transaction as the booking or
+     * cancellation (or reassignment away from this doctor) that caused it.
+     * Transactions publishing several events do so in date order, matching regenerate's lock order.
+     */
+    @EventListener
+    public void onAppointmentEvent(AppointmentEvent event) {
+        lockDays(event.getDoctorId(), event.getAppointmentDate(), event.getAppointmentDate());
+        // Slots never run past midnight, so one running past it covers the rest of the day
+        LocalTime end = event.getEndTime().isAfter(event.getStartTime()) ? event.getEndTime() : LocalTime.MAX;
+        inventoryRepository.refreshOverlapping(event.getDoctorId(), event.getAppointmentDate(),
+                event.getStartTime(), end);
+    }
+
+    // A weekday's blocks changed - regenerate that weekday for the doctor
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScheduleChanged(ScheduleChangedEvent event) {
+        LocalDate today = LocalDate.now();
+        regenerate(event.getDoctorId(), today, today.plusDays(horizonDays - 1), event.getDayOfWeek());
+    }
+
+    // Time off changed - regenerate the covered dates, for every doctor if it was a clinic closure.
+    // Runs right after TimeOffIndex has reloaded and before cached slots are evicted.
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTimeOffChanged(TimeOffChangedEvent event) {
+        regenerate(event.getDoctorId(), event.getStartDate(), event.getEndDate(), null);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        generateHorizon();
+    }
+
+    // Roll the horizon forward every night and drop past days
+    @Scheduled(cron = "${scheduling.slot-inventory.cron:0 15 2 * * *}")
+    public void generateHorizon() {
+        LocalDate today = LocalDate.now();
+        newTransaction.executeWithoutResult(status -> jdbcTemplate.update(DELETE_PAST_SQL, today));
+        regenerate(null, today, today.plusDays(horizonDays - 1), null);
+    }
+
+    /**
+     * Regenerate slots in [from, to], clamped to the horizon.
+     * doctorId null means every doctor; dayOfWeek null means every day in the range.
+     * Schedules are loaded with one query; then each doctor's days are locked, their appointments
+     * loaded with one query and the slots written in JDBC batches, one transaction per doctor.
+     */
+    public void regenerate(Long doctorId, LocalDate from, LocalDate to, DayOfWeek dayOfWeek) {
+        LocalDate today = LocalDate.now();
+        LocalDate first = from.isBefore(today) ? today : from;
+        LocalDate horizonEnd = today.plusDays(horizonDays - 1);
+        LocalDate last = to.isAfter(horizonEnd) ? horizonEnd : to;
+        if (first.isAfter(last)) {
+            return;
+        }
+
+        List<DoctorSchedule> schedules = doctorId == null
+                ? scheduleRepository.findAll()
+                : scheduleRepository.findByDoctor_Id(doctorId);
+
+        Map<Long, Map<DayOfWeek, List<DoctorSchedule>>> blocksByDoctor = schedules.stream()
+                .filter(DoctorSchedule::getIsAvailable)
+                .sorted(Comparator.comparing(DoctorSchedule::getStartTime))
+                .collect(Collectors.groupingBy(schedule -> schedule.getDoctor().getId(),
+                        Collectors.groupingBy(DoctorSchedule::getDayOfWeek)));
+
+        int inserted = 0;
+        if (doctorId == null) {
+            // Nothing can book a doctor without schedule blocks, so their slots need no lock
+            Long[] scheduled = blocksByDoctor.keySet().toArray(Long[]::new);
+            newTransaction.executeWithoutResult(status ->
+                    jdbcTemplate.update(DELETE_UNSCHEDULED_SQL, first, last, scheduled));
+            for (Map.Entry<Long, Map<DayOfWeek, List<DoctorSchedule>>> doctor : blocksByDoctor.entrySet()) {
+                inserted += regenerateDoctor(doctor.getKey(), first, last, dayOfWeek, doctor.getValue());
+            }
+        } else {
+            inserted = regenerateDoctor(doctorId, first, last, dayOfWeek,
+                    blocksByDoctor.getOrDefault(doctorId, Map.of()));
+        }
+
+        log.debug("Regenerated slot inventory for doctor {} from {} to {}: {} slots",
+                doctorId == null ? "all" : doctorId, first, last, inserted);
+    }
+
+    private int regenerateDoctor(Long doctorId, LocalDate first, LocalDate last, DayOfWeek dayOfWeek,
+                                 Map<DayOfWeek, List<DoctorSchedule>> blocks) {
+        return newTransaction.execute(status -> {
+            lockDays(doctorId, first, last);
+            Map<LocalDate, List<Appointment>> appointmentsByDate = appointmentRepository
+                    .findByDoctor_IdAndAppointmentDateBetweenAndStatusNotIn(doctorId, first, last, INACTIVE)
+                    .stream()
+                    .collect(Collectors.groupingBy(Appointment::getAppointmentDate));
+
+            List<Object[]> deletes = new ArrayList<>();
+            List<Object[]> inserts = new ArrayList<>();
+
+            for (LocalDate date = first; !date.isAfter(last); date = date.plusDays(1)) {
+                if (dayOfWeek != null && date.getDayOfWeek() != dayOfWeek) {
+                    continue;
+                }
+                deletes.add(new Object[]{doctorId, date});
+                if (timeOffIndex.isBlocked(doctorId, date)) {
+                    continue;
+                }
+                List<Appointment> booked = appointmentsByDate.getOrDefault(date, List.of());
+                for (DoctorSchedule block : blocks.getOrDefault(date.getDayOfWeek(), List.of())) {
+                    addSlots(inserts, doctorId, date, block, booked);
+                }
+            }
+
+            jdbcTemplate.batchUpdate(DELETE_OPEN_SQL, deletes);
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+            return inserts.size();
+        });
+    }
+
+    // Must run inside a transaction; the locks are released when it ends
+    private void lockDays(Long doctorId, LocalDate first, LocalDate last) {
+        jdbcTemplate.queryForObject(LOCK_DAYS_SQL, Long.class, doctorId.hashCode(),
+                (int) first.toEpochDay(), (int) last.toEpochDay());
+    }
+
+    private void addSlots(List<Object[]> inserts, Long doctorId, LocalDate date,
+                          DoctorSchedule block, List<Appointment> booked) {
+        LocalTime currentTime = block.getStartTime();
+
+        while (currentTime.isBefore(block.getEndTime())) {
+            LocalTime slotEnd = currentTime.plusMinutes(block.getSlotDuration());
+
+            if (slotEnd.isAfter(block.getEndTime())) {
+                break;
+            }
+
+            Long appointmentId = null;
+            for (Appointment appointment : booked) {
+                // Same overlap test as SlotInventoryRepository.refreshOverlapping
+                if (appointment.getStartTime().isBefore(slotEnd) && (appointment.getEndTime().isAfter(currentTime)
+                        || !appointment.getEndTime().isAfter(appointment.getStartTime()))) {
+                    appointmentId = appointment.getId();
+                    break;
+                }
+            }
+
+            SlotInventory.SlotStatus status = appointmentId == null
+                    ? SlotInventory.SlotStatus.OPEN
+                    : SlotInventory.SlotStatus.BOOKED;
+            inserts.add(new Object[]{doctorId, date, currentTime, slotEnd, status.name(), appointmentId});
+
+            currentTime = slotEnd;
+        }
+    }
+}
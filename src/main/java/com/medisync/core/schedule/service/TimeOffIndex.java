@@ -0,0 +1,181 @@
+package com.medisync.core.schedule.service;
+
+import com.medisync.core.schedule.entity.TimeOff;
+import com.medisync.core.schedule.event.TimeOffChangedEvent;
+import com.medisync.core.schedule.repository.TimeOffRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory index of blocked dates - doctor time off and clinic closures.
+ * Overlapping ranges are merged into disjoint intervals keyed by start date, so
+ * "is this date blocked" is a single floorEntry lookup (O(log n)) with no query.
+ * The whole index is loaded with one query and reloaded after any change on this node,
+ * and at most ttl-seconds after a change made on another node.
+ * Bookings confirm against time_off itself (isBlockedInDatabase), so a stale index can
+ * hide a slot or show one too many, but never let a blocked date be booked.
+ */
+@Component
+@RequiredArgsConstructor
+public class TimeOffIndex {
+
+    private static final NavigableMap<LocalDate, LocalDate> NO_INTERVALS = new TreeMap<>();
+
+    private final TimeOffRepository timeOffRepository;
+
+    @Value("${scheduling.time-off.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    // True if the doctor is on leave or the clinic is closed on the date
+    public boolean isBlocked(Long doctorId, LocalDate date) {
+        Snapshot current = getSnapshot();
+        return contains(current.clinic(), date) ||
+                contains(current.doctors().getOrDefault(doctorId, NO_INTERVALS), date);
+    }
+
+    // Same as isBlocked, but read from time_off; reloads the index if it disagrees
+    public boolean isBlockedInDatabase(Long doctorId, LocalDate date) {
+        return !findBlockedInDatabase(doctorId, List.of(date)).isEmpty();
+    }
+
+    // The dates blocked for the doctor, read from time_off with one query
+    public Set<LocalDate> findBlockedInDatabase(Long doctorId, Collection<LocalDate> dates) {
+        if (dates.isEmpty()) {
+            return Set.of();
+        }
+
+        List<TimeOff> covering = timeOffRepository.findCovering(doctorId,
+                Collections.min(dates), Collections.max(dates));
+        Set<LocalDate> blocked = new HashSet<>();
+        boolean differs = false;
+        for (LocalDate date : dates) {
+            boolean inDatabase = covering.stream()
+                    .anyMatch(timeOff -> !date.isBefore(timeOff.getStartDate()) && !date.isAfter(timeOff.getEndDate()));
+            if (inDatabase) {
+                blocked.add(date);
+            }
+            differs |= inDatabase != isBlocked(doctorId, date);
+        }
+
+        // Changed on another node since the last load
+        if (differs) {
+            invalidate();
+        }
+        return blocked;
+    }
+
+    // Reload on next use; runs before other listeners, which may read the index
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTimeOffChanged(TimeOffChangedEvent event) {
+        invalidate();
+    }
+
+    // Reload on next use, e.g. after a change committed on another node
+    public void invalidate() {
+        version.incrementAndGet();
+        snapshot = null;
+    }
+
+    private Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (isFresh(current)) {
+            return current;
+        }
+
+        synchronized (this) {
+            if (isFresh(snapshot)) {
+                return snapshot;
+            }
+
+            // A change committed while loading makes the result stale, so don't keep it
+            long loadedVersion = version.get();
+            Snapshot loaded = load();
+            if (version.get() == loadedVersion) {
+                snapshot = loaded;
+            }
+            return loaded;
+        }
+    }
+
+    private Snapshot load() {
+        List<TimeOff> clinic = new ArrayList<>();
+        Map<Long, List<TimeOff>> byDoctor = new HashMap<>();
+
+        for (TimeOff timeOff : timeOffRepository.findAll()) {
+            if (timeOff.getDoctor() == null) {
+                clinic.add(timeOff);
+            } else {
+                byDoctor.computeIfAbsent(timeOff.getDoctor().getId(), id -> new ArrayList<>()).add(timeOff);
+            }
+        }
+
+        Map<Long, NavigableMap<LocalDate, LocalDate>> doctors = new HashMap<>();
+        byDoctor.forEach((doctorId, ranges) -> doctors.put(doctorId, merge(ranges)));
+        return new Snapshot(merge(clinic), doctors, System.nanoTime());
+    }
+
+    private boolean isFresh(Snapshot current) {
+        return current != null && System.nanoTime() - current.loadedAt() < TimeUnit.SECONDS.toNanos(ttlSeconds);
+    }
+
+    // Merge overlapping or adjacent ranges into disjoint intervals: start date -> end date (inclusive)
+    private static NavigableMap<LocalDate, LocalDate> merge(List<TimeOff> ranges) {
+        ranges.sort(Comparator.comparing(TimeOff::getStartDate));
+
+        NavigableMap<LocalDate, LocalDate> intervals = new TreeMap<>();
+        LocalDate start = null;
+        LocalDate end = null;
+
+        for (TimeOff range : ranges) {
+            if (start != null && !range.getStartDate().isAfter(end.plusDays(1))) {
+                if (range.getEndDate().isAfter(end)) {
+                    end = range.getEndDate();
+                }
+                continue;
+            }
+            if (start != null) {
+                intervals.put(start, end);
+            }
+            start = range.getStartDate();
+            end = range.getEndDate();
+        }
+        if (start != null) {
+            intervals.put(start, end);
+        }
+
+        return intervals;
+    }
+
+    private static boolean contains(NavigableMap<LocalDate, LocalDate> intervals, LocalDate date) {
+        Map.Entry<LocalDate, LocalDate> interval = intervals.floorEntry(date);
+        return interval != null && !interval.getValue().isBefore(date);
+    }
+
+    private record Snapshot(NavigableMap<LocalDate, LocalDate> clinic,
+                            Map<Long, NavigableMap<LocalDate, LocalDate>> doctors,
+                            long loadedAt) {
+    }
+}
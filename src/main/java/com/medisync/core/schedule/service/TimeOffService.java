@@ -0,0 +1,121 @@
+package com.medisync.core.schedule.service;
+
+import com.medisync.core.doctor.entity.Doctor;
+import com.medisync.core.doctor.repository.DoctorRepository;
+import com.medisync.core.exception.ResourceNotFoundException;
+import com.medisync.core.schedule.dto.CreateTimeOffRequest;
+import com.medisync.core.schedule.dto.TimeOffDTO;
+import com.medisync.core.schedule.entity.TimeOff;
+import com.medisync.core.schedule.event.TimeOffChangedEvent;
+import com.medisync.core.schedule.repository.TimeOffRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Service for blocked date ranges.
+ * Handles:
+ * - Doctor time off (leave, conferences)
+ * - Clinic-wide closures (holidays)
+ * Lookups during booking go through TimeOffIndex, not this service.
+ */
+@Service
+@RequiredArgsConstructor
+public class TimeOffService {
+
+    private final TimeOffRepository timeOffRepository;
+    private final DoctorRepository doctorRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Add time off for the current doctor
+    @Transactional
+    public TimeOffDTO createTimeOff(String doctorEmail, CreateTimeOffRequest request) {
+        Doctor doctor = doctorRepository.findByEmail(doctorEmail)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Doctor not found with email: " + doctorEmail
+                ));
+
+        TimeOff timeOff = save(doctor, request);
+        eventPublisher.publishEvent(new TimeOffChangedEvent(
+                doctor.getId(), timeOff.getStartDate(), timeOff.getEndDate()));
+        return mapToDTO(timeOff);
+    }
+
+    @Transactional(readOnly = true)
+    public List<TimeOffDTO> getDoctorTimeOff(String doctorEmail) {
+        return timeOffRepository.findByDoctor_EmailOrderByStartDate(doctorEmail).stream()
+                .map(this::mapToDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
+    public void deleteTimeOff(Long id, String doctorEmail) {
+        TimeOff timeOff = timeOffRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Time off not found with id: " + id
+                ));
+
+        if (timeOff.getDoctor() == null || !timeOff.getDoctor().getEmail().equals(doctorEmail)) {
+            throw new SecurityException("You don't have permission to delete this time off");
+        }
+
+        timeOffRepository.delete(timeOff);
+        eventPublisher.publishEvent(new TimeOffChangedEvent(
+                timeOff.getDoctor().getId(), timeOff.getStartDate(), timeOff.getEndDate()));
+    }
+
+    // Add a clinic-wide closure
+    @Transactional
+    public TimeOffDTO createClosure(CreateTimeOffRequest request) {
+        TimeOff closure = save(null, request);
+        eventPublisher.publishEvent(new TimeOffChangedEvent(null, closure.getStartDate(), closure.getEndDate()));
+        return mapToDTO(closure);
+    }
+
+    @Transactional(readOnly = true)
+    public List<TimeOffDTO> getClosures() {
+        return timeOffRepository.findByDoctorIsNullOrderByStartDate().stream()
+                .map(this::mapToDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
+    public void deleteClosure(Long id) {
+        TimeOff closure = timeOffRepository.findById(id)
+                .filter(timeOff -> timeOff.getDoctor() == null)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Closure not found with id: " + id
+                ));
+
+        timeOffRepository.delete(closure);
+        eventPublisher.publishEvent(new TimeOffChangedEvent(null, closure.getStartDate(), closure.getEndDate()));
+    }
+
+    private TimeOff save(Doctor doctor, CreateTimeOffRequest request) {
+        if (request.getEndDate().isBefore(request.getStartDate())) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+
+        return timeOffRepository.save(TimeOff.builder()
+                .doctor(doctor)
+                .startDate(request.getStartDate())
+                .endDate(request.getEndDate())
+                .reason(request.getReason())
+                .build());
+    }
+
+    private TimeOffDTO mapToDTO(TimeOff timeOff) {
+        return TimeOffDTO.builder()
+                .id(timeOff.getId())
+                .doctorId(timeOff.getDoctor() != null ? timeOff.getDoctor().getId() : null)
+                .startDate(timeOff.getStartDate())
+                .endDate(timeOff.getEndDate())
+                .reason(timeOff.getReason())
+                .createdAt(timeOff.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,92 @@
+package com.medisync.core.waitlist.controller;
+
+import com.medisync.core.appointment.dto.AppointmentDTO;
+import com.medisync.core.waitlist.dto.JoinWaitlistRequest;
+import com.medisync.core.waitlist.dto.WaitlistEntryDTO;
+import com.medisync.core.waitlist.dto.WaitlistOfferDTO;
+import com.medisync.core.waitlist.service.WaitlistService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST Controller for doctor waitlists.
+ * Endpoints:
+ * - POST /api/waitlist - Join a doctor's waitlist (PATIENT only)
+ * - GET /api/waitlist - View my waitlist entries (PATIENT only)
+ * - DELETE /api/waitlist/{id} - Leave a waitlist (PATIENT only)
+ * - GET /api/waitlist/offers - View my pending slot offers (PATIENT only)
+ * - POST /api/waitlist/offers/{id}/accept - Book an offered slot (PATIENT only)
+ * - POST /api/waitlist/offers/{id}/decline - Pass an offered slot on (PATIENT only)
+ */
+@RestController
+@RequestMapping("/api/waitlist")
+@RequiredArgsConstructor
+public class WaitlistController {
+
+    private final WaitlistService waitlistService;
+
+    // Join a doctor's waitlist for a date range
+    @PostMapping
+    @PreAuthorize("hasRole('PATIENT')")
+    public ResponseEntity<WaitlistEntryDTO> join(
+            Authentication authentication,
+            @Valid @RequestBody JoinWaitlistRequest request
+    ) {
+        WaitlistEntryDTO entry = waitlistService.join(authentication.getName(), request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(entry);
+    }
+
+    // Get all waitlist entries for the current patient
+    @GetMapping
+    @PreAuthorize("hasRole('PATIENT')")
+    public ResponseEntity<List<WaitlistEntryDTO>> getMyEntries(Authentication authentication) {
+        return ResponseEntity.ok(waitlistService.getMyEntries(authentication.getName()));
+    }
+
+    // Leave a waitlist
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('PATIENT')")
+    public ResponseEntity<Void> leave(
+            @PathVariable Long id,
+            Authentication authentication
+    ) {
+        waitlistService.leave(id, authentication.getName());
+        return ResponseEntity.noContent().build();
+    }
+
+    // Get the current patient's pending offers
+    @GetMapping("/offers")
+    @PreAuthorize("hasRole('PATIENT')")
+    public ResponseEntity<List<WaitlistOfferDTO>> getMyOffers(Authentication authentication) {
+        return ResponseEntity.ok(waitlistService.getMyOffers(authentication.getName()));
+    }
+
+    // Accept an offer; books the held slot
+    @PostMapping("/offers/{id}/accept")
+    @PreAuthorize("hasRole('PATIENT')")
+    public ResponseEntity<AppointmentDTO> accept(
+            @PathVariable String id,
+            Authentication authentication
+    ) {
+        AppointmentDTO appointment = waitlistService.accept(id, authentication.getName());
+        return ResponseEntity.status(HttpStatus.CREATED).body(appointment);
+    }
+
+    // Decline an offer; the slot goes to the next patient on the waitlist
+    @PostMapping("/offers/{id}/decline")
+    @PreAuthorize("hasRole('PATIENT')")
+    public ResponseEntity<Void> decline(
+            @PathVariable String id,
+            Authentication authentication
+    ) {
+        waitlistService.decline(id, authentication.getName());
+        return ResponseEntity.noContent().build();
+    }
+}
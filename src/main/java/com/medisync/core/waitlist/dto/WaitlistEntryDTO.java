@@ -0,0 +1,28 @@
+package com.medisync.core.waitlist.dto;
+
+import com.medisync.core.waitlist.entity.WaitlistEntry;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for waitlist entry responses.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistEntryDTO {
+
+    private Long id;
+    private Long doctorId;
+    private String doctorName;
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private WaitlistEntry.WaitlistStatus status;
+    private LocalDateTime createdAt;
+}
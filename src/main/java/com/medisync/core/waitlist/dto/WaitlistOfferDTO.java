@@ -0,0 +1,29 @@
+package com.medisync.core.waitlist.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * DTO for a freed slot offered to a waitlisted patient.
+ * The slot is held for the patient until expiresAt; accepting books it.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistOfferDTO {
+
+    private String id;
+    private Long entryId;
+    private Long doctorId;
+    private LocalDate appointmentDate;
+    private LocalTime startTime;
+    private LocalTime endTime;
+    private Instant expiresAt;
+}
@@ -0,0 +1,66 @@
+package com.medisync.core.waitlist.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * WaitlistOffer entity: a freed slot offered to one waiting patient, shared by every app node.
+ * A row lives until the offer is accepted, declined, withdrawn or expires; whichever node deletes
+ * it acts on it. At most one offer per waitlist entry and per slot. Written only by WaitlistOfferStore.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(
+        name = "waitlist_offers",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_waitlist_offers_entry", columnNames = "entry_id"),
+                @UniqueConstraint(
+                        name = "uk_waitlist_offers_slot",
+                        columnNames = {"doctor_id", "appointment_date", "start_time"}
+                )
+        },
+        indexes = @Index(name = "idx_waitlist_offers_patient", columnList = "patient_id")
+)
+public class WaitlistOffer {
+
+    @Id
+    @Column(length = 36)
+    private String id; // Also the id of the slot hold behind it
+
+    @Column(name = "entry_id", nullable = false)
+    private Long entryId;
+
+    @Column(name = "patient_id", nullable = false)
+    private Long patientId;
+
+    @Column(name = "doctor_id", nullable = false)
+    private Long doctorId;
+
+    @Column(name = "appointment_date", nullable = false)
+    private LocalDate appointmentDate;
+
+    @Column(name = "start_time", nullable = false)
+    private LocalTime startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private LocalTime endTime;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "passed_patient_ids", nullable = false)
+    private Long[] passedPatientIds; // Patients who already turned this slot down
+}
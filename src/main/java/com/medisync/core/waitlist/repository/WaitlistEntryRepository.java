@@ -0,0 +1,17 @@
+package com.medisync.core.waitlist.repository;
+
+import com.medisync.core.waitlist.entity.WaitlistEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for WaitlistEntry entity.
+ */
+@Repository
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    // Find a patient's entries, newest first
+    List<WaitlistEntry> findByPatient_EmailOrderByCreatedAtDesc(String email);
+}
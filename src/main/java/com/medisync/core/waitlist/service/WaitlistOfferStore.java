@@ -0,0 +1,140 @@
+package com.medisync.core.waitlist.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.Array;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Store of live waitlist offers, in the waitlist_offers table, so every node sees the same offers
+ * and matches freed slots against the waitlist_entries table rather than a copy of its own.
+ * Offers are taken out by deleting their row; only the caller whose delete returns it acts on it,
+ * so an accept, decline, withdrawal and expiry on different nodes can't both go ahead.
+ */
+@Component
+public class WaitlistOfferStore {
+
+    private static final String COLUMNS =
+            "id, entry_id, patient_id, doctor_id, appointment_date, start_time, end_time, expires_at, " +
+                    "passed_patient_ids";
+
+    /*
+     * Offers the slot to the longest-waiting entry whose range covers the date, skipping patients
+     * who passed on it and entries already holding an offer. ON CONFLICT covers another node
+     * offering the same entry or slot at the same moment; no row comes back then.
+     */
+    private static final String OFFER_NEXT_SQL =
+            "INSERT INTO waitlist_offers (" + COLUMNS + ") " +
+                    "SELECT ?, e.id, e.patient_id, e.doctor_id, ?, ?, ?, ?, CAST(? AS bigint[]) " +
+                    "FROM waitlist_entries e " +
+                    "WHERE e.doctor_id = ? AND e.status = 'WAITING' AND e.from_date <= ? AND e.to_date >= ? " +
+                    "AND e.patient_id <> ALL (CAST(? AS bigint[])) " +
+                    "AND NOT EXISTS (SELECT 1 FROM waitlist_offers o WHERE o.entry_id = e.id) " +
+                    "AND NOT EXISTS (SELECT 1 FROM waitlist_offers o WHERE o.doctor_id = e.doctor_id " +
+                    "AND o.appointment_date = ? AND o.start_time = ?) " +
+                    "ORDER BY e.created_at, e.id LIMIT 1 " +
+                    "ON CONFLICT DO NOTHING " +
+                    "RETURNING " + COLUMNS;
+
+    private static final String CLAIM_SQL =
+            "DELETE FROM waitlist_offers WHERE id = ? AND patient_id = ? AND expires_at > ? RETURNING " + COLUMNS;
+
+    private static final String CLAIM_FOR_ENTRY_SQL =
+            "DELETE FROM waitlist_offers WHERE entry_id = ? RETURNING " + COLUMNS;
+
+    private static final String CLAIM_EXPIRED_SQL =
+            "DELETE FROM waitlist_offers WHERE expires_at <= ? RETURNING " + COLUMNS;
+
+    private static final String DELETE_SQL = "DELETE FROM waitlist_offers WHERE id = ?";
+
+    private static final String FIND_LIVE_SQL =
+            "SELECT " + COLUMNS + " FROM waitlist_offers WHERE patient_id = ? AND expires_at > ? " +
+                    "ORDER BY expires_at";
+
+    private static final String FIND_ALL_LIVE_SQL =
+            "SELECT " + COLUMNS + " FROM waitlist_offers WHERE expires_at > ?";
+
+    // How often offerNext looks for another entry after losing one to a concurrent offer
+    private static final int OFFER_ATTEMPTS = 3;
+
+    private static final RowMapper<Offer> OFFER_MAPPER = (rs, rowNum) -> {
+        Array passed = rs.getArray("passed_patient_ids");
+        return new Offer(
+                rs.getString("id"),
+                rs.getLong("entry_id"),
+                rs.getLong("patient_id"),
+                rs.getLong("doctor_id"),
+                rs.getObject("appointment_date", LocalDate.class),
+                rs.getObject("start_time", LocalTime.class),
+                rs.getObject("end_time", LocalTime.class),
+                rs.getTimestamp("expires_at").toInstant(),
+                Arrays.stream((Long[]) passed.getArray()).collect(Collectors.toUnmodifiableSet()));
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public WaitlistOfferStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Offer the slot to the longest-waiting eligible entry for the doctor's date.
+     * Returns empty if there is none, or if the slot already has an offer.
+     */
+    public Optional<Offer> offerNext(String offerId, Long doctorId, LocalDate date, LocalTime startTime,
+                                     LocalTime endTime, Instant expiresAt, Set<Long> passedPatients) {
+        Long[] passed = passedPatients.toArray(Long[]::new);
+        for (int attempt = 0; attempt < OFFER_ATTEMPTS; attempt++) {
+            List<Offer> offered = jdbcTemplate.query(OFFER_NEXT_SQL, OFFER_MAPPER,
+                    offerId, date, startTime, endTime, Timestamp.from(expiresAt), passed,
+                    doctorId, date, date, passed, date, startTime);
+            if (!offered.isEmpty()) {
+                return Optional.of(offered.get(0));
+            }
+        }
+        return Optional.empty();
+    }
+
+    // Take a live offer made to the patient; empty if it is gone, expired or someone else's
+    public Optional<Offer> claim(String offerId, Long patientId) {
+        return jdbcTemplate.query(CLAIM_SQL, OFFER_MAPPER, offerId, patientId, Timestamp.from(Instant.now()))
+                .stream().findFirst();
+    }
+
+    // Take the offer made to a waitlist entry, if any
+    public Optional<Offer> claimForEntry(Long entryId) {
+        return jdbcTemplate.query(CLAIM_FOR_ENTRY_SQL, OFFER_MAPPER, entryId).stream().findFirst();
+    }
+
+    // Take every offer that has run out
+    public List<Offer> claimExpired() {
+        return jdbcTemplate.query(CLAIM_EXPIRED_SQL, OFFER_MAPPER, Timestamp.from(Instant.now()));
+    }
+
+    // Drop an offer whose hold couldn't be placed
+    public void delete(String offerId) {
+        jdbcTemplate.update(DELETE_SQL, offerId);
+    }
+
+    public List<Offer> findLive(Long patientId) {
+        return jdbcTemplate.query(FIND_LIVE_SQL, OFFER_MAPPER, patientId, Timestamp.from(Instant.now()));
+    }
+
+    public List<Offer> findAllLive() {
+        return jdbcTemplate.query(FIND_ALL_LIVE_SQL, OFFER_MAPPER, Timestamp.from(Instant.now()));
+    }
+
+    public record Offer(String id, Long entryId, Long patientId, Long doctorId, LocalDate date,
+                        LocalTime startTime, LocalTime endTime, Instant expiresAt, Set<Long> passedPatients) {
+    }
+}
@@ -0,0 +1,359 @@
+package com.medisync.core.waitlist.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medisync.core.appointment.dto.AppointmentDTO;
+import com.medisync.core.appointment.dto.BookAppointmentRequest;
+import com.medisync.core.appointment.event.AppointmentEvent;
+import com.medisync.core.appointment.service.AppointmentService;
+import com.medisync.core.appointment.service.BookingLockManager;
+import com.medisync.core.cluster.service.ClusterChannels;
+import com.medisync.core.doctor.entity.Doctor;
+import com.medisync.core.doctor.repository.DoctorRepository;
+import com.medisync.core.exception.ResourceNotFoundException;
+import com.medisync.core.patient.entity.Patient;
+import com.medisync.core.patient.repository.PatientRepository;
+import com.medisync.core.schedule.service.SchedulingService;
+import com.medisync.core.schedule.service.SlotHoldStore;
+import com.medisync.core.waitlist.dto.JoinWaitlistRequest;
+import com.medisync.core.waitlist.dto.WaitlistEntryDTO;
+import com.medisync.core.waitlist.dto.WaitlistOfferDTO;
+import com.medisync.core.waitlist.entity.WaitlistEntry;
+import com.medisync.core.waitlist.repository.WaitlistEntryRepository;
+import com.medisync.core.waitlist.service.WaitlistOfferStore.Offer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Service for doctor waitlists.
+ * Handles:
+ * - Joining and leaving a doctor's waitlist for a date range
+ * - Offering a cancelled slot to the longest-waiting eligible patient
+ * - Accepting an offer (books the slot), declining or letting it expire (offers it to the next patient)
+ * Entries and offers live in the database (WaitlistOfferStore), so any node can serve any of these.
+ * An offer is also a slot hold with a longer lifetime, so nobody else can book the slot meanwhile;
+ * holds are kept per node, so placed and released offer holds are sent to every node on the
+ * waitlist_offers channel. A node that misses one still sees the offer's hold expire on time.
+ */
+@Slf4j
+@Service
+public class WaitlistService {
+
+    static final String CHANNEL = "waitlist_offers";
+
+    private final WaitlistEntryRepository waitlistRepository;
+    private final PatientRepository patientRepository;
+    private final DoctorRepository doctorRepository;
+    private final AppointmentService appointmentService;
+    private final SchedulingService schedulingService;
+    private final SlotHoldStore slotHolds;
+    private final BookingLockManager bookingLocks;
+    private final WaitlistOfferStore offerStore;
+    private final ClusterChannels channels;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate newTransaction;
+
+    @Value("${waitlist.offer-ttl-seconds:900}")
+    private long offerTtlSeconds;
+
+    @Value("${waitlist.max-range-days:62}")
+    private int maxRangeDays;
+
+    public WaitlistService(WaitlistEntryRepository waitlistRepository,
+                           PatientRepository patientRepository,
+                           DoctorRepository doctorRepository,
+                           AppointmentService appointmentService,
+                           SchedulingService schedulingService,
+                           SlotHoldStore slotHolds,
+                           BookingLockManager bookingLocks,
+                           WaitlistOfferStore offerStore,
+                           ClusterChannels channels,
+                           ObjectMapper objectMapper,
+                           PlatformTransactionManager transactionManager) {
+        this.waitlistRepository = waitlistRepository;
+        this.patientRepository = patientRepository;
+        this.doctorRepository = doctorRepository;
+        this.appointmentService = appointmentService;
+        this.schedulingService = schedulingService;
+        this.slotHolds = slotHolds;
+        this.bookingLocks = bookingLocks;
+        this.offerStore = offerStore;
+        this.channels = channels;
+        this.objectMapper = objectMapper;
+        // Cancellation listeners run after the cancelling transaction has committed, so they need their own
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        channels.subscribe(CHANNEL, this::onOfferHoldChange);
+    }
+
+    // Join a doctor's waitlist; cancellations on any node match it once it has committed
+    public WaitlistEntryDTO join(String patientEmail, JoinWaitlistRequest request) {
+        if (request.getToDate().isBefore(request.getFromDate())) {
+            throw new IllegalArgumentException("To date must not be before from date");
+        }
+        if (ChronoUnit.DAYS.between(request.getFromDate(), request.getToDate()) >= maxRangeDays) {
+            throw new IllegalArgumentException("Waitlist range must not exceed " + maxRangeDays + " days");
+        }
+
+        WaitlistEntry entry = newTransaction.execute(status -> {
+            Patient patient = patientRepository.findByEmail(patientEmail)
+                    .orElseThrow(() -> new ResourceNotFoundException(
+                            "Patient not found with email: " + patientEmail
+                    ));
+
+            Doctor doctor = doctorRepository.findById(request.getDoctorId())
+                    .orElseThrow(() -> new ResourceNotFoundException(
+                            "Doctor not found with id: " + request.getDoctorId()
+                    ));
+
+            return waitlistRepository.save(WaitlistEntry.builder()
+                    .patient(patient)
+                    .doctor(doctor)
+                    .fromDate(request.getFromDate())
+                    .toDate(request.getToDate())
+                    .status(WaitlistEntry.WaitlistStatus.WAITING)
+                    .build());
+        });
+
+        return mapToDTO(entry);
+    }
+
+    // Leave a waitlist; a pending offer for the entry goes to the next patient
+    public void leave(Long entryId, String patientEmail) {
+        newTransaction.executeWithoutResult(status -> {
+            WaitlistEntry entry = waitlistRepository.findById(entryId)
+                    .orElseThrow(() -> new ResourceNotFoundException(
+                            "Waitlist entry not found with id: " + entryId
+                    ));
+
+            if (!entry.getPatient().getEmail().equals(patientEmail)) {
+                throw new SecurityException("You don't have permission to leave this waitlist entry");
+            }
+
+            if (entry.getStatus() == WaitlistEntry.WaitlistStatus.WAITING) {
+                entry.setStatus(WaitlistEntry.WaitlistStatus.CANCELLED);
+                waitlistRepository.save(entry);
+            }
+        });
+
+        offerStore.claimForEntry(entryId).ifPresent(this::passOn);
+    }
+
+    @Transactional(readOnly = true)
+    public List<WaitlistEntryDTO> getMyEntries(String patientEmail) {
+        return waitlistRepository.findByPatient_EmailOrderByCreatedAtDesc(patientEmail).stream()
+                .map(this::mapToDTO)
+                .collect(Collectors.toList());
+    }
+
+    public List<WaitlistOfferDTO> getMyOffers(String patientEmail) {
+        return offerStore.findLive(patientIdOf(patientEmail)).stream()
+                .map(this::mapToDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Accept an offer: books the held slot for the patient and closes the waitlist entry.
+     * The offer is claimed first, so an accept racing with expiry or a decline only runs once.
+     */
+    public AppointmentDTO accept(String offerId, String patientEmail) {
+        Offer offer = claim(offerId, patientEmail);
+
+        BookAppointmentRequest request = BookAppointmentRequest.builder()
+                .doctorId(offer.doctorId())
+                .appointmentDate(offer.date())
+                .startTime(offer.startTime())
+                .reason("Booked from waitlist")
+                .build();
+
+        AppointmentDTO appointment;
+        try {
+            appointment = appointmentService.bookAppointment(patientEmail, request);
+        } catch (RuntimeException e) {
+            // The slot can't be booked any more (e.g. new time off); keep the patient waiting and
+            // hand the slot on like a decline, in case it is still bookable for someone else
+            passOn(offer);
+            throw e;
+        }
+
+        newTransaction.executeWithoutResult(status -> waitlistRepository.findById(offer.entryId())
+                .ifPresent(entry -> {
+                    entry.setStatus(WaitlistEntry.WaitlistStatus.BOOKED);
+                    waitlistRepository.save(entry);
+                }));
+        // The booking consumed the hold on this node; the others still have theirs
+        sendOfferHold(offer, true);
+        return appointment;
+    }
+
+    // Decline an offer; the slot is offered to the next patient straight away
+    public void decline(String offerId, String patientEmail) {
+        Offer offer = claim(offerId, patientEmail);
+        passOn(offer);
+    }
+
+    // A committed cancellation frees a slot - offer it to the waitlist
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentEvent(AppointmentEvent event) {
+        if (event.getType() != AppointmentEvent.Type.CANCELLED) {
+            return;
+        }
+        LocalDateTime start = LocalDateTime.of(event.getAppointmentDate(), event.getStartTime());
+        if (!start.isAfter(LocalDateTime.now())) {
+            return;
+        }
+
+        Set<Long> passed = new HashSet<>();
+        passed.add(event.getPatientId());
+        offerNext(event.getDoctorId(), event.getAppointmentDate(), event.getStartTime(), event.getEndTime(), passed);
+    }
+
+    // Hold the slots of offers made before this node started
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOfferHolds() {
+        List<Offer> live = offerStore.findAllLive();
+        live.forEach(this::placeOfferHold);
+        log.info("Loaded {} waitlist offers", live.size());
+    }
+
+    // Pass expired offers on to the next patient; each is claimed by exactly one node
+    @Scheduled(fixedDelayString = "${waitlist.expiry-interval-ms:30000}")
+    public void expireOffers() {
+        offerStore.claimExpired().forEach(this::passOn);
+    }
+
+    /**
+     * Offer the slot to the longest-waiting eligible patient and hold it for them.
+     * Runs under the booking lock for the doctor-day, so the slot can't be booked on this node
+     * between the conflict check and the hold. Patients in passed have already turned this slot down.
+     */
+    private void offerNext(Long doctorId, LocalDate date, LocalTime startTime, LocalTime endTime, Set<Long> passed) {
+        bookingLocks.withLock(doctorId, date, () -> {
+            try {
+                schedulingService.isDoctorAvailable(doctorId, date, startTime);
+                schedulingService.hasConflict(doctorId, date, startTime, endTime);
+            } catch (RuntimeException e) {
+                log.debug("Freed slot {} {} for doctor {} is no longer bookable: {}",
+                        date, startTime, doctorId, e.getMessage());
+                return null;
+            }
+            if (slotHolds.isHeld(doctorId, date, startTime, endTime)) {
+                return null;
+            }
+
+            Instant expiresAt = Instant.now().plusSeconds(offerTtlSeconds);
+            offerStore.offerNext(UUID.randomUUID().toString(), doctorId, date, startTime, endTime, expiresAt, passed)
+                    .ifPresent(offer -> {
+                        if (placeOfferHold(offer)) {
+                            sendOfferHold(offer, false);
+                            log.info("Offered slot {} {} with doctor {} to waitlist entry {}",
+                                    date, startTime, doctorId, offer.entryId());
+                        } else {
+                            // Another node's hold reached this one after the check above
+                            offerStore.delete(offer.id());
+                        }
+                    });
+            return null;
+        });
+    }
+
+    // Release a declined, expired or withdrawn offer and offer the slot to the next patient
+    private void passOn(Offer offer) {
+        slotHolds.release(offer.id(), offer.patientId());
+        sendOfferHold(offer, true);
+
+        Set<Long> passed = new HashSet<>(offer.passedPatients());
+        passed.add(offer.patientId());
+        if (LocalDateTime.of(offer.date(), offer.startTime()).isAfter(LocalDateTime.now())) {
+            offerNext(offer.doctorId(), offer.date(), offer.startTime(), offer.endTime(), passed);
+        }
+    }
+
+    // Take an offer out of the store so only one of accept/decline/expiry acts on it, on any node
+    private Offer claim(String offerId, String patientEmail) {
+        return offerStore.claim(offerId, patientIdOf(patientEmail))
+                .orElseThrow(() -> new ResourceNotFoundException("Waitlist offer not found with id: " + offerId));
+    }
+
+    private boolean placeOfferHold(Offer offer) {
+        return slotHolds.holdOffer(offer.id(), offer.doctorId(), offer.date(), offer.startTime(), offer.endTime(),
+                offer.patientId(), offer.expiresAt()).isPresent();
+    }
+
+    // Outside a transaction, so other nodes hear of it at once; this node gets its own message too
+    private void sendOfferHold(Offer offer, boolean released) {
+        try {
+            channels.send(CHANNEL, objectMapper.writeValueAsString(new OfferHoldChange(offer, released)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize waitlist offer", e);
+        }
+    }
+
+    private void onOfferHoldChange(String payload) {
+        try {
+            OfferHoldChange change = objectMapper.readValue(payload, OfferHoldChange.class);
+            if (change.released()) {
+                slotHolds.release(change.offer().id(), change.offer().patientId());
+            } else {
+                placeOfferHold(change.offer());
+            }
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed waitlist offer notification: {}", e.getMessage());
+        }
+    }
+
+    private Long patientIdOf(String patientEmail) {
+        return patientRepository.findByEmail(patientEmail)
+                .map(Patient::getId)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Patient not found with email: " + patientEmail
+                ));
+    }
+
+    private WaitlistEntryDTO mapToDTO(WaitlistEntry entry) {
+        return WaitlistEntryDTO.builder()
+                .id(entry.getId())
+                .doctorId(entry.getDoctor().getId())
+                .doctorName(entry.getDoctor().getFirstName() + " " + entry.getDoctor().getLastName())
+                .fromDate(entry.getFromDate())
+                .toDate(entry.getToDate())
+                .status(entry.getStatus())
+                .createdAt(entry.getCreatedAt())
+                .build();
+    }
+
+    private WaitlistOfferDTO mapToDTO(Offer offer) {
+        return WaitlistOfferDTO.builder()
+                .id(offer.id())
+                .entryId(offer.entryId())
+                .doctorId(offer.doctorId())
+                .appointmentDate(offer.date())
+                .startTime(offer.startTime())
+                .endTime(offer.endTime())
+                .expiresAt(offer.expiresAt())
+                .build();
+    }
+
+    private record OfferHoldChange(Offer offer, boolean released) {
+    }
+}
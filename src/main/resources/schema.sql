@@ -0,0 +1,126 @@
+-- Database objects Hibernate can't generate from the entities.
+-- Runs after Hibernate has created the tables (spring.jpa.defer-datasource-initialization).
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- Appointments are partitioned by month of appointment_date (AppointmentPartitionService adds the
+-- monthly partitions). Hibernate creates a plain table; it is rebuilt here as a partitioned one
+-- with the same columns, defaults, identity, checks and indexes. A partitioned table's primary key
+-- must include the partition key, so nothing can reference appointments(id) by foreign key.
+ALTER TABLE appointments DROP CONSTRAINT appointments_pkey CASCADE;
+
+CREATE TABLE appointments_partitioned (LIKE appointments INCLUDING ALL)
+    PARTITION BY RANGE (appointment_date);
+
+DROP TABLE appointments;
+
+ALTER TABLE appointments_partitioned RENAME TO appointments;
+
+ALTER TABLE appointments ADD PRIMARY KEY (id, appointment_date);
+ALTER TABLE appointments ADD FOREIGN KEY (patient_id) REFERENCES users (id);
+ALTER TABLE appointments ADD FOREIGN KEY (doctor_id) REFERENCES users (id);
+
+-- Holds any row outside the monthly partitions until its partition is created
+CREATE TABLE appointments_default PARTITION OF appointments DEFAULT;
+
+-- A doctor's active appointments may never overlap, whichever app node writes them.
+-- An end time at or before the start time means the appointment runs past midnight.
+-- Exclusion constraints can't be declared on a partitioned table, so each partition gets its own
+-- (AppointmentPartitionService adds it to every monthly partition it creates).
+ALTER TABLE appointments_default
+    ADD CONSTRAINT appointments_default_no_overlap
+    EXCLUDE USING gist (
+        doctor_id WITH =,
+        tsrange(
+            appointment_date + start_time,
+            CASE WHEN end_time > start_time
+                THEN appointment_date + end_time
+                ELSE appointment_date + 1 + end_time
+            END
+        ) WITH &&
+    )
+    WHERE (status NOT IN ('CANCELLED', 'NO_SHOW'));
+
+-- Each partition's exclusion constraint only sees its own month, so an appointment running past
+-- midnight on the last day of a month is not checked against the first morning of the next one.
+-- This trigger closes that gap: a row on either side of a month boundary takes an advisory lock
+-- for (doctor, boundary) and looks for an overlap on the other side, raising the same
+-- exclusion_violation (SQLSTATE 23P01) the constraint would.
+CREATE OR REPLACE FUNCTION appointments_check_month_boundary() RETURNS trigger AS '
+DECLARE
+    boundary date;
+    other_day date;
+BEGIN
+    IF NEW.status IN (''CANCELLED'', ''NO_SHOW'') THEN
+        RETURN NEW;
+    END IF;
+    IF NEW.end_time <= NEW.start_time AND extract(day FROM NEW.appointment_date + 1) = 1 THEN
+        boundary := NEW.appointment_date + 1;
+        other_day := boundary;
+    ELSIF extract(day FROM NEW.appointment_date) = 1 THEN
+        boundary := NEW.appointment_date;
+        other_day := boundary - 1;
+    ELSE
+        RETURN NEW;
+    END IF;
+
+    PERFORM pg_advisory_xact_lock(
+        hashtextextended(''appointments-month-boundary:'' || NEW.doctor_id || '':'' || boundary, 0));
+    IF EXISTS (
+        SELECT 1 FROM appointments a
+        WHERE a.doctor_id = NEW.doctor_id
+          AND a.appointment_date = other_day
+          AND a.status NOT IN (''CANCELLED'', ''NO_SHOW'')
+          AND tsrange(a.appointment_date + a.start_time,
+                      CASE WHEN a.end_time > a.start_time
+                          THEN a.appointment_date + a.end_time
+                          ELSE a.appointment_date + 1 + a.end_time
+                      END)
+              && tsrange(NEW.appointment_date + NEW.start_time,
+                         CASE WHEN NEW.end_time > NEW.start_time
+                             THEN NEW.appointment_date + NEW.end_time
+                             ELSE NEW.appointment_date + 1 + NEW.end_time
+                         END)
+    ) THEN
+        RAISE EXCEPTION ''Appointment overlaps another appointment across the month boundary %'', boundary
+            USING ERRCODE = ''exclusion_violation'';
+    END IF;
+    RETURN NEW;
+END
+' LANGUAGE plpgsql;
+
+CREATE TRIGGER appointments_month_boundary
+    BEFORE INSERT OR UPDATE OF doctor_id, appointment_date, start_time, end_time, status ON appointments
+    FOR EACH ROW EXECUTE FUNCTION appointments_check_month_boundary();
+
+-- appointment_locator (see AppointmentLocator) follows every appointment's date, so lookups by id
+-- can go straight to one partition. Rows stay when their month is archived.
+CREATE OR REPLACE FUNCTION appointments_track_locator() RETURNS trigger AS '
+BEGIN
+    INSERT INTO appointment_locator (id, appointment_date) VALUES (NEW.id, NEW.appointment_date)
+    ON CONFLICT (id) DO UPDATE SET appointment_date = EXCLUDED.appointment_date;
+    RETURN NULL;
+END
+' LANGUAGE plpgsql;
+
+CREATE TRIGGER appointments_locator
+    AFTER INSERT OR UPDATE OF appointment_date ON appointments
+    FOR EACH ROW EXECUTE FUNCTION appointments_track_locator();
+
+-- Scheduled appointments by date, for the no-show job's scan of past-due rows.
+CREATE INDEX IF NOT EXISTS idx_appointments_scheduled_date
+    ON appointments (appointment_date, id)
+    WHERE status = 'SCHEDULED';
+
+-- Archive tier: closed monthly partitions older than appointment.partition.archive-after-months
+-- are detached from appointments and attached here, so everyday queries never touch them.
+-- Recreated with the rest of the schema, like the tables Hibernate manages.
+DROP TABLE IF EXISTS appointments_archive CASCADE;
+
+CREATE TABLE appointments_archive (LIKE appointments INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+    PARTITION BY RANGE (appointment_date);
+
+CREATE INDEX idx_appointments_archive_patient_date
+    ON appointments_archive (patient_id, appointment_date, start_time, id);
+CREATE INDEX idx_appointments_archive_doctor_date
+    ON appointments_archive (doctor_id, appointment_date, start_time, id);
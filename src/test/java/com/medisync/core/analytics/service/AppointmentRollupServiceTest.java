@@ -0,0 +1,140 @@
+package com.medisync.core.analytics.service;
+
+import com.medisync.core.appointment.entity.Appointment;
+import com.medisync.core.appointment.event.AppointmentEvent;
+import com.medisync.core.appointment.event.AppointmentStatusChangedEvent;
+import com.medisync.core.doctor.entity.Doctor;
+import com.medisync.core.patient.entity.Patient;
+import com.medisync.core.user.enums.Role;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The hourly rollup counts bookings, cancellations and status changes as they happen, and
+ * startup only recounts it from scratch when it is empty or was built by an older version.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(AppointmentRollupService.class)
+class AppointmentRollupServiceTest {
+
+    private static final LocalDate DAY = LocalDate.now().plusDays(4);
+
+    @Autowired
+    private AppointmentRollupService rollupService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Doctor doctor;
+    private Patient patient;
+
+    @BeforeEach
+    void setUp() {
+        doctor = Doctor.builder()
+                .email("rollup-doctor@test.com").password("x").role(Role.DOCTOR).isActive(true)
+                .firstName("Gregory").lastName("House").specialization("Diagnostics")
+                .build();
+        entityManager.persist(doctor);
+        patient = Patient.builder()
+                .email("rollup-patient@test.com").password("x").role(Role.PATIENT).isActive(true)
+                .firstName("Jane").lastName("Doe")
+                .build();
+        entityManager.persist(patient);
+        entityManager.flush();
+
+        insert(LocalTime.of(9, 0), "SCHEDULED");
+        insert(LocalTime.of(9, 30), "CANCELLED");
+        insert(LocalTime.of(10, 0), "NO_SHOW");
+    }
+
+    @Test
+    void eventsAreCountedIncrementally() {
+        rollupService.onAppointmentEvent(event(AppointmentEvent.Type.BOOKED, LocalTime.of(14, 0)));
+        rollupService.onAppointmentEvent(event(AppointmentEvent.Type.BOOKED, LocalTime.of(14, 30)));
+        rollupService.onAppointmentEvent(event(AppointmentEvent.Type.CANCELLED, LocalTime.of(14, 30)));
+
+        assertThat(counts(14)).isEqualTo("1/1/0");
+    }
+
+    @Test
+    void cancellingANoShowMovesItToCancelledAsARecountWould() {
+        rollupService.rebuildFrom(DAY);
+        assertThat(counts(10)).isEqualTo("1/0/1");
+
+        jdbcTemplate.update("UPDATE appointments SET status = 'CANCELLED' WHERE doctor_id = ? AND start_time = ?",
+                doctor.getId(), LocalTime.of(10, 0));
+        rollupService.onAppointmentStatusChanged(new AppointmentStatusChangedEvent(1L, doctor.getId(),
+                patient.getId(), DAY, LocalTime.of(10, 0), LocalTime.of(10, 30),
+                Appointment.AppointmentStatus.NO_SHOW, Appointment.AppointmentStatus.CANCELLED));
+        assertThat(counts(10)).isEqualTo("0/1/0");
+
+        rollupService.rebuildFrom(DAY);
+        assertThat(counts(10)).isEqualTo("0/1/0");
+    }
+
+    @Test
+    void startupRecountsOnlyAStaleRollup() {
+        jdbcTemplate.update("INSERT INTO read_model_version (name, version, rebuilt_at) " +
+                "VALUES ('appointment_hourly_rollup', 0, now()) ON CONFLICT (name) DO UPDATE SET version = 0");
+
+        rollupService.onStartup();
+        assertThat(counts(9)).isEqualTo("1/1/0");
+        assertThat(counts(10)).isEqualTo("1/0/1");
+
+        // Current and not empty: a restart leaves the rows as they are
+        jdbcTemplate.update("UPDATE appointment_hourly_rollup SET booked = 7 WHERE doctor_id = ? AND slot_hour = 9",
+                doctor.getId());
+        rollupService.onStartup();
+        assertThat(counts(9)).isEqualTo("7/1/0");
+
+        jdbcTemplate.update("UPDATE read_model_version SET version = 0 WHERE name = 'appointment_hourly_rollup'");
+        rollupService.onStartup();
+        assertThat(counts(9)).isEqualTo("1/1/0");
+    }
+
+    @Test
+    void startupRecountsAnEmptyRollupWhateverItsVersion() {
+        jdbcTemplate.update("DELETE FROM appointment_hourly_rollup");
+        jdbcTemplate.update("INSERT INTO read_model_version (name, version, rebuilt_at) " +
+                "VALUES ('appointment_hourly_rollup', 1000, now()) ON CONFLICT (name) DO UPDATE SET version = 1000");
+
+        rollupService.onStartup();
+
+        assertThat(counts(10)).isEqualTo("1/0/1");
+    }
+
+    private void insert(LocalTime start, String status) {
+        jdbcTemplate.update("INSERT INTO appointments (patient_id, doctor_id, appointment_date, start_time, " +
+                        "end_time, status, created_at) VALUES (?, ?, ?, ?, ?, ?, now())",
+                patient.getId(), doctor.getId(), DAY, start, start.plusMinutes(30), status);
+    }
+
+    private AppointmentEvent event(AppointmentEvent.Type type, LocalTime start) {
+        return AppointmentEvent.builder()
+                .type(type).appointmentId(1L).doctorId(doctor.getId()).patientId(patient.getId())
+                .appointmentDate(DAY).startTime(start).endTime(start.plusMinutes(30))
+                .build();
+    }
+
+    // booked/cancelled/no_show for one hour of the test day
+    private String counts(int hour) {
+        return jdbcTemplate.queryForObject("SELECT booked || '/' || cancelled || '/' || no_show " +
+                        "FROM appointment_hourly_rollup WHERE doctor_id = ? AND slot_date = ? AND slot_hour = ?",
+                String.class, doctor.getId(), DAY, hour);
+    }
+}
@@ -0,0 +1,68 @@
+package com.medisync.core.appointment.repository;
+
+import com.medisync.core.doctor.entity.Doctor;
+import com.medisync.core.support.StatementCountTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Export chunks: a chunk of any size, with patient and doctor names, is read in a single
+ * statement, and following the cursor visits every row exactly once.
+ */
+class AppointmentExportChunkTest extends StatementCountTest {
+
+    private static final int DAYS = 50;
+    private static final int SLOTS_PER_DAY = 20;
+    private static final int PATIENTS = 50;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    private LocalDate firstDay;
+
+    @BeforeEach
+    void setUp() {
+        Doctor doctor = persistDoctor("export-doctor@test.com", "Gregory", "House", "Diagnostics");
+        firstDay = LocalDate.now().plusDays(1);
+        persistAppointments(doctor, persistPatients("export-patient", PATIENTS), firstDay, DAYS, SLOTS_PER_DAY);
+        startCounting();
+    }
+
+    @Test
+    void exportChunkIsOneStatementRegardlessOfSize() {
+        List<AppointmentListView> page = appointmentRepository.findFirstExportChunk(firstDay, firstDay.plusDays(DAYS),
+                Limit.of(DAYS * SLOTS_PER_DAY));
+
+        assertThat(page).hasSize(DAYS * SLOTS_PER_DAY);
+        assertThat(page).allSatisfy(row -> {
+            assertThat(row.getPatientFirstName()).startsWith("Patient");
+            assertThat(row.getDoctorLastName()).isEqualTo("House");
+        });
+        assertThat(statementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void exportChunksFollowTheCursorWithoutGapsOrRepeats() {
+        LocalDate to = firstDay.plusDays(DAYS);
+        List<AppointmentListView> rows = new ArrayList<>(appointmentRepository.findFirstExportChunk(
+                firstDay, to, Limit.of(7)));
+        List<AppointmentListView> chunk;
+        do {
+            AppointmentListView last = rows.get(rows.size() - 1);
+            chunk = appointmentRepository.findExportChunk(firstDay, to,
+                    last.getAppointmentDate(), last.getStartTime(), last.getId(), Limit.of(7));
+            rows.addAll(chunk);
+        } while (chunk.size() == 7);
+
+        assertThat(rows).hasSize(DAYS * SLOTS_PER_DAY);
+        assertThat(rows).extracting(AppointmentListView::getId).doesNotHaveDuplicates();
+    }
+}
@@ -0,0 +1,140 @@
+package com.medisync.core.appointment.repository;
+
+import com.medisync.core.appointment.entity.Appointment;
+import com.medisync.core.doctor.entity.Doctor;
+import com.medisync.core.patient.entity.Patient;
+import com.medisync.core.user.enums.Role;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Appointments across partitions: overlaps are rejected across a month boundary as well as
+ * within a month, and lookups by id find current and archived appointments.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class AppointmentPartitionTest {
+
+    // Last day of a month far enough ahead not to meet other tests' appointments
+    private static final LocalDate MONTH_END = YearMonth.now().plusMonths(30).atEndOfMonth();
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Doctor doctor;
+    private Patient patient;
+
+    @BeforeEach
+    void setUp() {
+        doctor = Doctor.builder()
+                .email("partition-doctor@test.com").password("x").role(Role.DOCTOR).isActive(true)
+                .firstName("Gregory").lastName("House").specialization("Diagnostics")
+                .build();
+        entityManager.persist(doctor);
+        patient = Patient.builder()
+                .email("partition-patient@test.com").password("x").role(Role.PATIENT).isActive(true)
+                .firstName("Jane").lastName("Doe")
+                .build();
+        entityManager.persist(patient);
+        entityManager.flush();
+
+        // Separate partitions on either side of the boundary, each with only its own exclusion constraint
+        createPartition(YearMonth.from(MONTH_END));
+        createPartition(YearMonth.from(MONTH_END.plusDays(1)));
+    }
+
+    @Test
+    void overlapAcrossMidnightAtMonthEndIsRejected() {
+        insert(MONTH_END, LocalTime.of(23, 45), LocalTime.of(0, 15));
+
+        assertThatThrownBy(() -> insert(MONTH_END.plusDays(1), LocalTime.of(0, 0), LocalTime.of(0, 30)))
+                .isInstanceOfSatisfying(DataIntegrityViolationException.class, e ->
+                        assertThat(NestedExceptionUtils.getMostSpecificCause(e))
+                                .isInstanceOfSatisfying(SQLException.class, cause ->
+                                        assertThat(cause.getSQLState()).isEqualTo("23P01")));
+    }
+
+    @Test
+    void adjacentAppointmentsAcrossMonthEndAreAllowed() {
+        insert(MONTH_END, LocalTime.of(23, 45), LocalTime.of(0, 15));
+        insert(MONTH_END.plusDays(1), LocalTime.of(0, 15), LocalTime.of(0, 45));
+        insert(MONTH_END.plusDays(1), LocalTime.of(0, 0), LocalTime.of(0, 30), "CANCELLED");
+
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM appointments WHERE doctor_id = ?",
+                Integer.class, doctor.getId())).isEqualTo(3);
+    }
+
+    @Test
+    void byIdFindsCurrentAndArchivedAppointments() {
+        Long current = insert(MONTH_END, LocalTime.of(9, 0), LocalTime.of(9, 30));
+
+        // Archive a month of its own the way AppointmentPartitionService does
+        YearMonth old = YearMonth.of(2001, 1);
+        createPartition(old);
+        Long archived = insert(old.atDay(15), LocalTime.of(9, 0), LocalTime.of(9, 30), "COMPLETED");
+        jdbcTemplate.execute("ALTER TABLE appointments DETACH PARTITION " + partitionName(old));
+        jdbcTemplate.execute("ALTER TABLE appointments_archive ATTACH PARTITION " + partitionName(old) +
+                bounds(old));
+        entityManager.clear();
+
+        assertThat(appointmentRepository.findWithPatientAndDoctorById(current))
+                .hasValueSatisfying(appointment -> assertThat(appointment.getAppointmentDate()).isEqualTo(MONTH_END));
+        assertThat(appointmentRepository.findWithPatientAndDoctorById(archived)).isEmpty();
+        assertThat(appointmentRepository.findArchivedById(archived)).hasValueSatisfying(appointment -> {
+            assertThat(appointment.getStatus()).isEqualTo(Appointment.AppointmentStatus.COMPLETED);
+            assertThat(appointment.getPatient().getEmail()).isEqualTo("partition-patient@test.com");
+            assertThat(appointment.getDoctor().getSpecialization()).isEqualTo("Diagnostics");
+        });
+    }
+
+    private void createPartition(YearMonth month) {
+        String name = partitionName(month);
+        jdbcTemplate.execute("CREATE TABLE " + name +
+                " (LIKE appointments INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        jdbcTemplate.execute("ALTER TABLE " + name + " ADD CONSTRAINT " + name + "_no_overlap " +
+                "EXCLUDE USING gist (doctor_id WITH =, tsrange(appointment_date + start_time, " +
+                "CASE WHEN end_time > start_time THEN appointment_date + end_time " +
+                "ELSE appointment_date + 1 + end_time END) WITH &&) " +
+                "WHERE (status NOT IN ('CANCELLED', 'NO_SHOW'))");
+        jdbcTemplate.execute("ALTER TABLE appointments ATTACH PARTITION " + name + bounds(month));
+    }
+
+    private static String partitionName(YearMonth month) {
+        return "appointments_p" + month.getYear() + String.format("%02d", month.getMonthValue());
+    }
+
+    private static String bounds(YearMonth month) {
+        return " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')";
+    }
+
+    private Long insert(LocalDate date, LocalTime start, LocalTime end) {
+        return insert(date, start, end, "SCHEDULED");
+    }
+
+    private Long insert(LocalDate date, LocalTime start, LocalTime end, String status) {
+        return jdbcTemplate.queryForObject("INSERT INTO appointments (patient_id, doctor_id, appointment_date, " +
+                        "start_time, end_time, status, created_at) VALUES (?, ?, ?, ?, ?, ?, now()) RETURNING id",
+                Long.class, patient.getId(), doctor.getId(), date, start, end, status);
+    }
+}
@@ -0,0 +1,46 @@
+package com.medisync.core.appointment.repository;
+
+import com.medisync.core.appointment.entity.Appointment;
+import com.medisync.core.doctor.entity.Doctor;
+import com.medisync.core.support.StatementCountTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statement counts for appointment reads: the detail fetch loads the patient and doctor
+ * with the appointment rather than one statement each. List pages are covered by
+ * AppointmentViewRepositoryTest.
+ */
+class AppointmentRepositoryTest extends StatementCountTest {
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    private Doctor doctor;
+    private LocalDate firstDay;
+
+    @BeforeEach
+    void setUp() {
+        doctor = persistDoctor("list-doctor@test.com", "Gregory", "House", "Diagnostics");
+        firstDay = LocalDate.now().plusDays(1);
+        persistAppointments(doctor, persistPatients("list-patient", 1), firstDay, 1, 1);
+        startCounting();
+    }
+
+    @Test
+    void detailLoadsPatientAndDoctorInOneStatement() {
+        Long id = appointmentRepository.findByDoctor_IdAndAppointmentDate(doctor.getId(), firstDay).get(0).getId();
+        startCounting();
+
+        Appointment appointment = appointmentRepository.findWithPatientAndDoctorById(id).orElseThrow();
+
+        assertThat(appointment.getPatient().getEmail()).startsWith("list-patient");
+        assertThat(appointment.getDoctor().getSpecialization()).isEqualTo("Diagnostics");
+        assertThat(statementCount()).isEqualTo(1);
+    }
+}
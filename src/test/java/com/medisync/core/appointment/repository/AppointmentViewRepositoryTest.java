@@ -0,0 +1,59 @@
+package com.medisync.core.appointment.repository;
+
+import com.medisync.core.appointment.entity.AppointmentView;
+import com.medisync.core.appointment.service.AppointmentViewService;
+import com.medisync.core.doctor.entity.Doctor;
+import com.medisync.core.support.StatementCountTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statement counts for the appointment list pages: a page of any size, with patient
+ * and doctor names, is read from appointment_view in a single statement.
+ */
+@Import(AppointmentViewService.class)
+class AppointmentViewRepositoryTest extends StatementCountTest {
+
+    private static final int DAYS = 50;
+    private static final int SLOTS_PER_DAY = 20;
+    private static final int PATIENTS = 50;
+
+    @Autowired
+    private AppointmentViewRepository appointmentViewRepository;
+
+    @Autowired
+    private AppointmentViewService appointmentViewService;
+
+    private Doctor doctor;
+
+    @BeforeEach
+    void setUp() {
+        doctor = persistDoctor("page-doctor@test.com", "Gregory", "House", "Diagnostics");
+        persistAppointments(doctor, persistPatients("page-patient", PATIENTS), LocalDate.now().plusDays(1),
+                DAYS, SLOTS_PER_DAY);
+        entityManager.flush();
+        appointmentViewService.rebuild();
+        startCounting();
+    }
+
+    @Test
+    void doctorPageIsOneStatementRegardlessOfSize() {
+        List<AppointmentView> page = appointmentViewRepository.findDoctorPage(doctor.getId(),
+                null, null, null, null, null, null, Limit.of(DAYS * SLOTS_PER_DAY));
+
+        assertThat(page).hasSize(DAYS * SLOTS_PER_DAY);
+        assertThat(page).allSatisfy(row -> {
+            assertThat(row.getPatientName()).startsWith("Patient");
+            assertThat(row.getDoctorName()).isEqualTo("Dr. Gregory House");
+        });
+        assertThat(statementCount()).isEqualTo(1);
+    }
+}
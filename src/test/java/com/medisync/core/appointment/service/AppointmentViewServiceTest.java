@@ -0,0 +1,187 @@
+package com.medisync.core.appointment.service;
+
+import com.medisync.core.appointment.entity.Appointment;
+import com.medisync.core.appointment.entity.AppointmentView;
+import com.medisync.core.appointment.event.AppointmentEvent;
+import com.medisync.core.appointment.event.AppointmentStatusChangedEvent;
+import com.medisync.core.appointment.event.NoShowBatchEvent;
+import com.medisync.core.appointment.repository.AppointmentViewRepository;
+import com.medisync.core.doctor.entity.Doctor;
+import com.medisync.core.doctor.event.DoctorProfileUpdatedEvent;
+import com.medisync.core.patient.entity.Patient;
+import com.medisync.core.patient.event.PatientProfileUpdatedEvent;
+import com.medisync.core.user.enums.Role;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The appointment_view read model follows bookings, status changes and renames,
+ * a rebuild produces the same rows as the incremental updates, and startup only rebuilds a stale view.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(AppointmentViewService.class)
+class AppointmentViewServiceTest {
+
+    @Autowired
+    private AppointmentViewService appointmentViewService;
+
+    @Autowired
+    private AppointmentViewRepository appointmentViewRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Doctor doctor;
+    private Patient patient;
+    private final List<Appointment> appointments = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        doctor = Doctor.builder()
+                .email("view-doctor@test.com").password("x").role(Role.DOCTOR).isActive(true)
+                .firstName("Gregory").lastName("House").specialization("Diagnostics")
+                .build();
+        entityManager.persist(doctor);
+        patient = Patient.builder()
+                .email("view-patient@test.com").password("x").role(Role.PATIENT).isActive(true)
+                .firstName("Jane").lastName("Doe")
+                .build();
+        entityManager.persist(patient);
+
+        LocalDate day = LocalDate.now().plusDays(3);
+        for (int slot = 0; slot < 3; slot++) {
+            LocalTime start = LocalTime.of(9, 0).plusMinutes(30L * slot);
+            Appointment appointment = Appointment.builder()
+                    .patient(patient).doctor(doctor)
+                    .appointmentDate(day).startTime(start).endTime(start.plusMinutes(30))
+                    .status(Appointment.AppointmentStatus.SCHEDULED).reason("Checkup")
+                    .build();
+            entityManager.persist(appointment);
+            appointments.add(appointment);
+        }
+        entityManager.flush();
+
+        appointments.forEach(appointment -> appointmentViewService.onAppointmentEvent(
+                AppointmentEvent.of(AppointmentEvent.Type.BOOKED, appointment)));
+    }
+
+    @Test
+    void bookingCopiesTheAppointmentWithFormattedNames() {
+        List<AppointmentView> page = patientPage();
+
+        assertThat(page).extracting(AppointmentView::getId)
+                .containsExactly(appointments.get(2).getId(), appointments.get(1).getId(), appointments.get(0).getId());
+        assertThat(page).allSatisfy(row -> {
+            assertThat(row.getPatientName()).isEqualTo("Jane Doe");
+            assertThat(row.getDoctorName()).isEqualTo("Dr. Gregory House");
+            assertThat(row.getDoctorSpecialization()).isEqualTo("Diagnostics");
+            assertThat(row.getReason()).isEqualTo("Checkup");
+        });
+    }
+
+    @Test
+    void statusChangesAreApplied() {
+        appointmentViewService.onAppointmentEvent(
+                AppointmentEvent.of(AppointmentEvent.Type.CANCELLED, appointments.get(0)));
+        appointmentViewService.onNoShowBatch(new NoShowBatchEvent(List.of(new NoShowBatchEvent.MarkedAppointment(
+                appointments.get(1).getId(), doctor.getId(), appointments.get(1).getAppointmentDate(),
+                appointments.get(1).getStartTime()))));
+
+        assertThat(patientPage()).extracting(AppointmentView::getStatus).containsExactly(
+                Appointment.AppointmentStatus.SCHEDULED,
+                Appointment.AppointmentStatus.NO_SHOW,
+                Appointment.AppointmentStatus.CANCELLED);
+    }
+
+    @Test
+    void cancellingANoShowIsApplied() {
+        Appointment appointment = appointments.get(0);
+        appointmentViewService.onNoShowBatch(new NoShowBatchEvent(List.of(new NoShowBatchEvent.MarkedAppointment(
+                appointment.getId(), doctor.getId(), appointment.getAppointmentDate(), appointment.getStartTime()))));
+
+        appointmentViewService.onAppointmentStatusChanged(new AppointmentStatusChangedEvent(appointment.getId(),
+                doctor.getId(), patient.getId(), appointment.getAppointmentDate(), appointment.getStartTime(),
+                appointment.getEndTime(), Appointment.AppointmentStatus.NO_SHOW,
+                Appointment.AppointmentStatus.CANCELLED));
+
+        assertThat(patientPage()).extracting(AppointmentView::getStatus)
+                .last().isEqualTo(Appointment.AppointmentStatus.CANCELLED);
+    }
+
+    @Test
+    void renamesReachEveryRow() {
+        appointmentViewService.onDoctorProfileUpdated(
+                new DoctorProfileUpdatedEvent(doctor.getId(), "Lisa", "Cuddy", "Endocrinology"));
+        appointmentViewService.onPatientProfileUpdated(
+                new PatientProfileUpdatedEvent(patient.getId(), null, "Smith"));
+
+        assertThat(patientPage()).allSatisfy(row -> {
+            assertThat(row.getPatientName()).isEqualTo("Unknown Smith");
+            assertThat(row.getDoctorName()).isEqualTo("Dr. Lisa Cuddy");
+            assertThat(row.getDoctorSpecialization()).isEqualTo("Endocrinology");
+        });
+    }
+
+    @Test
+    void rebuildMatchesIncrementalUpdates() {
+        List<AppointmentView> incremental = patientPage();
+        entityManager.clear();
+
+        appointmentViewService.rebuild();
+
+        assertThat(patientPage()).usingRecursiveFieldByFieldElementComparator().isEqualTo(incremental);
+    }
+
+    @Test
+    void startupRebuildsOnlyAStaleView() {
+        jdbcTemplate.update("DELETE FROM appointment_view WHERE id = ?", appointments.get(0).getId());
+        jdbcTemplate.update("INSERT INTO read_model_version (name, version, rebuilt_at) " +
+                "VALUES ('appointment_view', 1, now()) ON CONFLICT (name) DO UPDATE SET version = 1");
+
+        appointmentViewService.onStartup();
+        assertThat(patientPage()).hasSize(2);
+
+        jdbcTemplate.update("UPDATE read_model_version SET version = 0 WHERE name = 'appointment_view'");
+        appointmentViewService.onStartup();
+        assertThat(patientPage()).hasSize(3);
+    }
+
+    @Test
+    void cursorAndFiltersNarrowThePage() {
+        Appointment last = appointments.get(2);
+        entityManager.clear();
+
+        List<AppointmentView> afterCursor = appointmentViewRepository.findDoctorPage(doctor.getId(),
+                Appointment.AppointmentStatus.SCHEDULED, last.getAppointmentDate(), last.getAppointmentDate(),
+                last.getAppointmentDate(), last.getStartTime(), last.getId(), Limit.of(10));
+
+        assertThat(afterCursor).extracting(AppointmentView::getId)
+                .containsExactly(appointments.get(1).getId(), appointments.get(0).getId());
+        assertThat(appointmentViewRepository.findDoctorPage(doctor.getId(), Appointment.AppointmentStatus.CANCELLED,
+                null, null, null, null, null, Limit.of(10))).isEmpty();
+    }
+
+    private List<AppointmentView> patientPage() {
+        entityManager.clear();
+        return appointmentViewRepository.findPatientPage(patient.getId(),
+                null, null, null, null, null, null, Limit.of(10));
+    }
+}
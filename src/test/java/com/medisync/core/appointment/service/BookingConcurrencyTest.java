@@ -0,0 +1,222 @@
+package com.medisync.core.appointment.service;
+
+import com.medisync.core.appointment.dto.BookAppointmentRequest;
+import com.medisync.core.appointment.entity.Appointment;
+import com.medisync.core.appointment.repository.AppointmentBatchRepository;
+import com.medisync.core.appointment.repository.AppointmentRepository;
+import com.medisync.core.appointment.repository.AppointmentViewRepository;
+import com.medisync.core.doctor.entity.Doctor;
+import com.medisync.core.doctor.repository.DoctorRepository;
+import com.medisync.core.exception.ScheduleConflictException;
+import com.medisync.core.patient.entity.Patient;
+import com.medisync.core.patient.repository.PatientRepository;
+import com.medisync.core.schedule.entity.DoctorSchedule;
+import com.medisync.core.schedule.repository.DoctorScheduleRepository;
+import com.medisync.core.schedule.service.SchedulingService;
+import com.medisync.core.schedule.service.SlotHoldStore;
+import com.medisync.core.user.enums.Role;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrent bookings on Postgres; exactly one booking per slot may commit.
+ * On one node, many threads race for a few doctor-days through its BookingLockManager: the
+ * losers must be turned away by the conflict check under the lock, never reaching the insert.
+ * The second service stands in for another app node: same database, its own booking locks,
+ * so nothing but the exclusion constraint keeps the two apart, and its loser fails with the
+ * ScheduleConflictException that the 23P01 exclusion violation is translated to.
+ */
+@SpringBootTest
+class BookingConcurrencyTest {
+
+    private static final LocalDate FIRST_DATE = LocalDate.now().plusDays(30);
+    private static final LocalTime START = LocalTime.of(10, 0);
+    private static final int ROUNDS = 10;
+    private static final int THREADS = 24;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private DoctorScheduleRepository scheduleRepository;
+
+    @Autowired
+    private SchedulingService schedulingService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private SlotHoldStore slotHolds;
+
+    @Autowired
+    private AppointmentBatchRepository appointmentBatchRepository;
+
+    @Autowired
+    private AppointmentViewRepository appointmentViewRepository;
+
+    private AppointmentService otherNode;
+    private Doctor doctor;
+    private Doctor otherDoctor;
+    private final List<String> patientEmails = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        otherNode = new AppointmentService(appointmentRepository, patientRepository, doctorRepository,
+                schedulingService, eventPublisher, new BookingLockManager(1024), transactionTemplate,
+                slotHolds, appointmentBatchRepository, appointmentViewRepository);
+
+        // Committed up front: the bookings run in their own transactions on other threads
+        String suffix = UUID.randomUUID().toString();
+        doctor = saveDoctor("race-doctor-" + suffix + "@test.com");
+        otherDoctor = saveDoctor("race-other-doctor-" + suffix + "@test.com");
+        for (int i = 0; i < THREADS; i++) {
+            Patient patient = patientRepository.save(Patient.builder()
+                    .email("race-patient" + i + "-" + suffix + "@test.com").password("x").role(Role.PATIENT)
+                    .isActive(true).firstName("Patient" + i).lastName("Test")
+                    .build());
+            patientEmails.add(patient.getEmail());
+        }
+    }
+
+    @Test
+    void manyThreadsOnOneNodeNeverDoubleBook() throws Exception {
+        // Four threads per doctor-day, all released at once
+        List<Doctor> doctors = List.of(doctor, otherDoctor);
+        List<LocalDate> dates = List.of(FIRST_DATE, FIRST_DATE.plusDays(1), FIRST_DATE.plusDays(2));
+        int doctorDays = doctors.size() * dates.size();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CyclicBarrier start = new CyclicBarrier(THREADS);
+            List<Future<Object>> results = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                Long doctorId = doctors.get(i % doctors.size()).getId();
+                LocalDate date = dates.get(i / doctors.size() % dates.size());
+                String patientEmail = patientEmails.get(i);
+                results.add(executor.submit(() -> book(appointmentService, patientEmail, doctorId, date, start)));
+            }
+
+            List<Object> outcomes = new ArrayList<>();
+            for (Future<Object> result : results) {
+                outcomes.add(result.get(30, TimeUnit.SECONDS));
+            }
+            assertThat(outcomes).as("outcomes %s", outcomes)
+                    .filteredOn(outcome -> outcome == Boolean.TRUE).hasSize(doctorDays);
+            assertThat(outcomes).as("outcomes %s", outcomes)
+                    .filteredOn(outcome -> outcome != Boolean.TRUE)
+                    .hasSize(THREADS - doctorDays)
+                    .allMatch(BookingConcurrencyTest::rejectedByConflictCheck);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (Doctor bookedDoctor : doctors) {
+            for (LocalDate date : dates) {
+                assertThat(appointmentRepository.findByDoctor_IdAndAppointmentDate(bookedDoctor.getId(), date))
+                        .singleElement()
+                        .satisfies(appointment -> assertThat(appointment.getStartTime()).isEqualTo(START));
+            }
+        }
+    }
+
+    @Test
+    void sameSlotFromTwoNodesCommitsExactlyOnce() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                LocalDate date = FIRST_DATE.plusDays(round);
+                CyclicBarrier start = new CyclicBarrier(2);
+                Future<Object> first = executor.submit(() ->
+                        book(appointmentService, patientEmails.get(0), doctor.getId(), date, start));
+                Future<Object> second = executor.submit(() ->
+                        book(otherNode, patientEmails.get(1), doctor.getId(), date, start));
+
+                List<Object> outcomes = List.of(first.get(30, TimeUnit.SECONDS), second.get(30, TimeUnit.SECONDS));
+                assertThat(outcomes).as("outcomes in round %d: %s", round, outcomes)
+                        .filteredOn(outcome -> outcome instanceof ScheduleConflictException).hasSize(1);
+                assertThat(outcomes).as("outcomes in round %d: %s", round, outcomes)
+                        .filteredOn(outcome -> outcome == Boolean.TRUE).hasSize(1);
+
+                assertThat(appointmentRepository.findByDoctor_IdAndAppointmentDate(doctor.getId(), date))
+                        .singleElement()
+                        .satisfies(appointment -> {
+                            assertThat(appointment.getStartTime()).isEqualTo(START);
+                            assertThat(appointment.getStatus()).isEqualTo(Appointment.AppointmentStatus.SCHEDULED);
+                        });
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Doctor saveDoctor(String email) {
+        Doctor saved = doctorRepository.save(Doctor.builder()
+                .email(email).password("x").role(Role.DOCTOR).isActive(true)
+                .firstName("Gregory").lastName("House").specialization("Diagnostics")
+                .build());
+        for (DayOfWeek day : DayOfWeek.values()) {
+            scheduleRepository.save(DoctorSchedule.builder()
+                    .doctor(saved).dayOfWeek(day)
+                    .startTime(LocalTime.of(9, 0)).endTime(LocalTime.of(17, 0))
+                    .slotDuration(30).isAvailable(true)
+                    .build());
+        }
+        return saved;
+    }
+
+    // True if the booking committed, otherwise the exception it failed with
+    private Object book(AppointmentService node, String patientEmail, Long doctorId, LocalDate date,
+                        CyclicBarrier start) throws Exception {
+        start.await(10, TimeUnit.SECONDS);
+        try {
+            node.bookAppointment(patientEmail, BookAppointmentRequest.builder()
+                    .doctorId(doctorId)
+                    .appointmentDate(date)
+                    .startTime(START)
+                    .reason("Check-up")
+                    .build());
+            return true;
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    // Thrown by SchedulingService.hasConflict, not translated from a 23P01 insert failure
+    private static boolean rejectedByConflictCheck(Object outcome) {
+        return outcome instanceof ScheduleConflictException e && Arrays.stream(e.getStackTrace())
+                .anyMatch(frame -> frame.getClassName().startsWith(SchedulingService.class.getName()) &&
+                        frame.getMethodName().equals("hasConflict"));
+    }
+}
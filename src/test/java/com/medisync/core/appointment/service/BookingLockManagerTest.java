@@ -0,0 +1,100 @@
+package com.medisync.core.appointment.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bookings for one doctor's day run one at a time; bookings for other doctors don't wait on them.
+ */
+class BookingLockManagerTest {
+
+    private static final LocalDate DATE = LocalDate.now().plusDays(7);
+
+    private final BookingLockManager bookingLocks = new BookingLockManager(1024);
+
+    @Test
+    void sameDoctorDayRunsOneAtATime() throws Exception {
+        int threads = 16;
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger maxInside = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CyclicBarrier start = new CyclicBarrier(threads);
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return bookingLocks.withLock(1L, DATE, () -> {
+                        maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+                        sleep(5);
+                        return inside.decrementAndGet();
+                    });
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(maxInside.get()).isEqualTo(1);
+    }
+
+    @Test
+    void differentDoctorsRunInParallel() throws Exception {
+        // Pick doctors that land on distinct stripes so none of them share a lock
+        int threads = 8;
+        List<Long> doctorIds = new ArrayList<>();
+        Set<Integer> usedStripes = new HashSet<>();
+        for (long doctorId = 1; doctorIds.size() < threads; doctorId++) {
+            if (usedStripes.add(bookingLocks.stripeFor(doctorId, DATE))) {
+                doctorIds.add(doctorId);
+            }
+        }
+
+        // Every action waits inside its lock until all of them are there;
+        // if any two were serialized, the barrier would time out
+        CyclicBarrier allInside = new CyclicBarrier(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (Long doctorId : doctorIds) {
+                results.add(executor.submit(() -> bookingLocks.withLock(doctorId, DATE, () -> {
+                    try {
+                        return allInside.await(10, TimeUnit.SECONDS);
+                    } catch (Exception e) {
+                        throw new IllegalStateException("Locks for different doctors were serialized", e);
+                    }
+                })));
+            }
+            for (Future<Integer> result : results) {
+                assertThat(result.get(30, TimeUnit.SECONDS)).isBetween(0, threads - 1);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
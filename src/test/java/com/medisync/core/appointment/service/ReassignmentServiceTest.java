@@ -0,0 +1,98 @@
+package com.medisync.core.appointment.service;
+
+import com.medisync.core.appointment.dto.ReassignmentPlanDTO;
+import com.medisync.core.appointment.dto.ReassignmentRequest;
+import com.medisync.core.appointment.repository.AppointmentBatchRepository;
+import com.medisync.core.appointment.repository.AppointmentRepository;
+import com.medisync.core.doctor.entity.Doctor;
+import com.medisync.core.doctor.repository.DoctorRepository;
+import com.medisync.core.schedule.dto.AvailabilityGridDTO;
+import com.medisync.core.schedule.service.SchedulingService;
+import com.medisync.core.support.StatementCountTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Statement counts for a reassignment plan: the doctor, the colleagues and the appointments with
+ * their patients, however many patients there are. Colleagues' grids come from a mocked SchedulingService.
+ */
+class ReassignmentServiceTest extends StatementCountTest {
+
+    // Other tests commit doctors of their own; none of them shares this specialization
+    private static final String SPECIALIZATION = "Reassignment";
+    private static final LocalDate FIRST_DAY = LocalDate.now().plusDays(1);
+    private static final int DAYS = 5;
+    private static final int SLOTS_PER_DAY = 4;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final SchedulingService schedulingService = mock(SchedulingService.class);
+
+    private ReassignmentService reassignmentService;
+    private Doctor doctor;
+
+    @BeforeEach
+    void setUp() {
+        reassignmentService = new ReassignmentService(appointmentRepository, mock(AppointmentBatchRepository.class),
+                doctorRepository, schedulingService, new BookingLockManager(64),
+                new TransactionTemplate(transactionManager), mock(ApplicationEventPublisher.class), 1);
+
+        doctor = persistDoctor("reassign-doctor@test.com", "Gregory", "House", SPECIALIZATION);
+        Doctor colleague = persistDoctor("reassign-colleague@test.com", "Lisa", "Cuddy", SPECIALIZATION);
+        // Every appointment has a different patient, so loading them one by one would show up
+        persistAppointments(doctor, persistPatients("reassign-patient", DAYS * SLOTS_PER_DAY), FIRST_DAY,
+                DAYS, SLOTS_PER_DAY);
+
+        // The colleague is free over the same hours every day
+        List<AvailabilityGridDTO.DayAvailability> days = new ArrayList<>();
+        for (int day = 0; day < DAYS; day++) {
+            days.add(AvailabilityGridDTO.DayAvailability.builder()
+                    .date(FIRST_DAY.plusDays(day)).startTime(LocalTime.of(8, 0)).slotDuration(30)
+                    .slots("1".repeat(SLOTS_PER_DAY))
+                    .build());
+        }
+        when(schedulingService.getAvailabilityGrid(eq(colleague.getId()), any(), any()))
+                .thenReturn(AvailabilityGridDTO.builder().doctorId(colleague.getId()).days(days).build());
+
+        startCounting();
+    }
+
+    @Test
+    void planLoadsPatientsWithTheAppointments() {
+        ReassignmentPlanDTO plan = reassignmentService.reassign(ReassignmentRequest.builder()
+                .doctorId(doctor.getId())
+                .fromDate(FIRST_DAY)
+                .toDate(FIRST_DAY.plusDays(DAYS - 1))
+                .build());
+
+        assertThat(plan.getAffected()).isEqualTo(DAYS * SLOTS_PER_DAY);
+        assertThat(plan.getReassigned()).isEqualTo(DAYS * SLOTS_PER_DAY);
+        assertThat(plan.getAssignments()).allSatisfy(assignment -> {
+            assertThat(assignment.getPatientName()).matches("Patient\\d+ Test");
+            assertThat(assignment.getNewDoctorName()).isEqualTo("Lisa Cuddy");
+        });
+        assertThat(statementCount()).isEqualTo(3);
+    }
+}
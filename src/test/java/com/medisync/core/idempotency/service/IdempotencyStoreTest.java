@@ -0,0 +1,86 @@
+package com.medisync.core.idempotency.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Claim lifecycle of idempotency_keys: one claim per key, in progress until completed,
+ * replayed after, released on failure, and taken over once abandoned or expired.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(IdempotencyStore.class)
+class IdempotencyStoreTest {
+
+    private static final String KEY = "patient@test.com|key-1";
+
+    @Autowired
+    private IdempotencyStore store;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void secondClaimWaitsForTheFirstThenReplaysIt() {
+        assertThat(store.claim(KEY, "fp").status()).isEqualTo(IdempotencyStore.ClaimStatus.STARTED);
+        assertThat(store.claim(KEY, "fp").status()).isEqualTo(IdempotencyStore.ClaimStatus.IN_PROGRESS);
+
+        store.complete(KEY, "fp", new IdempotencyStore.StoredResponse(201, "application/json",
+                "{\"id\":1}".getBytes(StandardCharsets.UTF_8)));
+
+        IdempotencyStore.Claim replay = store.claim(KEY, "fp");
+        assertThat(replay.status()).isEqualTo(IdempotencyStore.ClaimStatus.REPLAY);
+        assertThat(replay.response().status()).isEqualTo(201);
+        assertThat(replay.response().contentType()).isEqualTo("application/json");
+        assertThat(new String(replay.response().body(), StandardCharsets.UTF_8)).isEqualTo("{\"id\":1}");
+    }
+
+    @Test
+    void keyCannotBeReusedForADifferentRequest() {
+        store.claim(KEY, "fp");
+
+        assertThat(store.claim(KEY, "other").status()).isEqualTo(IdempotencyStore.ClaimStatus.MISMATCH);
+    }
+
+    @Test
+    void releasedClaimRunsAgain() {
+        store.claim(KEY, "fp");
+        store.release(KEY);
+
+        assertThat(store.claim(KEY, "fp").status()).isEqualTo(IdempotencyStore.ClaimStatus.STARTED);
+    }
+
+    @Test
+    void abandonedClaimIsTakenOverButACompletedOneIsKept() {
+        store.claim(KEY, "fp");
+        store.claim("patient@test.com|key-2", "fp");
+        store.complete("patient@test.com|key-2", "fp", new IdempotencyStore.StoredResponse(201, null, new byte[0]));
+        jdbcTemplate.update("UPDATE idempotency_keys SET created_at = created_at - interval '10 minutes'");
+
+        assertThat(store.claim(KEY, "fp").status()).isEqualTo(IdempotencyStore.ClaimStatus.STARTED);
+        assertThat(store.claim("patient@test.com|key-2", "fp").status())
+                .isEqualTo(IdempotencyStore.ClaimStatus.REPLAY);
+    }
+
+    @Test
+    void expiredEntriesAreClaimedAfreshAndPurged() {
+        store.claim(KEY, "fp");
+        store.complete(KEY, "fp", new IdempotencyStore.StoredResponse(201, null, new byte[0]));
+        store.claim("patient@test.com|key-2", "fp");
+        jdbcTemplate.update("UPDATE idempotency_keys SET created_at = created_at - interval '25 hours'");
+
+        assertThat(store.claim(KEY, "other").status()).isEqualTo(IdempotencyStore.ClaimStatus.STARTED);
+        store.purgeExpired();
+
+        assertThat(jdbcTemplate.queryForList("SELECT user_key FROM idempotency_keys", String.class))
+                .containsExactly(KEY);
+    }
+}
@@ -0,0 +1,85 @@
+package com.medisync.core.medicalrecord.service;
+
+import com.medisync.core.doctor.entity.Doctor;
+import com.medisync.core.medicalrecord.dto.MedicalRecordListDTO;
+import com.medisync.core.medicalrecord.entity.LabReport;
+import com.medisync.core.medicalrecord.entity.MedicalRecord;
+import com.medisync.core.medicalrecord.entity.Prescription;
+import com.medisync.core.patient.entity.Patient;
+import com.medisync.core.support.StatementCountTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statement counts for the medical record lists: the records with their doctors, then one
+ * grouped count each for prescriptions and lab reports, however many records there are.
+ */
+@Import(MedicalRecordService.class)
+class MedicalRecordServiceTest extends StatementCountTest {
+
+    private static final int RECORDS = 30;
+
+    @Autowired
+    private MedicalRecordService medicalRecordService;
+
+    @BeforeEach
+    void setUp() {
+        Patient patient = persistPatient("records-patient@test.com", "Jane", "Doe");
+
+        // Several doctors, so loading them one by one would show up as extra statements
+        Doctor[] doctors = new Doctor[3];
+        for (int i = 0; i < doctors.length; i++) {
+            doctors[i] = persistDoctor("records-doctor" + i + "@test.com", "Doc" + i, "Test", "General");
+        }
+
+        for (int i = 0; i < RECORDS; i++) {
+            MedicalRecord record = MedicalRecord.builder()
+                    .patient(patient)
+                    .doctor(doctors[i % doctors.length])
+                    .visitDate(LocalDate.now().minusDays(i))
+                    .diagnosis("Diagnosis " + i)
+                    .build();
+            entityManager.persist(record);
+            for (int p = 0; p < i % 4; p++) {
+                entityManager.persist(Prescription.builder()
+                        .medicalRecord(record).medicationName("Med" + p).dosage("1 tablet").frequency("Daily")
+                        .build());
+            }
+            for (int l = 0; l < i % 3; l++) {
+                entityManager.persist(LabReport.builder()
+                        .medicalRecord(record).testName("Test" + l).fileName("report.pdf").filePath("/tmp/report.pdf")
+                        .build());
+            }
+        }
+        startCounting();
+    }
+
+    @Test
+    void patientListCountsItemsInConstantStatements() {
+        List<MedicalRecordListDTO> records = medicalRecordService.getPatientMedicalRecords("records-patient@test.com");
+
+        assertThat(records).hasSize(RECORDS);
+        assertThat(records).allSatisfy(record -> {
+            int i = Integer.parseInt(record.getDiagnosis().substring("Diagnosis ".length()));
+            assertThat(record.getPrescriptionCount()).isEqualTo(i % 4);
+            assertThat(record.getLabReportCount()).isEqualTo(i % 3);
+            assertThat(record.getDoctorName()).isEqualTo("Dr. Doc" + (i % 3) + " Test");
+        });
+        assertThat(statementCount()).isEqualTo(3);
+    }
+
+    @Test
+    void doctorListCountsItemsInConstantStatements() {
+        List<MedicalRecordListDTO> records = medicalRecordService.getDoctorMedicalRecords("records-doctor0@test.com");
+
+        assertThat(records).hasSize(RECORDS / 3);
+        assertThat(statementCount()).isEqualTo(3);
+    }
+}
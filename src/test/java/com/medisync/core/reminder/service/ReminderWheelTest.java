@@ -0,0 +1,95 @@
+package com.medisync.core.reminder.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Timing wheel behaviour: reminders fire in the tick they fall due, including after several
+ * turns of the wheel, and cancelled or moved reminders don't fire at their old time.
+ * The wheel is small so tests cross many turns quickly.
+ */
+class ReminderWheelTest {
+
+    private static final Duration TICK = Duration.ofSeconds(30);
+    private static final Instant START = Instant.parse("2026-03-01T08:00:00Z");
+
+    private final ReminderWheel wheel = new ReminderWheel(TICK, 8, START);
+
+    @Test
+    void firesInTheTickItFallsDue() {
+        wheel.schedule(reminder(1L, AppointmentReminder.Kind.TWO_HOURS_BEFORE, START.plusSeconds(95)));
+
+        assertThat(wheel.advance(START.plusSeconds(89))).isEmpty();
+        assertThat(wheel.advance(START.plusSeconds(90)))
+                .extracting(AppointmentReminder::appointmentId).containsExactly(1L);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void waitsOutFullTurnsOfTheWheel() {
+        // 8 buckets of 30s is one turn every 4 minutes; this is due 2 turns and a bit later
+        Instant dueAt = START.plus(Duration.ofMinutes(9));
+        wheel.schedule(reminder(1L, AppointmentReminder.Kind.DAY_BEFORE, dueAt));
+
+        List<AppointmentReminder> fired = new ArrayList<>();
+        for (Instant now = START; now.isBefore(dueAt); now = now.plus(TICK)) {
+            fired.addAll(wheel.advance(now));
+        }
+        assertThat(fired).isEmpty();
+        assertThat(wheel.advance(dueAt)).hasSize(1);
+    }
+
+    @Test
+    void catchesUpOnTicksMissedBetweenAdvances() {
+        wheel.schedule(reminder(1L, AppointmentReminder.Kind.TWO_HOURS_BEFORE, START.plusSeconds(40)));
+        wheel.schedule(reminder(2L, AppointmentReminder.Kind.TWO_HOURS_BEFORE, START.plusSeconds(400)));
+
+        assertThat(wheel.advance(START.plusSeconds(600)))
+                .extracting(AppointmentReminder::appointmentId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void overdueRemindersFireOnTheNextTick() {
+        wheel.advance(START.plusSeconds(60));
+        wheel.schedule(reminder(1L, AppointmentReminder.Kind.DAY_BEFORE, START));
+
+        assertThat(wheel.advance(START.plusSeconds(90))).hasSize(1);
+    }
+
+    @Test
+    void cancelDropsEveryReminderOfTheAppointment() {
+        wheel.schedule(reminder(1L, AppointmentReminder.Kind.DAY_BEFORE, START.plusSeconds(60)));
+        wheel.schedule(reminder(1L, AppointmentReminder.Kind.TWO_HOURS_BEFORE, START.plusSeconds(600)));
+        wheel.schedule(reminder(2L, AppointmentReminder.Kind.DAY_BEFORE, START.plusSeconds(60)));
+
+        wheel.cancel(1L);
+
+        assertThat(wheel.size()).isEqualTo(1);
+        assertThat(wheel.advance(START.plusSeconds(900)))
+                .extracting(AppointmentReminder::appointmentId).containsExactly(2L);
+    }
+
+    @Test
+    void schedulingAgainMovesTheReminder() {
+        wheel.schedule(reminder(1L, AppointmentReminder.Kind.DAY_BEFORE, START.plusSeconds(60)));
+        wheel.schedule(reminder(1L, AppointmentReminder.Kind.DAY_BEFORE, START.plusSeconds(300)));
+
+        assertThat(wheel.size()).isEqualTo(1);
+        assertThat(wheel.advance(START.plusSeconds(299))).isEmpty();
+        assertThat(wheel.advance(START.plusSeconds(300)))
+                .extracting(AppointmentReminder::dueAt).containsExactly(START.plusSeconds(300));
+    }
+
+    private AppointmentReminder reminder(Long appointmentId, AppointmentReminder.Kind kind, Instant dueAt) {
+        return new AppointmentReminder(appointmentId, 10L, 20L, LocalDate.of(2026, 3, 2),
+                LocalTime.of(9, 0), kind, dueAt);
+    }
+}
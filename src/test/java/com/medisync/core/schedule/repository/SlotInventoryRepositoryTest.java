@@ -0,0 +1,105 @@
+package com.medisync.core.schedule.repository;
+
+import com.medisync.core.appointment.entity.Appointment;
+import com.medisync.core.doctor.entity.Doctor;
+import com.medisync.core.patient.entity.Patient;
+import com.medisync.core.schedule.entity.SlotInventory;
+import com.medisync.core.user.enums.Role;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A slot's status follows every appointment overlapping it, not just the last one written.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class SlotInventoryRepositoryTest {
+
+    private static final LocalTime NINE = LocalTime.of(9, 0);
+
+    @Autowired
+    private SlotInventoryRepository inventoryRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Doctor doctor;
+    private LocalDate day;
+    private SlotInventory slot;
+    private Appointment first;
+    private Appointment second;
+
+    @BeforeEach
+    void setUp() {
+        doctor = Doctor.builder()
+                .email("slots-doctor@test.com").password("x").role(Role.DOCTOR).isActive(true)
+                .firstName("Gregory").lastName("House").specialization("Diagnostics")
+                .build();
+        entityManager.persist(doctor);
+        Patient patient = Patient.builder()
+                .email("slots-patient@test.com").password("x").role(Role.PATIENT).isActive(true)
+                .firstName("Jane").lastName("Doe")
+                .build();
+        entityManager.persist(patient);
+
+        // One hour-long slot, shared by two back-to-back half-hour appointments
+        day = LocalDate.now().plusDays(2);
+        slot = SlotInventory.builder()
+                .doctor(doctor).slotDate(day).startTime(NINE).endTime(NINE.plusHours(1))
+                .status(SlotInventory.SlotStatus.OPEN)
+                .build();
+        entityManager.persist(slot);
+        first = appointment(patient, NINE);
+        second = appointment(patient, NINE.plusMinutes(30));
+        entityManager.flush();
+    }
+
+    @Test
+    void slotStaysBookedUntilEveryOverlappingAppointmentIsGone() {
+        refresh(first);
+        refresh(second);
+        assertThat(slotStatus()).isEqualTo(SlotInventory.SlotStatus.BOOKED);
+
+        first.setStatus(Appointment.AppointmentStatus.CANCELLED);
+        refresh(first);
+        assertThat(slotStatus()).isEqualTo(SlotInventory.SlotStatus.BOOKED);
+        assertThat(entityManager.find(SlotInventory.class, slot.getId()).getAppointmentId())
+                .isEqualTo(second.getId());
+
+        second.setStatus(Appointment.AppointmentStatus.CANCELLED);
+        refresh(second);
+        assertThat(slotStatus()).isEqualTo(SlotInventory.SlotStatus.OPEN);
+    }
+
+    private Appointment appointment(Patient patient, LocalTime start) {
+        Appointment appointment = Appointment.builder()
+                .patient(patient).doctor(doctor)
+                .appointmentDate(day).startTime(start).endTime(start.plusMinutes(30))
+                .status(Appointment.AppointmentStatus.SCHEDULED)
+                .build();
+        entityManager.persist(appointment);
+        return appointment;
+    }
+
+    private void refresh(Appointment appointment) {
+        inventoryRepository.refreshOverlapping(doctor.getId(), day, appointment.getStartTime(),
+                appointment.getEndTime());
+    }
+
+    private SlotInventory.SlotStatus slotStatus() {
+        entityManager.clear();
+        SlotInventory.SlotStatus status = entityManager.find(SlotInventory.class, slot.getId()).getStatus();
+        first = entityManager.merge(first);
+        second = entityManager.merge(second);
+        return status;
+    }
+}
@@ -0,0 +1,105 @@
+package com.medisync.core.schedule.service;
+
+import com.medisync.core.doctor.entity.Doctor;
+import com.medisync.core.patient.entity.Patient;
+import com.medisync.core.schedule.dto.EarliestSlotDTO;
+import com.medisync.core.schedule.entity.DoctorSchedule;
+import com.medisync.core.user.enums.Role;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Appointments written without an AppointmentEvent, as another node's bookings arrive here:
+ * a slot another node booked is never returned, and one it freed shows up once the date expires.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({NextFreeSlotIndex.class, SlotAvailabilityIndex.class, SlotHoldStore.class, TimeOffIndex.class})
+class NextFreeSlotIndexTest {
+
+    private static final String SPECIALIZATION = "Nephrology";
+    private static final LocalDate DAY = LocalDate.now().plusDays(3);
+    private static final LocalTime NINE = LocalTime.of(9, 0);
+
+    @Autowired
+    private NextFreeSlotIndex nextFreeSlotIndex;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Doctor doctor;
+    private Patient patient;
+
+    @BeforeEach
+    void setUp() {
+        doctor = Doctor.builder()
+                .email("earliest-doctor@test.com").password("x").role(Role.DOCTOR).isActive(true)
+                .firstName("Gregory").lastName("House").specialization(SPECIALIZATION)
+                .build();
+        entityManager.persist(doctor);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            entityManager.persist(DoctorSchedule.builder()
+                    .doctor(doctor).dayOfWeek(day)
+                    .startTime(NINE).endTime(LocalTime.of(11, 0))
+                    .slotDuration(30).isAvailable(true)
+                    .build());
+        }
+        patient = Patient.builder()
+                .email("earliest-patient@test.com").password("x").role(Role.PATIENT).isActive(true)
+                .firstName("Jane").lastName("Doe")
+                .build();
+        entityManager.persist(patient);
+        entityManager.flush();
+    }
+
+    @Test
+    void slotBookedOnAnotherNodeIsNotReturned() {
+        assertThat(earliestStarts(2)).containsExactly(NINE, LocalTime.of(9, 30));
+
+        insert(NINE, "SCHEDULED");
+
+        assertThat(earliestStarts(2)).containsExactly(LocalTime.of(9, 30), LocalTime.of(10, 0));
+    }
+
+    @Test
+    void slotFreedOnAnotherNodeShowsUpOnceTheDateExpires() {
+        insert(NINE, "SCHEDULED");
+        assertThat(earliestStarts(1)).containsExactly(LocalTime.of(9, 30));
+
+        jdbcTemplate.update("UPDATE appointments SET status = 'CANCELLED' WHERE doctor_id = ?", doctor.getId());
+        assertThat(earliestStarts(1)).containsExactly(LocalTime.of(9, 30));
+
+        ReflectionTestUtils.setField(nextFreeSlotIndex, "ttlSeconds", 0L);
+        assertThat(earliestStarts(1)).containsExactly(NINE);
+    }
+
+    private List<LocalTime> earliestStarts(int limit) {
+        return nextFreeSlotIndex.findEarliest(SPECIALIZATION, DAY.atStartOfDay(), DAY.plusDays(1).atStartOfDay(), limit)
+                .stream()
+                .map(EarliestSlotDTO::getStartTime)
+                .toList();
+    }
+
+    private void insert(LocalTime start, String status) {
+        jdbcTemplate.update("INSERT INTO appointments (patient_id, doctor_id, appointment_date, start_time, " +
+                        "end_time, status, created_at) VALUES (?, ?, ?, ?, ?, ?, now())",
+                patient.getId(), doctor.getId(), DAY, start, start.plusMinutes(30), status);
+    }
+}
@@ -0,0 +1,98 @@
+package com.medisync.core.schedule.service;
+
+import com.medisync.core.appointment.repository.AppointmentRepository;
+import com.medisync.core.doctor.entity.Doctor;
+import com.medisync.core.patient.entity.Patient;
+import com.medisync.core.user.enums.Role;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Appointments written without an AppointmentEvent, as another node's bookings arrive here:
+ * the database overlap check sees them at once, the index once its copy of the day expires.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(SlotAvailabilityIndex.class)
+class SlotAvailabilityIndexTest {
+
+    private static final LocalDate DAY = LocalDate.now().plusDays(5);
+    private static final LocalTime NINE = LocalTime.of(9, 0);
+
+    @Autowired
+    private SlotAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Doctor doctor;
+    private Patient patient;
+
+    @BeforeEach
+    void setUp() {
+        doctor = Doctor.builder()
+                .email("index-doctor@test.com").password("x").role(Role.DOCTOR).isActive(true)
+                .firstName("Gregory").lastName("House").specialization("Diagnostics")
+                .build();
+        entityManager.persist(doctor);
+        patient = Patient.builder()
+                .email("index-patient@test.com").password("x").role(Role.PATIENT).isActive(true)
+                .firstName("Jane").lastName("Doe")
+                .build();
+        entityManager.persist(patient);
+        entityManager.flush();
+    }
+
+    @Test
+    void expiredDayIsReloaded() {
+        assertThat(availabilityIndex.getBookedMinutes(doctor.getId(), DAY).anySet(NINE, NINE.plusMinutes(30))).isFalse();
+
+        insert(DAY, NINE, NINE.plusMinutes(30), "SCHEDULED");
+        assertThat(availabilityIndex.getBookedMinutes(doctor.getId(), DAY).anySet(NINE, NINE.plusMinutes(30))).isFalse();
+
+        ReflectionTestUtils.setField(availabilityIndex, "ttlSeconds", 0L);
+        assertThat(availabilityIndex.getBookedMinutes(doctor.getId(), DAY).anySet(NINE, NINE.plusMinutes(30))).isTrue();
+    }
+
+    @Test
+    void overlapCheckMatchesTheExclusionConstraint() {
+        insert(DAY, NINE, NINE.plusMinutes(30), "SCHEDULED");
+        insert(DAY, LocalTime.of(10, 0), LocalTime.of(10, 30), "CANCELLED");
+        insert(DAY, LocalTime.of(23, 45), LocalTime.of(0, 15), "SCHEDULED");
+
+        assertThat(overlaps(DAY, LocalTime.of(9, 15), LocalTime.of(9, 45))).isTrue();
+        assertThat(overlaps(DAY, NINE.plusMinutes(30), LocalTime.of(10, 0))).isFalse();
+        assertThat(overlaps(DAY, LocalTime.of(10, 0), LocalTime.of(10, 30))).isFalse();
+        // The late appointment runs into the next morning
+        assertThat(overlaps(DAY.plusDays(1), LocalTime.of(0, 0), LocalTime.of(0, 30))).isTrue();
+        assertThat(overlaps(DAY.plusDays(1), LocalTime.of(0, 15), LocalTime.of(0, 45))).isFalse();
+    }
+
+    private boolean overlaps(LocalDate date, LocalTime start, LocalTime end) {
+        return appointmentRepository.existsActiveOverlap(doctor.getId(), date, start, end);
+    }
+
+    private void insert(LocalDate date, LocalTime start, LocalTime end, String status) {
+        jdbcTemplate.update("INSERT INTO appointments (patient_id, doctor_id, appointment_date, start_time, " +
+                        "end_time, status, created_at) VALUES (?, ?, ?, ?, ?, ?, now())",
+                patient.getId(), doctor.getId(), date, start, end, status);
+    }
+}
@@ -0,0 +1,147 @@
+package com.medisync.core.schedule.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medisync.core.appointment.event.AppointmentEvent;
+import com.medisync.core.cluster.service.ClusterChannels;
+import com.medisync.core.config.CacheConfig;
+import com.medisync.core.schedule.event.ScheduleChangedEvent;
+import com.medisync.core.schedule.event.SlotHoldChangedEvent;
+import com.medisync.core.schedule.event.TimeOffChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Two nodes with their own caches: a change committed on one evicts the same entries on the other.
+ */
+class SlotCacheInvalidatorTest {
+
+    private static final LocalDate DAY = LocalDate.now().plusDays(3);
+
+    private final LocalChannels channels = new LocalChannels();
+    private final Node nodeA = new Node();
+    private final Node nodeB = new Node();
+
+    @Test
+    void bookingEvictsTheDayAndItsIndexOnEveryNode() {
+        nodeA.cacheSlots(1L, DAY);
+        nodeA.cacheSlots(1L, DAY.plusDays(1));
+        nodeB.cacheSlots(1L, DAY);
+        nodeB.cacheSlots(1L, DAY.plusDays(1));
+
+        nodeA.invalidator.onAppointmentEvent(AppointmentEvent.builder()
+                .type(AppointmentEvent.Type.BOOKED).appointmentId(10L).doctorId(1L).patientId(2L)
+                .appointmentDate(DAY).startTime(LocalTime.of(9, 0)).endTime(LocalTime.of(9, 30))
+                .build());
+
+        for (Node node : List.of(nodeA, nodeB)) {
+            assertThat(node.slots().get("1:" + DAY)).isNull();
+            assertThat(node.slots().get("1:" + DAY.plusDays(1))).isNotNull();
+        }
+        // The committing node's index was updated by the event itself
+        verify(nodeA.availabilityIndex, never()).invalidate(1L, DAY);
+        verify(nodeB.availabilityIndex).invalidate(1L, DAY);
+    }
+
+    @Test
+    void scheduleChangeEvictsTheDoctorOnEveryNode() {
+        for (Node node : List.of(nodeA, nodeB)) {
+            node.cacheSlots(1L, DAY);
+            node.cacheSlots(1L, DAY.plusDays(1));
+            node.cacheSlots(2L, DAY);
+            node.schedules().put(1L, List.of());
+        }
+
+        nodeA.invalidator.onScheduleChanged(new ScheduleChangedEvent(1L, DayOfWeek.MONDAY));
+
+        for (Node node : List.of(nodeA, nodeB)) {
+            assertThat(node.slots().get("1:" + DAY)).isNull();
+            assertThat(node.slots().get("1:" + DAY.plusDays(1))).isNull();
+            assertThat(node.slots().get("2:" + DAY)).isNotNull();
+            assertThat(node.schedules().get(1L)).isNull();
+        }
+    }
+
+    @Test
+    void clinicClosureClearsEveryNodeAndReloadsItsTimeOff() {
+        for (Node node : List.of(nodeA, nodeB)) {
+            node.cacheSlots(1L, DAY);
+            node.cacheSlots(2L, DAY);
+        }
+
+        nodeA.invalidator.onTimeOffChanged(new TimeOffChangedEvent(null, DAY, DAY));
+
+        for (Node node : List.of(nodeA, nodeB)) {
+            assertThat(node.slots().get("1:" + DAY)).isNull();
+            assertThat(node.slots().get("2:" + DAY)).isNull();
+        }
+        verify(nodeB.timeOffIndex).invalidate();
+    }
+
+    @Test
+    void holdsStayOnTheirNode() {
+        nodeA.cacheSlots(1L, DAY);
+        nodeB.cacheSlots(1L, DAY);
+
+        nodeA.invalidator.onSlotHoldChanged(new SlotHoldChangedEvent(1L, DAY));
+
+        assertThat(nodeA.slots().get("1:" + DAY)).isNull();
+        assertThat(nodeB.slots().get("1:" + DAY)).isNotNull();
+    }
+
+    private class Node {
+
+        final CaffeineCacheManager cacheManager =
+                new CaffeineCacheManager(CacheConfig.AVAILABLE_SLOTS, CacheConfig.DOCTOR_SCHEDULES);
+        final SlotAvailabilityIndex availabilityIndex = mock(SlotAvailabilityIndex.class);
+        final TimeOffIndex timeOffIndex = mock(TimeOffIndex.class);
+        final SlotCacheInvalidator invalidator = new SlotCacheInvalidator(cacheManager, channels,
+                new ObjectMapper().findAndRegisterModules(), availabilityIndex, timeOffIndex);
+
+        void cacheSlots(Long doctorId, LocalDate date) {
+            slots().put(doctorId + ":" + date, List.of());
+        }
+
+        Cache slots() {
+            return cacheManager.getCache(CacheConfig.AVAILABLE_SLOTS);
+        }
+
+        Cache schedules() {
+            return cacheManager.getCache(CacheConfig.DOCTOR_SCHEDULES);
+        }
+    }
+
+    // Delivers every message to every subscriber at once, as NOTIFY outside a transaction does
+    private static class LocalChannels extends ClusterChannels {
+
+        private final Map<String, List<Consumer<String>>> handlers = new HashMap<>();
+
+        LocalChannels() {
+            super(null, null);
+        }
+
+        @Override
+        public void send(String channel, String payload) {
+            handlers.getOrDefault(channel, List.of()).forEach(handler -> handler.accept(payload));
+        }
+
+        @Override
+        public void subscribe(String channel, Consumer<String> handler) {
+            handlers.computeIfAbsent(channel, name -> new ArrayList<>()).add(handler);
+        }
+    }
+}
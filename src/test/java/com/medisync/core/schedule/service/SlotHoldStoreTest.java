@@ -0,0 +1,56 @@
+package com.medisync.core.schedule.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * A new hold replaces only the patient's earlier checkout hold on the doctor-day,
+ * and only once it has been placed.
+ */
+class SlotHoldStoreTest {
+
+    private static final Long DOCTOR_ID = 1L;
+    private static final LocalDate DATE = LocalDate.now().plusDays(2);
+
+    private final SlotHoldStore slotHolds = new SlotHoldStore(300, mock(ApplicationEventPublisher.class));
+
+    @Test
+    void newCheckoutHoldReplacesTheEarlierOne() {
+        SlotHoldStore.SlotHold first = hold(10L, LocalTime.of(9, 0)).orElseThrow();
+        SlotHoldStore.SlotHold second = hold(10L, LocalTime.of(9, 30)).orElseThrow();
+
+        assertThat(slotHolds.getHolds(DOCTOR_ID, DATE)).containsExactly(second);
+        assertThat(slotHolds.release(first.id(), 10L)).isFalse();
+    }
+
+    @Test
+    void rejectedHoldKeepsTheEarlierOne() {
+        SlotHoldStore.SlotHold kept = hold(10L, LocalTime.of(9, 0)).orElseThrow();
+        hold(20L, LocalTime.of(11, 0)).orElseThrow();
+
+        assertThat(hold(10L, LocalTime.of(11, 0))).isEmpty();
+        assertThat(slotHolds.getHolds(DOCTOR_ID, DATE)).extracting(SlotHoldStore.SlotHold::id).contains(kept.id());
+    }
+
+    @Test
+    void checkoutHoldLeavesTheWaitlistOfferInPlace() {
+        SlotHoldStore.SlotHold offer = slotHolds.holdOffer("offer-1", DOCTOR_ID, DATE, LocalTime.of(14, 0),
+                LocalTime.of(14, 30), 10L, Instant.now().plus(Duration.ofMinutes(15))).orElseThrow();
+        SlotHoldStore.SlotHold checkout = hold(10L, LocalTime.of(9, 0)).orElseThrow();
+
+        assertThat(slotHolds.getHolds(DOCTOR_ID, DATE)).containsExactlyInAnyOrder(offer, checkout);
+    }
+
+    private Optional<SlotHoldStore.SlotHold> hold(Long patientId, LocalTime start) {
+        return slotHolds.hold(DOCTOR_ID, DATE, start, start.plusMinutes(30), patientId);
+    }
+}
@@ -0,0 +1,87 @@
+package com.medisync.core.schedule.service;
+
+import com.medisync.core.doctor.entity.Doctor;
+import com.medisync.core.user.enums.Role;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Time off written without a TimeOffChangedEvent, as another node's change arrives here:
+ * the database check sees it at once and the index catches up after it or after the TTL.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TimeOffIndex.class)
+class TimeOffIndexTest {
+
+    private static final LocalDate DAY = LocalDate.now().plusDays(10);
+
+    @Autowired
+    private TimeOffIndex timeOffIndex;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Doctor doctor;
+
+    @BeforeEach
+    void setUp() {
+        doctor = Doctor.builder()
+                .email("timeoff-doctor@test.com").password("x").role(Role.DOCTOR).isActive(true)
+                .firstName("Gregory").lastName("House").specialization("Diagnostics")
+                .build();
+        entityManager.persist(doctor);
+        entityManager.flush();
+    }
+
+    @Test
+    void databaseCheckSeesChangesFromOtherNodesAndRefreshesTheIndex() {
+        assertThat(timeOffIndex.isBlocked(doctor.getId(), DAY)).isFalse();
+
+        insertTimeOff(doctor.getId(), DAY, DAY.plusDays(2));
+        assertThat(timeOffIndex.isBlocked(doctor.getId(), DAY)).isFalse();
+
+        assertThat(timeOffIndex.isBlockedInDatabase(doctor.getId(), DAY)).isTrue();
+        assertThat(timeOffIndex.isBlocked(doctor.getId(), DAY)).isTrue();
+    }
+
+    @Test
+    void seriesCheckReturnsOnlyBlockedDates() {
+        insertTimeOff(doctor.getId(), DAY, DAY);
+        insertTimeOff(null, DAY.plusDays(14), DAY.plusDays(14));
+
+        assertThat(timeOffIndex.findBlockedInDatabase(doctor.getId(),
+                List.of(DAY, DAY.plusDays(7), DAY.plusDays(14), DAY.plusDays(21))))
+                .containsExactlyInAnyOrder(DAY, DAY.plusDays(14));
+    }
+
+    @Test
+    void expiredSnapshotIsReloaded() {
+        ReflectionTestUtils.setField(timeOffIndex, "ttlSeconds", 0L);
+        assertThat(timeOffIndex.isBlocked(doctor.getId(), DAY)).isFalse();
+
+        insertTimeOff(null, DAY, DAY);
+
+        assertThat(timeOffIndex.isBlocked(doctor.getId(), DAY)).isTrue();
+    }
+
+    private void insertTimeOff(Long doctorId, LocalDate start, LocalDate end) {
+        jdbcTemplate.update("INSERT INTO time_off (doctor_id, start_date, end_date, created_at) " +
+                "VALUES (?, ?, ?, now())", doctorId, start, end);
+    }
+}
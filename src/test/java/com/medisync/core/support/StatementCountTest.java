@@ -0,0 +1,91 @@
+package com.medisync.core.support;
+
+import com.medisync.core.appointment.entity.Appointment;
+import com.medisync.core.doctor.entity.Doctor;
+import com.medisync.core.patient.entity.Patient;
+import com.medisync.core.user.enums.Role;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Base for tests that assert how many statements a query or service call prepares.
+ * Subclasses persist their data with the helpers below, call startCounting(), run the
+ * code under test and check statementCount().
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public abstract class StatementCountTest {
+
+    @Autowired
+    protected EntityManager entityManager;
+
+    protected Doctor persistDoctor(String email, String firstName, String lastName, String specialization) {
+        Doctor doctor = Doctor.builder()
+                .email(email).password("x").role(Role.DOCTOR).isActive(true)
+                .firstName(firstName).lastName(lastName).specialization(specialization)
+                .build();
+        entityManager.persist(doctor);
+        return doctor;
+    }
+
+    protected Patient persistPatient(String email, String firstName, String lastName) {
+        Patient patient = Patient.builder()
+                .email(email).password("x").role(Role.PATIENT).isActive(true)
+                .firstName(firstName).lastName(lastName)
+                .build();
+        entityManager.persist(patient);
+        return patient;
+    }
+
+    // Patients named Patient0 Test, Patient1 Test, ... with emails <prefix>0@test.com, ...
+    protected List<Patient> persistPatients(String emailPrefix, int count) {
+        List<Patient> patients = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            patients.add(persistPatient(emailPrefix + i + "@test.com", "Patient" + i, "Test"));
+        }
+        return patients;
+    }
+
+    // Back-to-back half-hour appointments from 08:00 on each day, taking the patients in turn
+    protected void persistAppointments(Doctor doctor, List<Patient> patients, LocalDate firstDay,
+                                       int days, int slotsPerDay) {
+        for (int day = 0; day < days; day++) {
+            for (int slot = 0; slot < slotsPerDay; slot++) {
+                LocalTime start = LocalTime.of(8, 0).plusMinutes(30L * slot);
+                entityManager.persist(Appointment.builder()
+                        .patient(patients.get((day * slotsPerDay + slot) % patients.size()))
+                        .doctor(doctor)
+                        .appointmentDate(firstDay.plusDays(day))
+                        .startTime(start)
+                        .endTime(start.plusMinutes(30))
+                        .status(Appointment.AppointmentStatus.SCHEDULED)
+                        .reason("Checkup")
+                        .build());
+            }
+        }
+    }
+
+    // Write what was persisted, empty the persistence context and count from zero
+    protected void startCounting() {
+        entityManager.flush();
+        entityManager.clear();
+        statistics().clear();
+    }
+
+    protected long statementCount() {
+        return statistics().getPrepareStatementCount();
+    }
+
+    private Statistics statistics() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+}
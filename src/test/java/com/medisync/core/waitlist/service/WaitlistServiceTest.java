@@ -0,0 +1,314 @@
+package com.medisync.core.waitlist.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medisync.core.appointment.dto.AppointmentDTO;
+import com.medisync.core.appointment.event.AppointmentEvent;
+import com.medisync.core.appointment.service.AppointmentService;
+import com.medisync.core.appointment.service.BookingLockManager;
+import com.medisync.core.cluster.service.ClusterChannels;
+import com.medisync.core.doctor.entity.Doctor;
+import com.medisync.core.doctor.repository.DoctorRepository;
+import com.medisync.core.exception.ResourceNotFoundException;
+import com.medisync.core.exception.ScheduleConflictException;
+import com.medisync.core.patient.entity.Patient;
+import com.medisync.core.patient.repository.PatientRepository;
+import com.medisync.core.schedule.service.SchedulingService;
+import com.medisync.core.schedule.service.SlotHoldStore;
+import com.medisync.core.user.enums.Role;
+import com.medisync.core.waitlist.dto.JoinWaitlistRequest;
+import com.medisync.core.waitlist.dto.WaitlistEntryDTO;
+import com.medisync.core.waitlist.dto.WaitlistOfferDTO;
+import com.medisync.core.waitlist.entity.WaitlistEntry;
+import com.medisync.core.waitlist.repository.WaitlistEntryRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Waitlist offer transitions across two app nodes sharing the database and the cluster channels:
+ * a cancellation on either node offers the slot to the longest-waiting patient, whichever node
+ * they joined on; accepting books it, declining, expiry or a failed booking hand it to the next
+ * patient, from either node. An accept racing with expiry is acted on exactly once.
+ * Booking itself is mocked; offers, slot holds and booking locks are the real ones.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class WaitlistServiceTest {
+
+    private static final LocalDate DATE = LocalDate.now().plusDays(5);
+    private static final LocalTime START = LocalTime.of(10, 0);
+    private static final LocalTime END = LocalTime.of(10, 30);
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private WaitlistEntryRepository waitlistRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    private final AppointmentService appointmentService = mock(AppointmentService.class);
+    private final LocalChannels channels = new LocalChannels();
+    private final Map<String, Long> entryIds = new HashMap<>();
+
+    private Long doctorId;
+    private Node nodeA;
+    private Node nodeB;
+
+    @BeforeEach
+    void setUp() {
+        Doctor doctor = Doctor.builder()
+                .email("waitlist-doctor@test.com").password("x").role(Role.DOCTOR).isActive(true)
+                .firstName("Lisa").lastName("Cuddy").specialization("Endocrinology")
+                .build();
+        entityManager.persist(doctor);
+        doctorId = doctor.getId();
+        for (int n = 1; n <= 3; n++) {
+            entityManager.persist(Patient.builder()
+                    .email(email(n)).password("x").role(Role.PATIENT).isActive(true)
+                    .firstName("Patient" + n).lastName("Test")
+                    .build());
+        }
+        entityManager.flush();
+
+        nodeA = new Node();
+        nodeB = new Node();
+
+        // Patient n joins in turn, alternating nodes; lower numbers joined earlier
+        for (int n = 1; n <= 3; n++) {
+            WaitlistEntryDTO entry = (n % 2 == 1 ? nodeA : nodeB).waitlist.join(email(n),
+                    JoinWaitlistRequest.builder().doctorId(doctorId).fromDate(DATE).toDate(DATE).build());
+            entryIds.put(email(n), entry.getId());
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    void cancellationOffersTheSlotToTheLongestWaitingOnEveryNode() {
+        cancelSlot(nodeB);
+
+        assertThat(nodeA.offersOf(1)).singleElement().satisfies(offer -> {
+            assertThat(offer.getEntryId()).isEqualTo(entryIds.get(email(1)));
+            assertThat(offer.getStartTime()).isEqualTo(START);
+        });
+        assertThat(nodeB.offersOf(1)).hasSize(1);
+        assertThat(nodeA.offersOf(2)).isEmpty();
+        for (Node node : List.of(nodeA, nodeB)) {
+            assertThat(node.slotHolds.isHeldByOther(doctorId, DATE, START, END, patientId(1))).isFalse();
+            assertThat(node.slotHolds.isHeldByOther(doctorId, DATE, START, END, patientId(2))).isTrue();
+        }
+    }
+
+    @Test
+    void acceptOnAnotherNodeBooksTheSlotAndClosesTheEntry() {
+        cancelSlot(nodeA);
+        when(appointmentService.bookAppointment(eq(email(1)), any())).thenReturn(new AppointmentDTO());
+
+        nodeB.waitlist.accept(nodeB.offersOf(1).get(0).getId(), email(1));
+
+        verify(appointmentService).bookAppointment(eq(email(1)), any());
+        assertThat(statusOf(1)).isEqualTo(WaitlistEntry.WaitlistStatus.BOOKED);
+        assertThat(nodeA.offersOf(1)).isEmpty();
+        assertThat(nodeA.offersOf(2)).isEmpty();
+        assertThat(nodeA.slotHolds.isHeld(doctorId, DATE, START, END)).isFalse();
+    }
+
+    @Test
+    void declinePassesTheSlotToTheNextPatient() {
+        cancelSlot(nodeA);
+
+        nodeB.waitlist.decline(nodeB.offersOf(1).get(0).getId(), email(1));
+
+        assertThat(nodeA.offersOf(1)).isEmpty();
+        assertThat(nodeA.offersOf(2)).singleElement()
+                .satisfies(offer -> assertThat(offer.getEntryId()).isEqualTo(entryIds.get(email(2))));
+        assertThat(nodeA.slotHolds.isHeldByOther(doctorId, DATE, START, END, patientId(2))).isFalse();
+        assertThat(statusOf(1)).isEqualTo(WaitlistEntry.WaitlistStatus.WAITING);
+    }
+
+    @Test
+    void leavingWithdrawsTheOfferOnEveryNode() {
+        cancelSlot(nodeA);
+
+        nodeB.waitlist.leave(entryIds.get(email(1)), email(1));
+
+        assertThat(nodeA.offersOf(1)).isEmpty();
+        assertThat(nodeA.offersOf(2)).hasSize(1);
+        assertThat(statusOf(1)).isEqualTo(WaitlistEntry.WaitlistStatus.CANCELLED);
+    }
+
+    @Test
+    void expiryOnAnyNodePassesTheSlotToTheNextPatient() {
+        expireNextOffers();
+        cancelSlot(nodeA);
+        restoreOfferTtl();
+
+        nodeB.waitlist.expireOffers();
+        nodeA.waitlist.expireOffers();
+
+        assertThat(nodeA.offersOf(2)).singleElement()
+                .satisfies(offer -> assertThat(offer.getEntryId()).isEqualTo(entryIds.get(email(2))));
+        assertThat(nodeA.offersOf(3)).isEmpty();
+    }
+
+    @Test
+    void failedBookingPassesTheSlotOnLikeADecline() {
+        cancelSlot(nodeA);
+        when(appointmentService.bookAppointment(eq(email(1)), any()))
+                .thenThrow(new ScheduleConflictException("Time slot is not available"));
+
+        String offerId = nodeA.offersOf(1).get(0).getId();
+        assertThatThrownBy(() -> nodeA.waitlist.accept(offerId, email(1)))
+                .isInstanceOf(ScheduleConflictException.class);
+
+        assertThat(nodeA.offersOf(2)).singleElement()
+                .satisfies(offer -> assertThat(offer.getEntryId()).isEqualTo(entryIds.get(email(2))));
+        assertThat(statusOf(1)).isEqualTo(WaitlistEntry.WaitlistStatus.WAITING);
+    }
+
+    @Test
+    void acceptAfterExpiryIsRejected() {
+        expireNextOffers();
+        cancelSlot(nodeA);
+        restoreOfferTtl();
+        String offerId = jdbcTemplate.queryForObject("SELECT id FROM waitlist_offers", String.class);
+
+        nodeB.waitlist.expireOffers();
+
+        assertThatThrownBy(() -> nodeA.waitlist.accept(offerId, email(1)))
+                .isInstanceOf(ResourceNotFoundException.class);
+        verify(appointmentService, never()).bookAppointment(anyString(), any());
+        assertThat(nodeA.offersOf(2)).hasSize(1);
+    }
+
+    @Test
+    void expiryDuringAnAcceptedBookingDoesNotPassTheSlotOn() {
+        cancelSlot(nodeA);
+
+        // The offer runs out while its booking is in progress, and another node's expiry job runs right then
+        when(appointmentService.bookAppointment(eq(email(1)), any())).thenAnswer(invocation -> {
+            jdbcTemplate.update("UPDATE waitlist_offers SET expires_at = now() - interval '1 second'");
+            nodeB.waitlist.expireOffers();
+            return new AppointmentDTO();
+        });
+
+        nodeA.waitlist.accept(nodeA.offersOf(1).get(0).getId(), email(1));
+
+        verify(appointmentService, times(1)).bookAppointment(anyString(), any());
+        assertThat(statusOf(1)).isEqualTo(WaitlistEntry.WaitlistStatus.BOOKED);
+        assertThat(nodeA.offersOf(2)).isEmpty();
+        assertThat(nodeB.slotHolds.isHeld(doctorId, DATE, START, END)).isFalse();
+    }
+
+    @Test
+    void restartedNodeHoldsTheSlotsOfLiveOffers() {
+        cancelSlot(nodeA);
+        Node restarted = new Node();
+
+        restarted.waitlist.loadOfferHolds();
+
+        assertThat(restarted.slotHolds.isHeldByOther(doctorId, DATE, START, END, patientId(2))).isTrue();
+    }
+
+    private void cancelSlot(Node node) {
+        node.waitlist.onAppointmentEvent(AppointmentEvent.builder()
+                .type(AppointmentEvent.Type.CANCELLED)
+                .appointmentId(99L).doctorId(doctorId).patientId(-1L)
+                .appointmentDate(DATE).startTime(START).endTime(END)
+                .build());
+    }
+
+    private void expireNextOffers() {
+        ReflectionTestUtils.setField(nodeA.waitlist, "offerTtlSeconds", 0L);
+    }
+
+    private void restoreOfferTtl() {
+        ReflectionTestUtils.setField(nodeA.waitlist, "offerTtlSeconds", 900L);
+    }
+
+    private WaitlistEntry.WaitlistStatus statusOf(int patient) {
+        entityManager.flush();
+        entityManager.clear();
+        return waitlistRepository.findById(entryIds.get(email(patient))).orElseThrow().getStatus();
+    }
+
+    private Long patientId(int patient) {
+        return patientRepository.findByEmail(email(patient)).orElseThrow().getId();
+    }
+
+    private static String email(int patient) {
+        return "waitlist-patient" + patient + "@test.com";
+    }
+
+    // One app node: its own slot holds and booking locks, everything else shared
+    private class Node {
+
+        final SlotHoldStore slotHolds = new SlotHoldStore(300, mock(ApplicationEventPublisher.class));
+        final WaitlistService waitlist = new WaitlistService(waitlistRepository, patientRepository,
+                doctorRepository, appointmentService, mock(SchedulingService.class), slotHolds,
+                new BookingLockManager(64), new WaitlistOfferStore(jdbcTemplate), channels,
+                new ObjectMapper().findAndRegisterModules(), mock(PlatformTransactionManager.class));
+
+        Node() {
+            ReflectionTestUtils.setField(waitlist, "offerTtlSeconds", 900L);
+            ReflectionTestUtils.setField(waitlist, "maxRangeDays", 62);
+        }
+
+        List<WaitlistOfferDTO> offersOf(int patient) {
+            return waitlist.getMyOffers(email(patient));
+        }
+    }
+
+    // Delivers every message to every subscriber at once, as NOTIFY outside a transaction does
+    private static class LocalChannels extends ClusterChannels {
+
+        private final Map<String, List<Consumer<String>>> handlers = new HashMap<>();
+
+        LocalChannels() {
+            super(null, null);
+        }
+
+        @Override
+        public void send(String channel, String payload) {
+            handlers.getOrDefault(channel, List.of()).forEach(handler -> handler.accept(payload));
+        }
+
+        @Override
+        public void subscribe(String channel, Consumer<String> handler) {
+            handlers.computeIfAbsent(channel, name -> new ArrayList<>()).add(handler);
+        }
+    }
+}